@@ -0,0 +1,322 @@
+package com.dmv.footballheadz.load;
+
+import com.amazonaws.services.dynamodbv2.local.main.ServerRunner;
+import com.amazonaws.services.dynamodbv2.local.server.DynamoDBProxyServer;
+import com.dmv.footballheadz.Application;
+import com.dmv.footballheadz.game.impl.Game;
+import com.dmv.footballheadz.game.impl.GameRepository;
+import com.dmv.footballheadz.game.impl.GameProjections;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Starts the application against DynamoDB Local, seeds it with whole seasons of games and drives a mix of
+ * reads, writes and head to head requests at it, reporting throughput and latency percentiles per endpoint:
+ *
+ * <pre>
+ * java -Dsqlite4java.library.path=... -cp ... com.dmv.footballheadz.load.GameLoadTest 20 64 60
+ * </pre>
+ *
+ * Arguments are the seasons to seed, the concurrent clients, the seconds to measure and, optionally, the
+ * endpoint of an already running DynamoDB Local (e.g. the amazon/dynamodb-local image) to use instead of the
+ * embedded one. Any further arguments are passed to the application, e.g. --game.cache.max-size=0 or
+ * --game.scan.segments=8, so a configuration change can be measured against the same data and traffic before
+ * it is deployed. A season is 17 weeks of 16 games between 32 teams.
+ *
+ * DynamoDB Local does not throttle or charge for capacity, so absolute numbers measure the application and the
+ * shape of its DynamoDB calls; the X-DynamoDB-Read-Capacity headers and game.request.capacity meters show what
+ * the same traffic would consume on a provisioned table.
+ */
+public class GameLoadTest {
+
+    private static final int TEAMS = 32;
+    private static final int WEEKS = 17;
+    private static final int WARM_UP_SECONDS = 10;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String baseUrl;
+    private final List<String> ids;
+    private final Map<Endpoint, Stats> stats = new LinkedHashMap<>();
+
+    /**
+     * Share of the traffic each endpoint gets, as weights out of 100.
+     */
+    enum Endpoint {
+        READ(50),
+        TEAM(15),
+        HEAD_TO_HEAD_SUMMARY(12),
+        HEAD_TO_HEAD_GAMES(5),
+        REPLACE(10),
+        CREATE(5),
+        DELETE(3);
+
+        private final int weight;
+
+        Endpoint(int weight) {
+            this.weight = weight;
+        }
+
+        static Endpoint pick(int roll) {
+            for (Endpoint endpoint : values()) {
+                roll -= endpoint.weight;
+                if (roll < 0) {
+                    return endpoint;
+                }
+            }
+            return READ;
+        }
+    }
+
+    GameLoadTest(String baseUrl, List<String> ids) {
+        this.baseUrl = baseUrl;
+        this.ids = Collections.synchronizedList(new ArrayList<>(ids));
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new Stats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int seasons = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        String endpoint = args.length > 3 && !args[3].startsWith("--") ? args[3] : null;
+        List<String> applicationArgs = new ArrayList<>();
+        for (int i = endpoint == null ? 3 : 4; i < args.length; i++) {
+            applicationArgs.add(args[i]);
+        }
+        System.setProperty("http.maxConnections", Integer.toString(clients));
+
+        DynamoDBProxyServer dynamoDbLocal = null;
+        if (endpoint == null) {
+            int port = freePort();
+            dynamoDbLocal = ServerRunner.createServerFromCommandLineArgs(
+                    new String[]{"-inMemory", "-disableTelemetry", "-port", Integer.toString(port)});
+            dynamoDbLocal.start();
+            endpoint = "http://localhost:" + port;
+        }
+        applicationArgs.add("--amazon.dynamodb.endpoint=" + endpoint);
+        applicationArgs.add("--amazon.aws.accesskey=load");
+        applicationArgs.add("--amazon.aws.secretkey=load");
+        applicationArgs.add("--server.port=0");
+        applicationArgs.add("--game.backfill.matchup=false");
+        ConfigurableApplicationContext context = SpringApplication.run(Application.class,
+                applicationArgs.toArray(new String[0]));
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<Game> games = seasons(seasons);
+            long began = System.nanoTime();
+            Set<String> failed = context.getBean(GameRepository.class).writeMany(games, Collections.emptyList());
+            context.getBean(GameProjections.class).refresh();
+            System.out.printf("Seeded %d games in %d ms, %d failed%n", games.size() - failed.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - began), failed.size());
+            List<String> ids = new ArrayList<>(games.size());
+            for (Game game : games) {
+                if (!failed.contains(game.getId())) {
+                    ids.add(game.getId());
+                }
+            }
+
+            String baseUrl = "http://localhost:" + port + "/v1";
+            new GameLoadTest(baseUrl, ids).run(clients, WARM_UP_SECONDS);
+            GameLoadTest measured = new GameLoadTest(baseUrl, ids);
+            measured.run(clients, seconds);
+            measured.report(seconds);
+        } finally {
+            context.close();
+            if (dynamoDbLocal != null) {
+                dynamoDbLocal.stop();
+            }
+        }
+    }
+
+    static List<Game> seasons(int seasons) {
+        Random random = new Random(seasons);
+        List<Game> games = new ArrayList<>(seasons * WEEKS * TEAMS / 2);
+        List<Integer> teams = new ArrayList<>(TEAMS);
+        for (int team = 0; team < TEAMS; team++) {
+            teams.add(team);
+        }
+        for (int season = 0; season < seasons; season++) {
+            for (int week = 1; week <= WEEKS; week++) {
+                Collections.shuffle(teams, random);
+                for (int i = 0; i < TEAMS; i += 2) {
+                    games.add(game("load-" + season + "-" + week + "-" + i / 2, 2000 + season, week,
+                            teams.get(i), teams.get(i + 1), random));
+                }
+            }
+        }
+        return games;
+    }
+
+    private static Game game(String id, int year, int week, int home, int away, Random random) {
+        return new Game()
+                .withId(id)
+                .withYear(Integer.toString(year))
+                .withWeek(Integer.toString(week))
+                .withHomeTeam(team(home))
+                .withAwayTeam(team(away))
+                .withHomeTeamPts((double) (60 + random.nextInt(100)))
+                .withAwayTeamPts((double) (60 + random.nextInt(100)));
+    }
+
+    private static String team(int index) {
+        return "Team" + index;
+    }
+
+    private void run(int clients, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    Endpoint endpoint = Endpoint.pick(random.nextInt(100));
+                    Stats endpointStats = stats.get(endpoint);
+                    long began = System.nanoTime();
+                    try {
+                        call(endpoint, random);
+                        endpointStats.latencies.record(System.nanoTime() - began);
+                    } catch (IOException e) {
+                        endpointStats.errors.increment();
+                    }
+                }
+            }, "load-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private void call(Endpoint endpoint, ThreadLocalRandom random) throws IOException {
+        int team1 = random.nextInt(TEAMS);
+        int team2 = (team1 + 1 + random.nextInt(TEAMS - 1)) % TEAMS;
+        switch (endpoint) {
+            case READ:
+                send("GET", "/game/" + randomId(random), null);
+                break;
+            case TEAM:
+                send("GET", "/game/?teamName=" + team(team1), null);
+                break;
+            case HEAD_TO_HEAD_SUMMARY:
+                send("GET", "/game/head2head?games=false&teamName=" + team(team1) + "&teamName=" + team(team2), null);
+                break;
+            case HEAD_TO_HEAD_GAMES:
+                send("GET", "/game/head2head?teamName=" + team(team1) + "&teamName=" + team(team2), null);
+                break;
+            case REPLACE:
+                String id = randomId(random);
+                send("PUT", "/game/" + id, game(id, 2000, 1 + random.nextInt(WEEKS), team1, team2, random));
+                break;
+            case CREATE:
+                Game created = game("load-" + UUID.randomUUID(), 2000, 1 + random.nextInt(WEEKS),
+                        team1, team2, random);
+                send("POST", "/game", created);
+                ids.add(created.getId());
+                break;
+            case DELETE:
+                String deleted = randomId(random);
+                ids.remove(deleted);
+                send("DELETE", "/game/" + deleted, null);
+                break;
+            default:
+                throw new IllegalStateException("Unknown endpoint " + endpoint);
+        }
+    }
+
+    private String randomId(ThreadLocalRandom random) {
+        synchronized (ids) {
+            return ids.get(random.nextInt(ids.size()));
+        }
+    }
+
+    private void send(String method, String path, Game body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setConnectTimeout(10_000);
+        connection.setReadTimeout(30_000);
+        connection.setRequestMethod(method);
+        if (body != null) {
+            byte[] json = mapper.writeValueAsBytes(body);
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setFixedLengthStreamingMode(json.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(json);
+            }
+        }
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            if (in != null) {
+                byte[] buffer = new byte[8192];
+                while (in.read(buffer) != -1) {
+                    // drained so the connection is kept alive
+                }
+            }
+        }
+        if (status >= 500) {
+            throw new IOException(method + " " + path + " returned " + status);
+        }
+    }
+
+    private void report(int seconds) {
+        System.out.printf("%-22s %10s %10s %10s %10s %10s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "errors");
+        long total = 0;
+        for (Map.Entry<Endpoint, Stats> entry : stats.entrySet()) {
+            long[] latencies = entry.getValue().latencies.snapshot();
+            total += latencies.length;
+            System.out.printf("%-22s %10d %10.0f %10.1f %10.1f %10.1f %8d%n",
+                    entry.getKey(),
+                    latencies.length,
+                    latencies.length / (double) seconds,
+                    LatencyRecorder.percentileMillis(latencies, 50),
+                    LatencyRecorder.percentileMillis(latencies, 99),
+                    LatencyRecorder.percentileMillis(latencies, 99.9),
+                    entry.getValue().errors.sum());
+        }
+        System.out.printf("%-22s %10d %10.0f%n", "TOTAL", total, total / (double) seconds);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static final class Stats {
+
+        private final LatencyRecorder latencies = new LatencyRecorder();
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,70 @@
+package com.dmv.footballheadz.load;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects request latencies from many threads and reports percentiles over all of them. Each thread records
+ * into its own buffer, so recording costs no contention during a run; buffers are merged only for the report.
+ */
+public class LatencyRecorder {
+
+    private final ThreadLocal<Buffer> buffers;
+    private final List<Buffer> all = new CopyOnWriteArrayList<>();
+
+    public LatencyRecorder() {
+        buffers = ThreadLocal.withInitial(() -> {
+            Buffer buffer = new Buffer();
+            all.add(buffer);
+            return buffer;
+        });
+    }
+
+    public void record(long nanos) {
+        buffers.get().add(nanos);
+    }
+
+    /**
+     * Sorted copy of every latency recorded so far. Call once the recording threads have finished.
+     */
+    public long[] snapshot() {
+        int size = 0;
+        for (Buffer buffer : all) {
+            size += buffer.size;
+        }
+        long[] latencies = new long[size];
+        int offset = 0;
+        for (Buffer buffer : all) {
+            System.arraycopy(buffer.values, 0, latencies, offset, buffer.size);
+            offset += buffer.size;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    /**
+     * Nearest rank percentile of sorted latencies, in milliseconds.
+     */
+    public static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(rank - 1, 0)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static final class Buffer {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
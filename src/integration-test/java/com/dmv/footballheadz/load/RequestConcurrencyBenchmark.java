@@ -0,0 +1,129 @@
+package com.dmv.footballheadz.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares request handling modes by how many requests a running instance keeps in flight before p99 latency
+ * degrades. Run it once against an instance started with game.virtual-threads.enabled=false and once with
+ * true, with game.cache.max-size=0 so every request waits on DynamoDB:
+ *
+ * <pre>
+ * java -cp ... com.dmv.footballheadz.load.RequestConcurrencyBenchmark \
+ *     http://localhost:8080/v1/game/some-id 50,100,200,400,800,1600 20 250
+ * </pre>
+ *
+ * Arguments are the url to GET, the concurrency levels, seconds per level and the p99 target in milliseconds.
+ * Each level runs that many clients in a closed loop; the report gives throughput and latency percentiles per
+ * level and the highest level still meeting the p99 target. With the thread pool model latency climbs once
+ * the level passes server.tomcat.threads.max and requests queue for a thread.
+ */
+public class RequestConcurrencyBenchmark {
+
+    private static final int WARM_UP_SECONDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: RequestConcurrencyBenchmark url [levels] [seconds] [p99TargetMillis]");
+            System.exit(2);
+        }
+        URL url = new URL(args[0]);
+        String[] levels = (args.length > 1 ? args[1] : "50,100,200,400,800,1600").split(",");
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        double p99Target = args.length > 3 ? Double.parseDouble(args[3]) : 250;
+        System.setProperty("http.maxConnections", levels[levels.length - 1].trim());
+
+        run(url, Integer.parseInt(levels[0].trim()), WARM_UP_SECONDS);
+        System.out.printf("%8s %10s %10s %10s %10s %10s %8s%n",
+                "clients", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max inflt", "errors");
+        int sustained = 0;
+        for (String level : levels) {
+            int clients = Integer.parseInt(level.trim());
+            Result result = run(url, clients, seconds);
+            long[] latencies = result.latencies.snapshot();
+            double p99 = LatencyRecorder.percentileMillis(latencies, 99);
+            System.out.printf("%8d %10.0f %10.1f %10.1f %10.1f %10d %8d%n",
+                    clients,
+                    latencies.length / (double) seconds,
+                    LatencyRecorder.percentileMillis(latencies, 50),
+                    p99,
+                    LatencyRecorder.percentileMillis(latencies, 99.9),
+                    result.maxInFlight.get(),
+                    result.errors.sum());
+            if (p99 <= p99Target && result.errors.sum() == 0) {
+                sustained = clients;
+            }
+        }
+        System.out.printf("Highest concurrency with p99 <= %.0f ms: %d%n", p99Target, sustained);
+    }
+
+    private static Result run(URL url, int clients, int seconds) throws InterruptedException {
+        Result result = new Result();
+        AtomicInteger inFlight = new AtomicInteger();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (System.nanoTime() < deadline) {
+                    result.maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    long began = System.nanoTime();
+                    try {
+                        get(url);
+                        result.latencies.record(System.nanoTime() - began);
+                    } catch (IOException e) {
+                        result.errors.increment();
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                }
+            }, "load-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return result;
+    }
+
+    private static void get(URL url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(10_000);
+        connection.setReadTimeout(30_000);
+        int status = connection.getResponseCode();
+        try (InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            if (body != null) {
+                byte[] buffer = new byte[8192];
+                while (body.read(buffer) != -1) {
+                    // drained so the connection is kept alive
+                }
+            }
+        }
+        if (status >= 500) {
+            throw new IOException("Status " + status);
+        }
+    }
+
+    private static final class Result {
+
+        private final LatencyRecorder latencies = new LatencyRecorder();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,67 @@
+package com.dmv.footballheadz.benchmark;
+
+import com.dmv.footballheadz.game.impl.Game;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fixtures shared by the benchmarks. Games are generated from a fixed seed so every run measures the same data.
+ */
+final class BenchmarkGames {
+
+    static final int TEAMS = 32;
+
+    private BenchmarkGames() {
+    }
+
+    static String team(int index) {
+        return "Team" + index;
+    }
+
+    /**
+     * {@code count} games between {@link #TEAMS} teams over as many 17 week seasons as it takes, with about one
+     * in thirty tied.
+     */
+    static List<Game> generate(int count) {
+        Random random = new Random(42);
+        List<Game> games = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int home = random.nextInt(TEAMS);
+            int away = (home + 1 + random.nextInt(TEAMS - 1)) % TEAMS;
+            double homePts = 60 + random.nextInt(100);
+            double awayPts = random.nextInt(30) == 0 ? homePts : 60 + random.nextInt(100);
+            games.add(new Game()
+                    .withId("game-" + i)
+                    .withYear(Integer.toString(2000 + i / (TEAMS / 2 * 17)))
+                    .withWeek(Integer.toString(1 + i / (TEAMS / 2) % 17))
+                    .withHomeTeam(team(home))
+                    .withAwayTeam(team(away))
+                    .withHomeTeamPts(homePts)
+                    .withAwayTeamPts(awayPts)
+                    .withVersion(1L));
+        }
+        return games;
+    }
+
+    /**
+     * Sets an injected field, standing in for the container the benchmarks run without.
+     */
+    static void inject(Object target, String name, Object value) {
+        for (Class<?> type = target.getClass(); type != null; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                // declared further up
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot set " + name + " on " + target.getClass().getSimpleName(), e);
+            }
+        }
+        throw new IllegalStateException("No field " + name + " on " + target.getClass().getSimpleName());
+    }
+}
@@ -0,0 +1,81 @@
+package com.dmv.footballheadz.benchmark;
+
+import com.dmv.footballheadz.game.impl.Game;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Game JSON in and out of the ObjectMapper Spring MVC builds, for one game and for a list response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GameJsonBenchmark {
+
+    @Param({"1000"})
+    private int listSize;
+
+    private ObjectWriter gameWriter;
+    private ObjectReader gameReader;
+    private ObjectWriter listWriter;
+    private ObjectReader listReader;
+
+    private Game game;
+    private List<Game> games;
+    private byte[] gameJson;
+    private byte[] listJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        gameWriter = mapper.writerFor(Game.class);
+        gameReader = mapper.readerFor(Game.class);
+        listWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, Game.class));
+        listReader = mapper.readerFor(mapper.getTypeFactory().constructCollectionType(List.class, Game.class));
+        games = BenchmarkGames.generate(listSize);
+        game = games.get(0);
+        gameJson = gameWriter.writeValueAsBytes(game);
+        listJson = listWriter.writeValueAsBytes(games);
+    }
+
+    @Benchmark
+    public byte[] serializeGame() throws JsonProcessingException {
+        return gameWriter.writeValueAsBytes(game);
+    }
+
+    @Benchmark
+    public Game deserializeGame() throws IOException {
+        return gameReader.readValue(gameJson);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(games);
+    }
+
+    @Benchmark
+    public List<Game> deserializeList() throws IOException {
+        return listReader.readValue(listJson);
+    }
+}
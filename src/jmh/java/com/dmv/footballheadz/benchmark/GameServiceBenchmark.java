@@ -0,0 +1,114 @@
+package com.dmv.footballheadz.benchmark;
+
+import com.dmv.footballheadz.game.impl.EloRatings;
+import com.dmv.footballheadz.game.impl.Game;
+import com.dmv.footballheadz.game.impl.GameProjection;
+import com.dmv.footballheadz.game.impl.GameProjections;
+import com.dmv.footballheadz.game.impl.GameService;
+import com.dmv.footballheadz.game.impl.GameTable;
+import com.dmv.footballheadz.game.impl.HeadToHead;
+import com.dmv.footballheadz.game.impl.HeadToHeadMatrix;
+import com.dmv.footballheadz.game.impl.InMemoryGameRepository;
+import com.dmv.footballheadz.game.impl.Standing;
+import com.dmv.footballheadz.game.impl.Standings;
+import com.dmv.footballheadz.game.impl.TeamIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameService over {@link InMemoryGameRepository}, so what is measured is the service's own work and not
+ * DynamoDB's: patching games and keeping the {@link GameTable} current, and reading a team's games, a head to
+ * head summary and a season's standings from the warm table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GameServiceBenchmark {
+
+    @Param({"10000"})
+    private int games;
+
+    private GameService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryGameRepository repository = new InMemoryGameRepository();
+        repository.writeMany(BenchmarkGames.generate(games), Collections.emptyList());
+        GameTable gameTable = new GameTable();
+        HeadToHeadMatrix matrix = new HeadToHeadMatrix();
+        Standings standings = new Standings();
+        EloRatings eloRatings = new EloRatings();
+        TeamIndex teamIndex = new TeamIndex();
+        for (Object view : Arrays.asList(matrix, standings, teamIndex)) {
+            BenchmarkGames.inject(view, "gameTable", gameTable);
+        }
+        List<GameProjection<?>> projections = Arrays.asList(gameTable, eloRatings);
+        GameProjections gameProjections = new GameProjections();
+        BenchmarkGames.inject(gameProjections, "repository", repository);
+        BenchmarkGames.inject(gameProjections, "projections", projections);
+        gameProjections.refresh();
+        service = new GameService();
+        BenchmarkGames.inject(service, "repository", repository);
+        BenchmarkGames.inject(service, "gameTable", gameTable);
+        BenchmarkGames.inject(service, "headToHeadMatrix", matrix);
+        BenchmarkGames.inject(service, "standings", standings);
+        BenchmarkGames.inject(service, "eloRatings", eloRatings);
+        BenchmarkGames.inject(service, "teamIndex", teamIndex);
+        service.headToHeadSummary(BenchmarkGames.team(0), BenchmarkGames.team(1));
+    }
+
+    @Benchmark
+    public Optional<Game> read() {
+        return service.read(randomId());
+    }
+
+    @Benchmark
+    public Optional<Game> update() {
+        return service.update(new Game().withId(randomId()).withHomeTeamPts(100d));
+    }
+
+    @Benchmark
+    public List<Game> listOfGamesByTeam() {
+        return service.listOfGamesByTeam(BenchmarkGames.team(randomTeam()));
+    }
+
+    @Benchmark
+    public Optional<HeadToHead> headToHeadSummary() {
+        int team = randomTeam();
+        return service.headToHeadSummary(BenchmarkGames.team(team),
+                BenchmarkGames.team((team + 1) % BenchmarkGames.TEAMS));
+    }
+
+    @Benchmark
+    public List<Standing> standings() {
+        return service.standings("2005", null);
+    }
+
+    private String randomId() {
+        return "game-" + ThreadLocalRandom.current().nextInt(games);
+    }
+
+    private static int randomTeam() {
+        return ThreadLocalRandom.current().nextInt(BenchmarkGames.TEAMS);
+    }
+}
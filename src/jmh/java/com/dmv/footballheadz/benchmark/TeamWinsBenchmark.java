@@ -0,0 +1,66 @@
+package com.dmv.footballheadz.benchmark;
+
+import com.dmv.footballheadz.game.impl.Game;
+import com.dmv.footballheadz.game.impl.GameController;
+import com.dmv.footballheadz.game.impl.HeadToHead;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the head to head endpoint does with the games it read: tally both teams' results and points in one
+ * pass into the response. {@link GameController#calculateTeamWins} is the count it used to make first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TeamWinsBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int games;
+
+    private final GameController controller = new GameController();
+
+    private final String team1 = BenchmarkGames.team(0);
+
+    private final String team2 = BenchmarkGames.team(1);
+
+    private List<Game> list;
+
+    private int team1Wins;
+
+    @Setup
+    public void setUp() {
+        list = BenchmarkGames.generate(games);
+        team1Wins = controller.calculateTeamWins(team1, list);
+    }
+
+    @Benchmark
+    public int calculateTeamWins() {
+        return controller.calculateTeamWins(team1, list);
+    }
+
+    @Benchmark
+    public HeadToHead headToHead() {
+        return new HeadToHead(team1, team2, list);
+    }
+
+    @Benchmark
+    public String headToHeadSummaryRecord() {
+        return new HeadToHead(team1, team2, team1Wins, games - team1Wins, 0, 0, 0).getRecord();
+    }
+}
@@ -0,0 +1,29 @@
+package com.dmv.footballheadz.config;
+
+import com.dmv.footballheadz.game.impl.Game;
+import com.dmv.footballheadz.util.ExpiringCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class CacheConfig {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Value("${game.cache.max-size:10000}")
+    private int gameCacheMaxSize;
+
+    @Value("${game.cache.ttl-seconds:300}")
+    private long gameCacheTtlSeconds;
+
+    @Bean
+    public ExpiringCache<String, Game> gameCache() {
+        log.info("Caching up to {} games for {}s", gameCacheMaxSize, gameCacheTtlSeconds);
+        return new ExpiringCache<>(gameCacheMaxSize, gameCacheTtlSeconds, TimeUnit.SECONDS);
+    }
+}
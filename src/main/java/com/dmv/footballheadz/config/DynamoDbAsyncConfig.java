@@ -0,0 +1,97 @@
+package com.dmv.footballheadz.config;
+
+import com.dmv.footballheadz.game.impl.Game;
+import com.dmv.footballheadz.game.impl.GameTableSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.extensions.VersionedRecordExtension;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClientBuilder;
+
+import java.net.URI;
+
+/**
+ * The v2 async client behind the /v2 endpoints. Requests are multiplexed over a Netty event loop, so a few
+ * threads keep up to game.async.max-concurrency requests in flight.
+ */
+@Configuration
+@ConditionalOnProperty(name = "game.async.enabled", havingValue = "true")
+public class DynamoDbAsyncConfig {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Value("${amazon.dynamodb.endpoint}")
+    private String amazonDynamoDBEndpoint;
+
+    @Value("${amazon.aws.accesskey:}")
+    private String amazonAWSAccessKey;
+
+    @Value("${amazon.aws.secretkey:}")
+    private String amazonAWSSecretKey;
+
+    @Value("${amazon.aws.region:us-east-1}")
+    private String amazonAWSRegion;
+
+    @Value("${game.async.max-concurrency:200}")
+    private int maxConcurrency;
+
+    @Bean(destroyMethod = "close")
+    public SdkAsyncHttpClient dynamoDbAsyncHttpClient() {
+        log.trace("Entering dynamoDbAsyncHttpClient()");
+        return NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(maxConcurrency)
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public DynamoDbAsyncClient dynamoDbAsyncClient(SdkAsyncHttpClient dynamoDbAsyncHttpClient) {
+        log.trace("Entering dynamoDbAsyncClient()");
+        DynamoDbAsyncClientBuilder builder = DynamoDbAsyncClient.builder()
+                .httpClient(dynamoDbAsyncHttpClient)
+                .region(Region.of(amazonAWSRegion))
+                .credentialsProvider(credentialsProvider());
+        if (StringUtils.hasLength(amazonDynamoDBEndpoint)) {
+            log.info("Using async DynamoDb endpoint {}", amazonDynamoDBEndpoint);
+            builder.endpointOverride(URI.create(amazonDynamoDBEndpoint));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Chosen the way {@link DynamoDbConfig} chooses the v1 client's: static keys only when both are set,
+     * otherwise the default chain.
+     */
+    AwsCredentialsProvider credentialsProvider() {
+        if (StringUtils.hasLength(amazonAWSAccessKey) && StringUtils.hasLength(amazonAWSSecretKey)) {
+            return StaticCredentialsProvider.create(AwsBasicCredentials.create(amazonAWSAccessKey, amazonAWSSecretKey));
+        }
+        return DefaultCredentialsProvider.create();
+    }
+
+    @Bean
+    public DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient(DynamoDbAsyncClient dynamoDbAsyncClient) {
+        return DynamoDbEnhancedAsyncClient.builder()
+                .dynamoDbClient(dynamoDbAsyncClient)
+                .extensions(VersionedRecordExtension.builder().build())
+                .build();
+    }
+
+    @Bean
+    public DynamoDbAsyncTable<Game> gameAsyncTable(DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient) {
+        return dynamoDbEnhancedAsyncClient.table(Game.TABLE_NAME, GameTableSchema.create());
+    }
+}
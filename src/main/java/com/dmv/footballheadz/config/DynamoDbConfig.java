@@ -1,18 +1,34 @@
 package com.dmv.footballheadz.config;
 
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.AWSCredentials;
+import com.amazonaws.auth.AWSCredentialsProvider;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.auth.DefaultAWSCredentialsProviderChain;
+import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
+import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.retry.PredefinedBackoffStrategies;
+import com.amazonaws.retry.PredefinedRetryPolicies;
+import com.amazonaws.retry.RetryPolicy;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
-import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.dmv.footballheadz.util.DynamoDbRequestMetricCollector;
+import com.dmv.footballheadz.util.VirtualThreads;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.StringUtils;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Configuration
 @PropertySource(value = "classpath:application.properties")
 public class DynamoDbConfig {
@@ -22,21 +38,105 @@ public class DynamoDbConfig {
     @Value("${amazon.dynamodb.endpoint}")
     private String amazonDynamoDBEndpoint;
 
-    @Value("${amazon.aws.accesskey}")
+    @Value("${amazon.aws.accesskey:}")
     private String amazonAWSAccessKey;
 
-    @Value("${amazon.aws.secretkey}")
+    @Value("${amazon.aws.secretkey:}")
     private String amazonAWSSecretKey;
 
+    @Value("${amazon.aws.region:us-east-1}")
+    private String amazonAWSRegion;
+
+    @Value("${amazon.dynamodb.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${amazon.dynamodb.connection-ttl-ms:60000}")
+    private long connectionTtlMillis;
+
+    @Value("${amazon.dynamodb.connection-max-idle-ms:30000}")
+    private long connectionMaxIdleMillis;
+
+    @Value("${amazon.dynamodb.connection-timeout-ms:2000}")
+    private int connectionTimeoutMillis;
+
+    @Value("${amazon.dynamodb.socket-timeout-ms:5000}")
+    private int socketTimeoutMillis;
+
+    @Value("${amazon.dynamodb.request-timeout-ms:5000}")
+    private int requestTimeoutMillis;
+
+    @Value("${amazon.dynamodb.client-execution-timeout-ms:20000}")
+    private int clientExecutionTimeoutMillis;
+
+    @Value("${amazon.dynamodb.tcp-keep-alive:true}")
+    private boolean tcpKeepAlive;
+
+    @Value("${amazon.dynamodb.max-error-retry:5}")
+    private int maxErrorRetry;
+
+    @Value("${amazon.dynamodb.retry.base-delay-ms:25}")
+    private int retryBaseDelayMillis;
+
+    @Value("${amazon.dynamodb.retry.throttled-base-delay-ms:500}")
+    private int retryThrottledBaseDelayMillis;
+
+    @Value("${amazon.dynamodb.retry.max-backoff-ms:20000}")
+    private int retryMaxBackoffMillis;
+
+    @Value("${game.scan.threads:8}")
+    private int scanThreads;
+
+    @Value("${game.virtual-threads.enabled:false}")
+    private boolean virtualThreads;
+
     @Bean
-    public AmazonDynamoDB amazaonDynamoDB() {
+    public AmazonDynamoDB amazaonDynamoDB(AWSCredentialsProvider amazonAWSCredentialsProvider,
+                                          DynamoDbRequestMetricCollector dynamoDbRequestMetricCollector,
+                                          ObjectProvider<RequestHandler2> requestHandlers) {
         log.trace("Entering amazonDynamoDb()");
-        AmazonDynamoDB client = new AmazonDynamoDBClient();
-        log.info("Using DynamoDb endpoint {}", amazonDynamoDBEndpoint);
-        if (!StringUtils.hasLength(amazonDynamoDBEndpoint)){
-            client.setEndpoint(amazonDynamoDBEndpoint);
+        AmazonDynamoDBClientBuilder builder = AmazonDynamoDBClientBuilder.standard()
+                .withClientConfiguration(clientConfiguration())
+                .withCredentials(amazonAWSCredentialsProvider)
+                .withMetricsCollector(dynamoDbRequestMetricCollector)
+                .withRequestHandlers(requestHandlers.orderedStream().toArray(RequestHandler2[]::new));
+        if (StringUtils.hasLength(amazonDynamoDBEndpoint)) {
+            log.info("Using DynamoDb endpoint {}", amazonDynamoDBEndpoint);
+            builder.withEndpointConfiguration(new EndpointConfiguration(amazonDynamoDBEndpoint, amazonAWSRegion));
+        } else {
+            log.info("Using DynamoDb in region {}", amazonAWSRegion);
+            builder.withRegion(amazonAWSRegion);
         }
-        return client;
+        if (virtualThreads) {
+            log.info("Limiting DynamoDb calls to {} in flight for virtual threads", maxConnections);
+            return VirtualThreads.bounded(AmazonDynamoDB.class, builder.build(), maxConnections);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Sized and timed for bursts: enough pooled connections that callers do not queue for one, connections
+     * kept alive and recycled before the service drops them, and bounded timeouts so a stuck call fails and is
+     * retried instead of holding its thread. Retries back off with jitter, from a longer base when
+     * throttled, and stop early while most recent calls are failing.
+     */
+    ClientConfiguration clientConfiguration() {
+        RetryPolicy retryPolicy = new RetryPolicy(
+                PredefinedRetryPolicies.DEFAULT_RETRY_CONDITION,
+                new PredefinedBackoffStrategies.SDKDefaultBackoffStrategy(
+                        retryBaseDelayMillis, retryThrottledBaseDelayMillis, retryMaxBackoffMillis),
+                maxErrorRetry,
+                false);
+        return new ClientConfiguration()
+                .withMaxConnections(maxConnections)
+                .withConnectionTTL(connectionTtlMillis)
+                .withConnectionMaxIdleMillis(connectionMaxIdleMillis)
+                .withConnectionTimeout(connectionTimeoutMillis)
+                .withSocketTimeout(socketTimeoutMillis)
+                .withRequestTimeout(requestTimeoutMillis)
+                .withClientExecutionTimeout(clientExecutionTimeoutMillis)
+                .withTcpKeepAlive(tcpKeepAlive)
+                .withRetryPolicy(retryPolicy)
+                .withThrottledRetries(true);
     }
 
     @Bean
@@ -44,9 +144,35 @@ public class DynamoDbConfig {
         return new BasicAWSCredentials(amazonAWSAccessKey, amazonAWSSecretKey);
     }
 
+    /**
+     * Static keys only when amazon.aws.accesskey and amazon.aws.secretkey are both set, e.g. for DynamoDB
+     * Local; otherwise the default chain, e.g. an instance or task role.
+     */
+    @Bean
+    public AWSCredentialsProvider amazonAWSCredentialsProvider(AWSCredentials amazonAWSCredentials) {
+        if (StringUtils.hasLength(amazonAWSAccessKey) && StringUtils.hasLength(amazonAWSSecretKey)) {
+            return new AWSStaticCredentialsProvider(amazonAWSCredentials);
+        }
+        return DefaultAWSCredentialsProviderChain.getInstance();
+    }
+
+    @Bean
+    public DynamoDbRequestMetricCollector dynamoDbRequestMetricCollector() {
+        return new DynamoDbRequestMetricCollector();
+    }
+
     @Bean
     public DynamoDBMapper dynamoDbMapper(AmazonDynamoDB amazonDynamoDB) {
         log.trace("Entering dynamoDbMapper()");
         return new DynamoDBMapper(amazonDynamoDB);
     }
+
+    /**
+     * Bounded pool running the segments of parallel scans.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService scanExecutor() {
+        log.trace("Entering scanExecutor()");
+        return Executors.newFixedThreadPool(scanThreads, new CustomizableThreadFactory("game-scan-"));
+    }
 }
@@ -0,0 +1,62 @@
+package com.dmv.footballheadz.config;
+
+import com.dmv.footballheadz.game.impl.Game;
+import com.dmv.footballheadz.util.DynamoDbMetricsHandler;
+import com.dmv.footballheadz.util.DynamoDbRequestMetricCollector;
+import com.dmv.footballheadz.util.ExpiringCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Meters for what the application holds itself: the game cache and the DynamoDB client. Service, repository and
+ * DynamoDB call meters are recorded where the calls are made. Everything is scraped from /prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public DynamoDbMetricsHandler dynamoDbMetricsHandler(MeterRegistry registry) {
+        return new DynamoDbMetricsHandler(registry);
+    }
+
+    @Bean
+    public MeterBinder gameCacheMetrics(ExpiringCache<String, Game> gameCache) {
+        return registry -> {
+            FunctionCounter.builder("game.cache.gets", gameCache, ExpiringCache::getHitCount)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("game.cache.gets", gameCache, ExpiringCache::getMissCount)
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("game.cache.evictions", gameCache, ExpiringCache::getEvictionCount)
+                    .register(registry);
+            Gauge.builder("game.cache.size", gameCache, ExpiringCache::size)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder dynamoDbClientMetrics(DynamoDbRequestMetricCollector collector) {
+        return registry -> {
+            FunctionCounter.builder("dynamodb.client.calls", collector, DynamoDbRequestMetricCollector::getRequestCount)
+                    .register(registry);
+            FunctionCounter.builder("dynamodb.client.retries", collector, DynamoDbRequestMetricCollector::getRetryCount)
+                    .register(registry);
+            FunctionCounter.builder("dynamodb.client.throttles", collector, DynamoDbRequestMetricCollector::getThrottleCount)
+                    .register(registry);
+            FunctionCounter.builder("dynamodb.client.errors", collector, DynamoDbRequestMetricCollector::getErrorCount)
+                    .register(registry);
+            FunctionCounter.builder("dynamodb.client.execute.time", collector, DynamoDbRequestMetricCollector::getClientExecuteMillis)
+                    .baseUnit("milliseconds")
+                    .register(registry);
+            Gauge.builder("dynamodb.client.pool.leased", collector, DynamoDbRequestMetricCollector::getPoolLeased)
+                    .register(registry);
+            Gauge.builder("dynamodb.client.pool.pending", collector, DynamoDbRequestMetricCollector::getPoolPending)
+                    .register(registry);
+        };
+    }
+}
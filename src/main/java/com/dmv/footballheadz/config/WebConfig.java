@@ -0,0 +1,48 @@
+package com.dmv.footballheadz.config;
+
+import com.dmv.footballheadz.util.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * With game.virtual-threads.enabled Tomcat handles every request on its own virtual thread instead of a
+ * server.tomcat.threads.max sized pool, so requests blocked on DynamoDB no longer cap how many can be in
+ * flight; server.tomcat.max-connections becomes the limit. DynamoDB calls are then held to
+ * amazon.dynamodb.max-connections in flight by {@link DynamoDbConfig}, as the client's connection pool would pin
+ * every carrier thread with waiters. Needs JDK 21 or later.
+ */
+@Configuration
+@ConditionalOnProperty(name = "game.virtual-threads.enabled", havingValue = "true")
+public class WebConfig {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private ExecutorService requestExecutor;
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        log.trace("Entering virtualThreadProtocolHandlerCustomizer()");
+        requestExecutor = VirtualThreads.newVirtualThreadPerTaskExecutor()
+                .orElseThrow(() -> new IllegalStateException(
+                        "game.virtual-threads.enabled needs JDK 21 or later, running on " + System.getProperty("java.version")));
+        log.info("Handling requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+    }
+
+    /**
+     * Tomcat leaves executors it did not create running.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (requestExecutor != null) {
+            requestExecutor.shutdown();
+        }
+    }
+}
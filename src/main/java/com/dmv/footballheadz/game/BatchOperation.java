@@ -0,0 +1,54 @@
+package com.dmv.footballheadz.game;
+
+/**
+ * One write of a batch request: PUT creates or replaces {@code item}, DELETE removes the item with {@code id}.
+ */
+public class BatchOperation<T> {
+
+    public enum Action {
+        PUT, DELETE
+    }
+
+    private Action action;
+    private String id;
+    private T item;
+
+    public Action getAction() {
+        return action;
+    }
+
+    public void setAction(Action action) {
+        this.action = action;
+    }
+
+    public BatchOperation<T> withAction(Action action) {
+        setAction(action);
+        return this;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public BatchOperation<T> withId(String id) {
+        setId(id);
+        return this;
+    }
+
+    public T getItem() {
+        return item;
+    }
+
+    public void setItem(T item) {
+        this.item = item;
+    }
+
+    public BatchOperation<T> withItem(T item) {
+        setItem(item);
+        return this;
+    }
+}
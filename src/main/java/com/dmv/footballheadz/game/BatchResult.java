@@ -0,0 +1,61 @@
+package com.dmv.footballheadz.game;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Objects;
+
+/**
+ * Outcome of the batch operation at {@code index} in the request.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResult {
+
+    public enum Status {
+        CREATED, REPLACED, DELETED, NOT_FOUND, INVALID, FAILED
+    }
+
+    private final int index;
+    private final String id;
+    private final Status status;
+    private final String error;
+
+    public BatchResult(int index, String id, Status status, String error) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.error = error;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isSuccessful() {
+        return status == Status.CREATED || status == Status.REPLACED || status == Status.DELETED;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BatchResult)) return false;
+        BatchResult that = (BatchResult) o;
+        return index == that.index && Objects.equals(id, that.id) && status == that.status && Objects.equals(error, that.error);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(index, id, status, error);
+    }
+}
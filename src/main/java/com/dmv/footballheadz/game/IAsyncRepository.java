@@ -0,0 +1,39 @@
+package com.dmv.footballheadz.game;
+
+import org.reactivestreams.Publisher;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non blocking counterpart of {@link IRepository}: calls return at once and complete on the client's event loop.
+ */
+public interface IAsyncRepository<T> {
+
+    /**
+     * Streams every item, reading the next page only as the subscriber requests more.
+     */
+    Publisher<T> readAll();
+
+    CompletableFuture<List<T>> readIndex(String indexName, String key);
+
+    /**
+     * Games between two teams, either way round, in schedule order.
+     */
+    CompletableFuture<List<T>> readMatchup(String team1, String team2);
+
+    CompletableFuture<Optional<T>> read(String key);
+
+    /**
+     * Completes exceptionally with {@link StaleVersionException} if {@code t} has a version other than the stored one.
+     */
+    CompletableFuture<Void> save(T t);
+
+    /**
+     * Deletes an item and completes with its previous state, or empty if there was no such item. Completes
+     * exceptionally with {@link StaleVersionException} if {@code version} is not null and not the stored one.
+     */
+    CompletableFuture<Optional<T>> delete(String key, Long version);
+
+}
@@ -1,20 +1,58 @@
 package com.dmv.footballheadz.game;
 
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
-
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface IRepository<T> {
 
-    List<T> readExpression(DynamoDBScanExpression dynamoDBScanExpression);
-
     List<T> readAll();
 
+    Page<T> readPage(int limit, String cursor);
+
+    Iterable<T> iterateAll();
+
+    List<T> readIndex(String indexName, String key);
+
+    /**
+     * Games between two teams, either way round, in schedule order.
+     */
+    List<T> readMatchup(String team1, String team2);
+
     Optional<T> read(String key);
 
+    List<T> readMany(List<String> keys);
+
+    /**
+     * Like {@link #readMany}, but with strongly consistent reads that bypass any cache, for callers that write
+     * based on what they read.
+     */
+    List<T> readManyConsistent(List<String> keys);
+
     void save(T t);
 
-    void delete(String key);
+    /**
+     * Overwrites an existing item in one conditional write and returns its previous state, or empty if there
+     * was no such item. Throws {@link StaleVersionException} if {@code t} has a version other than the stored one.
+     */
+    Optional<T> replace(T t);
+
+    /**
+     * Sets the attributes {@code t} has values for on an existing item in one conditional write and returns
+     * its previous state, or empty if there was no such item. Throws {@link StaleVersionException} if {@code t}
+     * has a version other than the stored one.
+     */
+    Optional<T> update(T t);
+
+    /**
+     * Deletes an existing item in one conditional write and returns its previous state, or empty if there was
+     * no such item. Throws {@link StaleVersionException} if {@code version} is not null and not the stored one.
+     */
+    Optional<T> delete(String key, Long version);
+
+    /**
+     * Writes in as few round trips as possible and returns the keys that could not be written.
+     */
+    Set<String> writeMany(List<T> toSave, List<String> keysToDelete);
 
 }
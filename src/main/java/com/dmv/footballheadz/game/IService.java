@@ -8,16 +8,24 @@ public interface IService<T> {
 
     Optional<T> read(String id);
 
+    List<T> readMany(List<String> ids);
+
     Optional<T> create(T t);
 
     Optional<T> replace(T newData);
 
     Optional<T> update(T newData);
 
-    boolean delete(String key);
+    boolean delete(String key, Long version);
+
+    List<BatchResult> batch(List<BatchOperation<T>> operations);
 
     List<T> list();
 
+    Page<T> listPage(int limit, String cursor);
+
+    Iterable<T> iterateAll();
+
     List<T> listOfGamesByTeam(String key);
 
     List<T> listOfGamesByTeams(String key1, String key2);
@@ -0,0 +1,25 @@
+package com.dmv.footballheadz.game;
+
+import java.util.List;
+
+/**
+ * One page of results and the opaque cursor to pass back for the next one, null on the last page.
+ */
+public class Page<T> {
+
+    private final List<T> items;
+    private final String cursor;
+
+    public Page(List<T> items, String cursor) {
+        this.items = items;
+        this.cursor = cursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+}
@@ -0,0 +1,13 @@
+package com.dmv.footballheadz.game;
+
+/**
+ * Thrown when a conditional write expected a version of an item other than the one stored.
+ */
+public class StaleVersionException extends RuntimeException {
+
+    private static final long serialVersionUID = 4730268116235045291L;
+
+    public StaleVersionException(String key, Throwable cause) {
+        super("Item " + key + " was changed by another write", cause);
+    }
+}
@@ -0,0 +1,124 @@
+package com.dmv.footballheadz.game.impl;
+
+import com.dmv.footballheadz.game.StaleVersionException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.springframework.http.HttpStatus.*;
+
+/**
+ * The hottest /v1 game endpoints on the async repository, answering as /v1 does, conditional requests included.
+ * Handlers return as soon as the DynamoDB call is sent and the servlet thread goes back to the pool, so
+ * concurrency is bounded by DynamoDB rather than by Tomcat. Responses complete off the request thread, so
+ * If-None-Match is answered from the response entity rather than through the request.
+ */
+@CrossOrigin
+@RestController
+@RequestMapping("/v2")
+@ConditionalOnProperty(name = "game.async.enabled", havingValue = "true")
+public class AsyncGameController {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private AsyncGameService service;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @RequestMapping(path = "/game/", method = RequestMethod.GET)
+    public CompletableFuture<ResponseEntity<List<Game>>> listOfGamesByTeam(
+            @RequestParam(value="teamName") String teamName,
+            @RequestHeader(value="If-None-Match", required=false) String ifNoneMatch) {
+        log.trace("Entering listOfGamesByTeam() for {}", teamName);
+        return service.listOfGamesByTeam(teamName).thenApply(games -> games.isEmpty()
+                ? new ResponseEntity<>(NO_CONTENT)
+                : conditional(ifNoneMatch, GameController.listETagOf(objectMapper, games), games));
+    }
+
+    @RequestMapping(path = "/game/head2head", method = RequestMethod.GET)
+    public CompletableFuture<ResponseEntity<HeadToHead>> headToHead(
+            @RequestParam(value="teamName") List<String> teams,
+            @RequestHeader(value="If-None-Match", required=false) String ifNoneMatch) {
+        log.trace("Entering headToHead() for {}", teams);
+        if (teams.size() != 2) {
+            return CompletableFuture.completedFuture(new ResponseEntity<>(BAD_REQUEST));
+        }
+        String team1 = teams.get(0);
+        String team2 = teams.get(1);
+        return service.listOfGamesByTeams(team1, team2).thenApply(games -> {
+            if (games.isEmpty()) {
+                return new ResponseEntity<>(NO_CONTENT);
+            }
+            HeadToHead headToHead = new HeadToHead(team1, team2, games);
+            return conditional(ifNoneMatch, GameController.listETagOf(objectMapper, headToHead), headToHead);
+        });
+    }
+
+    @RequestMapping(path = "/game/{id}", method = RequestMethod.GET)
+    public CompletableFuture<ResponseEntity<Game>> read(
+            @PathVariable String id,
+            @RequestHeader(value="If-None-Match", required=false) String ifNoneMatch) {
+        log.trace("Entering read() with {}", id);
+        return service.read(id).thenApply(game -> game
+                .map(found -> found.getVersion() == null
+                        ? GameController.withETag(found, OK)
+                        : conditional(ifNoneMatch, GameController.eTagOf(found), found))
+                .orElse(new ResponseEntity<>(NOT_FOUND)));
+    }
+
+    @RequestMapping(path = "/game", method = RequestMethod.POST)
+    public CompletableFuture<ResponseEntity<Game>> create(@RequestBody @Valid Game game) {
+        log.trace("Entering create() with {}", game);
+        return service.create(game).thenApply(created -> created
+                .map(newGameData -> GameController.withETag(newGameData, CREATED))
+                .orElse(new ResponseEntity<>(CONFLICT)));
+    }
+
+    /**
+     * Conditional on If-Match as /v1 delete is. Choosing among several tags reads the stored version, blocking
+     * the request thread for that read.
+     */
+    @RequestMapping(path = "/game/{id}", method = RequestMethod.DELETE)
+    public CompletableFuture<ResponseEntity<Void>> delete(
+            @PathVariable String id,
+            @RequestHeader(value="If-Match", required=false) String ifMatch) {
+        log.trace("Entering delete() with {}", id);
+        Long version = GameController.versionOf(id, ifMatch, () -> service.read(id).join().map(Game::getVersion));
+        return service.delete(id, version).thenApply(deleted -> deleted ?
+                new ResponseEntity<>(NO_CONTENT) :
+                new ResponseEntity<>(NOT_FOUND));
+    }
+
+    @ExceptionHandler(StaleVersionException.class)
+    public ResponseEntity<Void> staleVersion(StaleVersionException e) {
+        log.debug(e.getMessage());
+        return new ResponseEntity<>(PRECONDITION_FAILED);
+    }
+
+    /**
+     * 304 when If-None-Match names {@code eTag} or is *, comparing weakly as If-None-Match does; otherwise
+     * {@code body}. Either way tagged with {@code eTag}.
+     */
+    static <T> ResponseEntity<T> conditional(String ifNoneMatch, String eTag, T body) {
+        if (ifNoneMatch != null) {
+            String opaque = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(opaque)) {
+                    return ResponseEntity.status(NOT_MODIFIED).eTag(eTag).build();
+                }
+            }
+        }
+        return ResponseEntity.status(OK).eTag(eTag).body(body);
+    }
+}
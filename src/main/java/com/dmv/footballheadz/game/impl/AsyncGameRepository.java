@@ -0,0 +1,203 @@
+package com.dmv.footballheadz.game.impl;
+
+import com.dmv.footballheadz.game.IAsyncRepository;
+import com.dmv.footballheadz.game.StaleVersionException;
+import com.dmv.footballheadz.util.ExpiringCache;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.DeleteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Reads and writes games through the v2 async enhanced client. Shares the game cache with {@link GameRepository},
+ * so either one sees the other's writes.
+ */
+@Repository
+@ConditionalOnProperty(name = "game.async.enabled", havingValue = "true")
+public class AsyncGameRepository implements IAsyncRepository<Game> {
+
+    private static final Map<String, String> INDEX_HASH_KEYS = new HashMap<>();
+
+    static {
+        INDEX_HASH_KEYS.put(Game.HOME_TEAM_INDEX, "HomeTeam");
+        INDEX_HASH_KEYS.put(Game.AWAY_TEAM_INDEX, "AwayTeam");
+    }
+
+    private static final Comparator<Game> SEASON_WEEK_ORDER =
+            Comparator.comparing(Game::getSeasonWeek, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private DynamoDbAsyncTable<Game> table;
+
+    @Autowired
+    private ExpiringCache<String, Game> cache;
+
+    @Autowired
+    private GameIndexStatus indexStatus;
+
+    @Override
+    public Publisher<Game> readAll() {
+        log.trace("Entering readAll()");
+        return table.scan().items();
+    }
+
+    /**
+     * Scans while the index is backfilling, as {@link GameRepository#readIndex} does.
+     */
+    @Override
+    public CompletableFuture<List<Game>> readIndex(String indexName, String key) {
+        log.trace("Entering readIndex() with {}, {}", indexName, key);
+        String attributeName = INDEX_HASH_KEYS.get(indexName);
+        if (attributeName == null) {
+            throw new IllegalArgumentException("Unknown index " + indexName);
+        }
+        if (!indexStatus.isActive(indexName)) {
+            return scan(Expression.builder()
+                    .expression(attributeName + " = :val")
+                    .putExpressionValue(":val", stringValue(key))
+                    .build());
+        }
+        return query(indexName, key);
+    }
+
+    /**
+     * Scans for the two teams while the matchup index is backfilling, matching on the teams rather than the
+     * Matchup attribute, as {@link GameRepository#readMatchup} does.
+     */
+    @Override
+    public CompletableFuture<List<Game>> readMatchup(String team1, String team2) {
+        log.trace("Entering readMatchup() with {}, {}", team1, team2);
+        if (indexStatus.isActive(Game.MATCHUP_INDEX)) {
+            return query(Game.MATCHUP_INDEX, Game.matchupKey(team1, team2));
+        }
+        return scan(Expression.builder()
+                .expression("(HomeTeam = :team1 and AwayTeam = :team2) or (HomeTeam = :team2 and AwayTeam = :team1)")
+                .putExpressionValue(":team1", stringValue(team1))
+                .putExpressionValue(":team2", stringValue(team2))
+                .build())
+                .thenApply(games -> {
+                    games.sort(SEASON_WEEK_ORDER);
+                    return games;
+                });
+    }
+
+    private CompletableFuture<List<Game>> query(String indexName, String key) {
+        List<Game> games = new ArrayList<>();
+        QueryConditional keyEqualTo = QueryConditional.keyEqualTo(Key.builder().partitionValue(key).build());
+        return table.index(indexName)
+                .query(keyEqualTo)
+                .subscribe(page -> games.addAll(page.items()))
+                .thenApply(done -> games);
+    }
+
+    private CompletableFuture<List<Game>> scan(Expression filter) {
+        List<Game> games = new ArrayList<>();
+        return table.scan(ScanEnhancedRequest.builder().filterExpression(filter).build())
+                .subscribe(page -> games.addAll(page.items()))
+                .thenApply(done -> games);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Game>> read(String key) {
+        log.trace("Entering read() with {}", key);
+        Optional<Game> cached = cache.get(key);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(Optional.of(cached.get().copy()));
+        }
+        long mark = cache.mark();
+        return table.getItem(keyOf(key)).thenApply(game -> {
+            if (game != null) {
+                cache.putIfUnchanged(key, game.copy(), mark);
+            }
+            return Optional.ofNullable(game);
+        });
+    }
+
+    /**
+     * Like the mapper, the version extension increments the version and expects the stored one to match, so
+     * saving a new game whose id is already taken completes with a {@link StaleVersionException}.
+     */
+    @Override
+    public CompletableFuture<Void> save(Game game) {
+        log.trace("Entering save() with {}", game);
+        return table.putItem(game).handle((done, e) -> {
+            if (e == null) {
+                game.setVersion(Game.nextVersion(game.getVersion()));
+                cache.put(game.getId(), game.copy());
+                return null;
+            }
+            cache.invalidate(game.getId());
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof ConditionalCheckFailedException) {
+                throw new StaleVersionException(game.getId(), cause);
+            }
+            throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+        });
+    }
+
+    /**
+     * With a version, the delete is conditional on it. A failed condition is told apart from a missing game by a
+     * consistent read, as {@link GameRepository#delete} does.
+     */
+    @Override
+    public CompletableFuture<Optional<Game>> delete(String key, Long version) {
+        log.trace("Entering delete() with {}, {}", key, version);
+        DeleteItemEnhancedRequest.Builder request = DeleteItemEnhancedRequest.builder().key(keyOf(key));
+        if (version != null) {
+            request.conditionExpression(Expression.builder()
+                    .expression("#Version = :expected")
+                    .putExpressionName("#Version", "Version")
+                    .putExpressionValue(":expected", AttributeValue.builder().n(version.toString()).build())
+                    .build());
+        }
+        return table.deleteItem(request.build()).whenComplete((game, e) -> cache.invalidate(key))
+                .handle((game, e) -> {
+                    if (e == null) {
+                        return CompletableFuture.completedFuture(Optional.ofNullable(game));
+                    }
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (!(cause instanceof ConditionalCheckFailedException)) {
+                        throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+                    }
+                    return table.getItem(GetItemEnhancedRequest.builder().key(keyOf(key)).consistentRead(true).build())
+                            .thenApply(stored -> {
+                                if (stored != null) {
+                                    throw new StaleVersionException(key, cause);
+                                }
+                                return Optional.<Game>empty();
+                            });
+                })
+                .thenCompose(Function.identity());
+    }
+
+    private static AttributeValue stringValue(String value) {
+        return AttributeValue.builder().s(value).build();
+    }
+
+    private static Key keyOf(String id) {
+        return Key.builder().partitionValue(id).build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.dmv.footballheadz.game.impl;
+
+import com.dmv.footballheadz.game.IAsyncRepository;
+import com.dmv.footballheadz.game.StaleVersionException;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.amazonaws.util.StringUtils.isNullOrEmpty;
+
+/**
+ * {@link GameService} for the async repository. Writes are reported back to {@link GameService}, so the head to
+ * head matrix and list validators stay in step whichever API a write came through.
+ */
+@Service
+@ConditionalOnProperty(name = "game.async.enabled", havingValue = "true")
+public class AsyncGameService {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private IAsyncRepository<Game> repository;
+
+    @Autowired
+    private GameService gameService;
+
+    public CompletableFuture<Optional<Game>> read(String id) {
+        log.trace("Entering read() with {}", id);
+        return repository.read(id);
+    }
+
+    public Publisher<Game> iterateAll() {
+        log.trace("Entering iterateAll()");
+        return repository.readAll();
+    }
+
+    /**
+     * Completes with the saved game, or empty when its id is already taken.
+     */
+    public CompletableFuture<Optional<Game>> create(Game game) {
+        log.trace("Entering create() with {}", game);
+        if (isNullOrEmpty(game.getId())) {
+            game.setId(UUID.randomUUID().toString());
+        }
+        game.setVersion(null);
+        return repository.save(game).handle((done, e) -> {
+            if (e == null) {
+                gameService.applied(null, game);
+                return Optional.of(game);
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof StaleVersionException) {
+                log.warn("Game {} already exists", game.getId());
+                return Optional.empty();
+            }
+            throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+        });
+    }
+
+    /**
+     * Completes exceptionally with {@link StaleVersionException} if {@code version} is not null and not the stored
+     * one.
+     */
+    public CompletableFuture<Boolean> delete(String key, Long version) {
+        log.trace("Entering delete() with {}, {}", key, version);
+        return repository.delete(key, version).thenApply(previous -> {
+            if (!previous.isPresent()) {
+                log.warn("Game {} not found", key);
+                return false;
+            }
+            gameService.applied(previous.get(), null);
+            return true;
+        });
+    }
+
+    public CompletableFuture<List<Game>> listOfGamesByTeam(String key) {
+        log.trace("Entering listOfGamesByTeam() with {}", key);
+        CompletableFuture<List<Game>> home = repository.readIndex(Game.HOME_TEAM_INDEX, key);
+        CompletableFuture<List<Game>> away = repository.readIndex(Game.AWAY_TEAM_INDEX, key);
+        return home.thenCombine(away, (homeGames, awayGames) -> {
+            List<Game> games = new ArrayList<>(homeGames);
+            for (Game game : awayGames) {
+                if (!key.equals(game.getHomeTeam())) {
+                    games.add(game);
+                }
+            }
+            return games;
+        });
+    }
+
+    public CompletableFuture<List<Game>> listOfGamesByTeams(String key1, String key2) {
+        log.trace("Entering listOfGamesByTeams() with {}, {}", key1, key2);
+        return repository.readMatchup(key1, key2);
+    }
+}
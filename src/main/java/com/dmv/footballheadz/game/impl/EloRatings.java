@@ -0,0 +1,260 @@
+package com.dmv.footballheadz.game.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Elo ratings of every team, from replaying every game in (Year, Week) order, and by game id within a week.
+ * Each game moves k-factor times the difference between its result and the expected one from the loser to the
+ * winner; between seasons every rating reverts part of the way to the initial one.
+ *
+ * Results are held as columns of primitives indexed by a slot per game and teams by {@link TeamDictionary} id,
+ * so a replay sorts one long[] and walks arrays, allocating nothing once the arrays have grown to fit. A write
+ * of a game later than any rated so far is rated on the spot; any other write changes history and the next read
+ * replays it.
+ */
+@Component
+public class EloRatings extends GameProjection<EloRatings.Columns> {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Value("${game.elo.k-factor:20}")
+    private double kFactor;
+
+    @Value("${game.elo.initial-rating:1500}")
+    private double initialRating;
+
+    @Value("${game.elo.home-advantage:0}")
+    private double homeAdvantage;
+
+    @Value("${game.elo.season-revert:0.33}")
+    private double seasonRevert;
+
+    /**
+     * Every rated team, highest rating first.
+     */
+    public List<Rating> ratings() {
+        log.trace("Entering ratings()");
+        Columns columns = state();
+        List<Rating> unranked;
+        columns.lock.lock();
+        try {
+            unranked = columns.unranked();
+        } finally {
+            columns.lock.unlock();
+        }
+        unranked.sort(Comparator.comparingDouble(Rating::getRating).reversed().thenComparing(Rating::getTeam));
+        List<Rating> ranked = new ArrayList<>(unranked.size());
+        for (Rating rating : unranked) {
+            ranked.add(new Rating(ranked.size() + 1, rating.getTeam(), rating.getRating(), rating.getGames()));
+        }
+        return ranked;
+    }
+
+    @Override
+    protected Columns empty() {
+        return new Columns();
+    }
+
+    @Override
+    protected void move(Columns columns, Game before, Game after) {
+        columns.lock.lock();
+        try {
+            columns.move(before, after);
+        } finally {
+            columns.lock.unlock();
+        }
+    }
+
+    /**
+     * Every game that can be rated, and the ratings of the games rated so far. Reads replay, so reads and writes
+     * alike hold {@link #lock}.
+     */
+    final class Columns {
+
+        private final Lock lock = new ReentrantLock();
+
+        private final TeamDictionary teams = new TeamDictionary();
+
+        private boolean stale;
+
+        private final Map<String, Integer> slots = new HashMap<>();
+        private int size;
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private int[] homeTeams = new int[INITIAL_CAPACITY];
+        private int[] awayTeams = new int[INITIAL_CAPACITY];
+        private double[] homePoints = new double[INITIAL_CAPACITY];
+        private double[] awayPoints = new double[INITIAL_CAPACITY];
+        private String[] gameIds = new String[INITIAL_CAPACITY];
+
+        private long[] order = new long[INITIAL_CAPACITY];
+        private double[] ratings = new double[0];
+        private int[] played = new int[0];
+        private long lastKey = -1;
+        private String lastId;
+
+        private List<Rating> unranked() {
+            if (stale) {
+                long began = System.nanoTime();
+                replay();
+                log.debug("Elo ratings of {} teams replayed from {} games in {} us",
+                        teams.size(), size, (System.nanoTime() - began) / 1000);
+            }
+            List<Rating> unranked = new ArrayList<>(teams.size());
+            for (int team = 0; team < Math.min(teams.size(), played.length); team++) {
+                if (played[team] > 0) {
+                    unranked.add(new Rating(0, teams.nameOf(team), ratings[team], played[team]));
+                }
+            }
+            return unranked;
+        }
+
+        private void move(Game before, Game after) {
+            if (before != null && slots.containsKey(before.getId())) {
+                remove(before.getId());
+                stale = true;
+            }
+            if (keyOf(after) < 0) {
+                return;
+            }
+            int slot = add(after);
+            if (stale || keys[slot] < lastKey || keys[slot] == lastKey && gameIds[slot].compareTo(lastId) < 0) {
+                stale = true;
+            } else {
+                rate(slot);
+            }
+        }
+
+        /**
+         * Rates every game from scratch in schedule order. Keys fit in 32 bits, so the key and slot of each game
+         * are packed into one long and sorting those sorts the slots; the few games of one week are then put in
+         * game id order, since slots move as games are removed.
+         */
+        private void replay() {
+            if (ratings.length < teams.size()) {
+                ratings = new double[teams.size()];
+                played = new int[teams.size()];
+            }
+            Arrays.fill(ratings, initialRating);
+            Arrays.fill(played, 0);
+            if (order.length < size) {
+                order = new long[keys.length];
+            }
+            for (int slot = 0; slot < size; slot++) {
+                order[slot] = keys[slot] << 32 | slot;
+            }
+            Arrays.sort(order, 0, size);
+            for (int i = 1; i < size; i++) {
+                long packed = order[i];
+                int j = i - 1;
+                while (j >= 0 && order[j] >>> 32 == packed >>> 32
+                        && gameIds[(int) order[j]].compareTo(gameIds[(int) packed]) > 0) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = packed;
+            }
+            lastKey = -1;
+            lastId = null;
+            for (int i = 0; i < size; i++) {
+                rate((int) order[i]);
+            }
+            stale = false;
+        }
+
+        private void rate(int slot) {
+            if (ratings.length < teams.size()) {
+                int from = ratings.length;
+                ratings = Arrays.copyOf(ratings, teams.size());
+                played = Arrays.copyOf(played, teams.size());
+                Arrays.fill(ratings, from, ratings.length, initialRating);
+            }
+            long key = keys[slot];
+            if (lastKey >= 0 && key / 100 != lastKey / 100) {
+                for (int team = 0; team < ratings.length; team++) {
+                    ratings[team] += (initialRating - ratings[team]) * seasonRevert;
+                }
+            }
+            lastKey = key;
+            lastId = gameIds[slot];
+            int home = homeTeams[slot];
+            int away = awayTeams[slot];
+            double expected = 1 / (1 + Math.pow(10, (ratings[away] - ratings[home] - homeAdvantage) / 400));
+            double result = Math.signum(homePoints[slot] - awayPoints[slot]) / 2 + 0.5;
+            double change = kFactor * (result - expected);
+            ratings[home] += change;
+            ratings[away] -= change;
+            played[home]++;
+            played[away]++;
+        }
+
+        private int add(Game game) {
+            int slot = size++;
+            if (slot == keys.length) {
+                grow();
+            }
+            keys[slot] = keyOf(game);
+            homeTeams[slot] = teams.idOf(game.getHomeTeam());
+            awayTeams[slot] = teams.idOf(game.getAwayTeam());
+            homePoints[slot] = game.getHomeTeamPts();
+            awayPoints[slot] = game.getAwayTeamPts();
+            gameIds[slot] = game.getId();
+            slots.put(game.getId(), slot);
+            return slot;
+        }
+
+        /**
+         * Moves the last slot into the removed one, keeping the slots dense.
+         */
+        private void remove(String id) {
+            int slot = slots.remove(id);
+            int last = --size;
+            if (slot != last) {
+                keys[slot] = keys[last];
+                homeTeams[slot] = homeTeams[last];
+                awayTeams[slot] = awayTeams[last];
+                homePoints[slot] = homePoints[last];
+                awayPoints[slot] = awayPoints[last];
+                gameIds[slot] = gameIds[last];
+                slots.put(gameIds[slot], slot);
+            }
+            gameIds[last] = null;
+        }
+
+        private void grow() {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            homeTeams = Arrays.copyOf(homeTeams, capacity);
+            awayTeams = Arrays.copyOf(awayTeams, capacity);
+            homePoints = Arrays.copyOf(homePoints, capacity);
+            awayPoints = Arrays.copyOf(awayPoints, capacity);
+            gameIds = Arrays.copyOf(gameIds, capacity);
+        }
+    }
+
+    /**
+     * Year * 100 + week, or -1 for games that cannot be rated: unscored, without two distinct teams or not
+     * placed in a numbered week of a numbered year.
+     */
+    static long keyOf(Game game) {
+        if (game == null || game.getId() == null || game.getHomeTeam() == null || game.getAwayTeam() == null
+                || game.getHomeTeam().equals(game.getAwayTeam())
+                || game.getHomeTeamPts() == null || game.getAwayTeamPts() == null) {
+            return -1;
+        }
+        return Game.seasonWeekOf(game);
+    }
+}
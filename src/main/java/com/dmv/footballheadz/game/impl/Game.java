@@ -3,16 +3,33 @@ package com.dmv.footballheadz.game.impl;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAttribute;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAutoGeneratedKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIndexHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIndexRangeKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBVersionAttribute;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import javax.validation.constraints.Pattern;
 import java.io.Serializable;
 import java.util.Objects;
 
-@DynamoDBTable(tableName = "Game")
+import static com.amazonaws.util.StringUtils.isNullOrEmpty;
+
+@DynamoDBTable(tableName = Game.TABLE_NAME)
 public class Game implements Serializable {
 
     private static final long serialVersionUID = -3534650012619938612L;
 
+    public static final String TABLE_NAME = "Game";
+    public static final String HOME_TEAM_INDEX = "HomeTeam-index";
+    public static final String AWAY_TEAM_INDEX = "AwayTeam-index";
+    public static final String MATCHUP_INDEX = "Matchup-index";
+
+    /**
+     * Team names cannot contain the # that joins two of them into a matchup key, so every key names one pair.
+     */
+    public static final String TEAM_NAME_PATTERN = "[^#]*";
+
     private String id;
     private String year;
     private String week;
@@ -20,6 +37,7 @@ public class Game implements Serializable {
     private String awayTeam;
     private Double homeTeamPts;
     private Double awayTeamPts;
+    private Long version;
 
     @DynamoDBHashKey(attributeName = "Id")
     @DynamoDBAutoGeneratedKey
@@ -64,7 +82,8 @@ public class Game implements Serializable {
         return this;
     }
 
-    @DynamoDBAttribute(attributeName ="HomeTeam")
+    @DynamoDBIndexHashKey(attributeName = "HomeTeam", globalSecondaryIndexName = HOME_TEAM_INDEX)
+    @Pattern(regexp = TEAM_NAME_PATTERN)
     public String getHomeTeam() {
         return homeTeam;
     }
@@ -78,7 +97,8 @@ public class Game implements Serializable {
         return this;
     }
 
-    @DynamoDBAttribute(attributeName ="AwayTeam")
+    @DynamoDBIndexHashKey(attributeName = "AwayTeam", globalSecondaryIndexName = AWAY_TEAM_INDEX)
+    @Pattern(regexp = TEAM_NAME_PATTERN)
     public String getAwayTeam() {
         return awayTeam;
     }
@@ -120,6 +140,130 @@ public class Game implements Serializable {
         return this;
     }
 
+    /**
+     * Incremented on every write; conditional writes compare it to detect concurrent changes. Not part of
+     * equality, which compares game data only.
+     */
+    @DynamoDBVersionAttribute(attributeName = "Version")
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Game withVersion(Long version) {
+        setVersion(version);
+        return this;
+    }
+
+    public static Long nextVersion(Long version) {
+        return version == null ? 1L : version + 1;
+    }
+
+    public Game copy() {
+        return new Game()
+                .withId(id)
+                .withYear(year)
+                .withWeek(week)
+                .withHomeTeam(homeTeam)
+                .withAwayTeam(awayTeam)
+                .withHomeTeamPts(homeTeamPts)
+                .withAwayTeamPts(awayTeamPts)
+                .withVersion(version);
+    }
+
+    /**
+     * Copy of this game with every field {@code patch} has a value for replaced by the patch's value.
+     */
+    public Game patchedWith(Game patch) {
+        Game game = copy();
+        if (!isNullOrEmpty(patch.getYear())) {
+            game.setYear(patch.getYear());
+        }
+        if (!isNullOrEmpty(patch.getWeek())) {
+            game.setWeek(patch.getWeek());
+        }
+        if (!isNullOrEmpty(patch.getHomeTeam())) {
+            game.setHomeTeam(patch.getHomeTeam());
+        }
+        if (!isNullOrEmpty(patch.getAwayTeam())) {
+            game.setAwayTeam(patch.getAwayTeam());
+        }
+        if (null != patch.getHomeTeamPts()) {
+            game.setHomeTeamPts(patch.getHomeTeamPts());
+        }
+        if (null != patch.getAwayTeamPts()) {
+            game.setAwayTeamPts(patch.getAwayTeamPts());
+        }
+        return game;
+    }
+
+    /**
+     * Order independent key of the two teams, e.g. "TeamA#TeamB", written on every save so head to head lookups
+     * can query the matchup index.
+     */
+    @DynamoDBIndexHashKey(attributeName = "Matchup", globalSecondaryIndexName = MATCHUP_INDEX)
+    @JsonIgnore
+    public String getMatchup() {
+        return matchupKey(homeTeam, awayTeam);
+    }
+
+    public void setMatchup(String matchup) {
+        // derived from the home and away team
+    }
+
+    /**
+     * Sort key of the matchup index, "Year#Week" with the week zero padded so games come back in schedule order.
+     */
+    @DynamoDBIndexRangeKey(attributeName = "SeasonWeek", globalSecondaryIndexName = MATCHUP_INDEX)
+    @JsonIgnore
+    public String getSeasonWeek() {
+        if (getMatchup() == null) {
+            return null;
+        }
+        return (year == null ? "" : year) + "#" + paddedWeek(week);
+    }
+
+    /**
+     * Week zero padded to two digits, so weeks sort in schedule order as strings.
+     */
+    public static String paddedWeek(String week) {
+        if (week == null) {
+            return "";
+        }
+        if (week.length() == 1 && Character.isDigit(week.charAt(0))) {
+            return "0" + week;
+        }
+        return week;
+    }
+
+    /**
+     * Year * 100 + week, so games sort in schedule order as ints, or -1 when either is not a number or the week
+     * is not in 0..99.
+     */
+    static int seasonWeekOf(Game game) {
+        try {
+            int year = Integer.parseInt(game.getYear());
+            int week = Integer.parseInt(game.getWeek());
+            return year < 0 || year > 9999 || week < 0 || week > 99 ? -1 : year * 100 + week;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public void setSeasonWeek(String seasonWeek) {
+        // derived from the year and week
+    }
+
+    public static String matchupKey(String team1, String team2) {
+        if (team1 == null || team2 == null) {
+            return null;
+        }
+        return team1.compareTo(team2) <= 0 ? team1 + "#" + team2 : team2 + "#" + team1;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
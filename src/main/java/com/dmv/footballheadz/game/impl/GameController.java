@@ -1,14 +1,30 @@
 package com.dmv.footballheadz.game.impl;
 
+import com.dmv.footballheadz.game.BatchOperation;
+import com.dmv.footballheadz.game.BatchResult;
+import com.dmv.footballheadz.game.Page;
+import com.dmv.footballheadz.game.StaleVersionException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.springframework.http.HttpStatus.*;
 
@@ -16,64 +32,200 @@ import static org.springframework.http.HttpStatus.*;
 @RestController
 @RequestMapping("/v1")
 public class GameController {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int EXPORT_FLUSH_INTERVAL = 100;
+    private static final String NDJSON = "application/x-ndjson";
     
     private final Logger log = LoggerFactory.getLogger(getClass());
     
     @Autowired
     private GameService service;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @RequestMapping(path = "/game", method = RequestMethod.GET)
-    public ResponseEntity<List<Game>> list() {
+    public ResponseEntity<List<Game>> list(WebRequest request) {
         log.trace("Entering list()");
         List<Game> games = service.list();
         if (games.isEmpty()) {
             return new ResponseEntity<>(NO_CONTENT);
         }
+        if (listNotModified(request, games)) {
+            return new ResponseEntity<>(NOT_MODIFIED);
+        }
         return new ResponseEntity<>(games, OK);
     }
 
+    @RequestMapping(path = "/game", method = RequestMethod.GET, params = {"ids", "!limit"})
+    public ResponseEntity<List<Game>> readMany(@RequestParam(value="ids") List<String> ids) {
+        log.trace("Entering readMany() with {}", ids);
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_SIZE) {
+            return new ResponseEntity<>(BAD_REQUEST);
+        }
+        List<Game> games = service.readMany(ids);
+        if (games.isEmpty()) {
+            return new ResponseEntity<>(NO_CONTENT);
+        }
+        return new ResponseEntity<>(games, OK);
+    }
+
+    @RequestMapping(path = "/game", method = RequestMethod.GET, params = {"limit", "!ids"})
+    public ResponseEntity<Page<Game>> listPage(
+            @RequestParam(value="limit") int limit,
+            @RequestParam(value="cursor", required=false) String cursor) {
+        log.trace("Entering listPage() with {}, {}", limit, cursor);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(BAD_REQUEST);
+        }
+        Page<Game> page;
+        try {
+            page = service.listPage(limit, cursor);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid cursor {}", cursor);
+            return new ResponseEntity<>(BAD_REQUEST);
+        }
+        if (page.getItems().isEmpty() && page.getCursor() == null) {
+            return new ResponseEntity<>(NO_CONTENT);
+        }
+        return new ResponseEntity<>(page, OK);
+    }
+
+    /**
+     * Games by id are not paged, so a request for both is a client error rather than a choice between them.
+     */
+    @RequestMapping(path = "/game", method = RequestMethod.GET, params = {"ids", "limit"})
+    public ResponseEntity<Void> readManyPaged() {
+        log.trace("Entering readManyPaged()");
+        return new ResponseEntity<>(BAD_REQUEST);
+    }
+
+    /**
+     * Streams every game as newline delimited JSON while the table is scanned, so neither side has to hold the
+     * whole history in memory.
+     */
+    @RequestMapping(path = "/game/export", method = RequestMethod.GET, produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> export() {
+        log.trace("Entering export()");
+        ObjectWriter writer = objectMapper.writerFor(Game.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            int written = 0;
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(new SerializedString("\n"));
+                for (Game game : service.iterateAll()) {
+                    writer.writeValue(generator, game);
+                    if (++written % EXPORT_FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+                }
+                if (written > 0) {
+                    generator.writeRaw('\n');
+                }
+            }
+            log.debug("Exported {} games", written);
+        };
+        return new ResponseEntity<>(body, OK);
+    }
+
     @RequestMapping(path = "/game/", method = RequestMethod.GET)
-    public ResponseEntity<List<Game>> listOfGamesByTeam(@RequestParam(value="teamName") String teamName) {
+    public ResponseEntity<List<Game>> listOfGamesByTeam(
+            @RequestParam(value="teamName") String teamName,
+            WebRequest request) {
         log.trace("Entering listOfYear() for {}", teamName);
         List<Game> games = service.listOfGamesByTeam(teamName);
         if (games.isEmpty()) {
             return new ResponseEntity<>(NO_CONTENT);
         }
+        if (listNotModified(request, games)) {
+            return new ResponseEntity<>(NOT_MODIFIED);
+        }
         return new ResponseEntity<>(games, OK);
     }
 
     @RequestMapping(path = "/game/head2head", method = RequestMethod.GET)
     public ResponseEntity<HeadToHead> headToHead(
-            @RequestParam(value="teamName") List<String> teams) {
+            @RequestParam(value="teamName") List<String> teams,
+            @RequestParam(value="games", defaultValue="true") boolean includeGames,
+            WebRequest request) {
         String team1 = teams.get(0);
         String team2 = teams.get(1);
-        log.trace("Entering listOfYear() for {} and {}", team1, team2 );
+        log.trace("Entering headToHead() for {} and {}", team1, team2 );
+        if (!includeGames) {
+            return service.headToHeadSummary(team1, team2)
+                    .map(headToHead -> listNotModified(request, headToHead)
+                            ? new ResponseEntity<HeadToHead>(NOT_MODIFIED)
+                            : new ResponseEntity<>(headToHead, OK))
+                    .orElse(new ResponseEntity<>(NO_CONTENT));
+        }
         List<Game> games = service.listOfGamesByTeams(team1,team2);
         if (games.isEmpty()) {
             return new ResponseEntity<>(NO_CONTENT);
         }
 
-        HeadToHead headToHead = new HeadToHead(team1,team2, games, calculateTeamWins(team1, games));
-        log.info(headToHead.getRecord());
+        HeadToHead headToHead = new HeadToHead(team1, team2, games);
+        log.debug(headToHead.getRecord());
+        if (listNotModified(request, headToHead)) {
+            return new ResponseEntity<>(NOT_MODIFIED);
+        }
         return new ResponseEntity<>(headToHead, null,OK);
     }
 
     public int calculateTeamWins(String team1, List<Game> games) {
-        List<Game> teamWins = games.stream()
-                .filter(game ->
-                        (team1.equals(game.getHomeTeam()) &&
-                                game.getHomeTeamPts() > game.getAwayTeamPts()) ||
-                                (team1.equals(game.getAwayTeam()) &&
-                                        game.getAwayTeamPts() > game.getHomeTeamPts())
-                ).collect(Collectors.toList());
-        return teamWins.size();
+        int wins = 0;
+        for (Game game : games) {
+            Double home = game.getHomeTeamPts();
+            Double away = game.getAwayTeamPts();
+            if (home == null || away == null) {
+                continue;
+            }
+            if ((team1.equals(game.getHomeTeam()) && home > away)
+                    || (team1.equals(game.getAwayTeam()) && away > home)) {
+                wins++;
+            }
+        }
+        return wins;
+    }
+
+    @RequestMapping(path = "/standings", method = RequestMethod.GET)
+    public ResponseEntity<List<Standing>> standings(
+            @RequestParam(value="year") String year,
+            @RequestParam(value="week", required=false) String week,
+            WebRequest request) {
+        log.trace("Entering standings() for {}, {}", year, week);
+        List<Standing> standings = service.standings(year, week);
+        if (standings.isEmpty()) {
+            return new ResponseEntity<>(NO_CONTENT);
+        }
+        if (listNotModified(request, standings)) {
+            return new ResponseEntity<>(NOT_MODIFIED);
+        }
+        return new ResponseEntity<>(standings, OK);
+    }
+
+    @RequestMapping(path = "/ratings", method = RequestMethod.GET)
+    public ResponseEntity<List<Rating>> ratings(WebRequest request) {
+        log.trace("Entering ratings()");
+        List<Rating> ratings = service.ratings();
+        if (ratings.isEmpty()) {
+            return new ResponseEntity<>(NO_CONTENT);
+        }
+        if (listNotModified(request, ratings)) {
+            return new ResponseEntity<>(NOT_MODIFIED);
+        }
+        return new ResponseEntity<>(ratings, OK);
     }
 
     @RequestMapping(path = "/game/{id}", method = RequestMethod.GET)
-    public ResponseEntity<Game> read(@PathVariable String id) {
+    public ResponseEntity<Game> read(@PathVariable String id, WebRequest request) {
         log.trace("Entering read() with {}", id);
         return service.read(id)
-                .map(game -> new ResponseEntity<>(game, OK))
+                .map(game -> game.getVersion() != null && request.checkNotModified(eTagOf(game))
+                        ? new ResponseEntity<Game>(NOT_MODIFIED)
+                        : withETag(game, OK))
                 .orElse(new ResponseEntity<>(NOT_FOUND));
     }
 
@@ -81,31 +233,144 @@ public class GameController {
     public ResponseEntity<Game> create(@RequestBody @Valid Game game) {
         log.trace("Entering create() with {}", game);
         return service.create(game)
-                .map(newGameData -> new ResponseEntity<>(newGameData, CREATED))
+                .map(newGameData -> withETag(newGameData, CREATED))
                 .orElse(new ResponseEntity<>(CONFLICT));
     }
 
+    @RequestMapping(path = "/game/batch", method = RequestMethod.POST)
+    public ResponseEntity<List<BatchResult>> batch(@RequestBody List<BatchOperation<Game>> operations) {
+        log.trace("Entering batch() with {} operations", operations.size());
+        if (operations.isEmpty() || operations.size() > MAX_BATCH_SIZE) {
+            return new ResponseEntity<>(BAD_REQUEST);
+        }
+        List<BatchResult> results = service.batch(operations);
+        boolean allSuccessful = results.stream().allMatch(BatchResult::isSuccessful);
+        return new ResponseEntity<>(results, allSuccessful ? OK : MULTI_STATUS);
+    }
+
     @RequestMapping(path = "/game/{id}", method = RequestMethod.PUT)
-    public ResponseEntity<Game> put(@PathVariable String id, @RequestBody Game game) {
-        log.trace("Entering put() with {}, {}", id, game);
-        return service.replace(game.withId(id))
-                .map(newGameData -> new ResponseEntity<>(newGameData, OK))
+    public ResponseEntity<Game> put(
+            @PathVariable String id,
+            @RequestHeader(value="If-Match", required=false) String ifMatch,
+            @RequestBody @Valid Game game) {
+        log.trace("Entering put() with {}, {}, {}", id, ifMatch, game);
+        return service.replace(game.withId(id).withVersion(versionOf(id, ifMatch)))
+                .map(newGameData -> withETag(newGameData, OK))
                 .orElse(new ResponseEntity<>(NOT_FOUND));
     }
 
     @RequestMapping(path = "/game/{id}", method = RequestMethod.PATCH)
-    public ResponseEntity<Game> patch(@PathVariable String id, @RequestBody Game game) {
-        log.trace("Entering patch() with {}, {}", id, game);
-        return service.update(game.withId(id))
-                .map(newGameData -> new ResponseEntity<>(newGameData, OK))
+    public ResponseEntity<Game> patch(
+            @PathVariable String id,
+            @RequestHeader(value="If-Match", required=false) String ifMatch,
+            @RequestBody @Valid Game game) {
+        log.trace("Entering patch() with {}, {}, {}", id, ifMatch, game);
+        return service.update(game.withId(id).withVersion(versionOf(id, ifMatch)))
+                .map(newGameData -> withETag(newGameData, OK))
                 .orElse(new ResponseEntity<>(NOT_FOUND));
     }
 
     @RequestMapping(path = "/game/{id}", method = RequestMethod.DELETE)
-    public ResponseEntity<Void> delete(@PathVariable String id) {
+    public ResponseEntity<Void> delete(
+            @PathVariable String id,
+            @RequestHeader(value="If-Match", required=false) String ifMatch) {
         log.trace("Entering delete() with {}", id);
-        return service.delete(id) ?
+        return service.delete(id, versionOf(id, ifMatch)) ?
                 new ResponseEntity<>(NO_CONTENT) :
                 new ResponseEntity<>(NOT_FOUND);
     }
+
+    @ExceptionHandler(StaleVersionException.class)
+    public ResponseEntity<Void> staleVersion(StaleVersionException e) {
+        log.debug(e.getMessage());
+        return new ResponseEntity<>(PRECONDITION_FAILED);
+    }
+
+    /**
+     * Standings and ratings have no cheaper source than the projections, so until they are built the instance
+     * answers as /health does.
+     */
+    @ExceptionHandler(ProjectionNotWarmException.class)
+    public ResponseEntity<Void> projectionNotWarm(ProjectionNotWarmException e) {
+        log.debug(e.getMessage());
+        return new ResponseEntity<>(SERVICE_UNAVAILABLE);
+    }
+
+    static ResponseEntity<Game> withETag(Game game, HttpStatus status) {
+        if (game.getVersion() == null) {
+            return new ResponseEntity<>(game, status);
+        }
+        return ResponseEntity.status(status).eTag(eTagOf(game)).body(game);
+    }
+
+    static String eTagOf(Game game) {
+        return "\"" + game.getVersion() + "\"";
+    }
+
+    /**
+     * Answers If-None-Match for a list result from the result itself, so every instance tags the same result
+     * alike and the tag changes as soon as the result does, whichever instance made the write. Also sets the tag
+     * on the response otherwise. Team games, head to head, standings and ratings come from the projections, so
+     * an unchanged poll of those costs no read.
+     */
+    private boolean listNotModified(WebRequest request, Object result) {
+        return request.checkNotModified(listETagOf(objectMapper, result));
+    }
+
+    /**
+     * Weak, as it hashes {@code objectMapper}'s JSON of the result rather than the bytes the response is written
+     * with.
+     */
+    static String listETagOf(ObjectMapper objectMapper, Object result) {
+        try {
+            return "W/\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(result)) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not tag " + result, e);
+        }
+    }
+
+    /**
+     * The version an If-Match header requires, null when there is none or it matches any version. If-Match
+     * compares strongly, so weak tags never match, and neither does a tag that is not a version this API handed
+     * out. Of several tags, the one naming the stored version is required, so the write still fails if the game
+     * changes before it lands.
+     */
+    private Long versionOf(String id, String ifMatch) {
+        return versionOf(id, ifMatch, () -> service.read(id).map(Game::getVersion));
+    }
+
+    /**
+     * As {@link #versionOf(String, String)}, reading the stored version from {@code storedVersion} when there are
+     * several tags to choose from.
+     */
+    static Long versionOf(String id, String ifMatch, Supplier<Optional<Long>> storedVersion) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                continue;
+            }
+            if (tag.length() > 1 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                tag = tag.substring(1, tag.length() - 1);
+            }
+            try {
+                versions.add(Long.parseLong(tag));
+            } catch (NumberFormatException e) {
+                // not a version this API handed out, so it matches nothing
+            }
+        }
+        if (versions.size() == 1) {
+            return versions.get(0);
+        }
+        if (versions.size() > 1) {
+            Optional<Long> stored = storedVersion.get().filter(versions::contains);
+            if (stored.isPresent()) {
+                return stored.get();
+            }
+        }
+        throw new StaleVersionException(id, null);
+    }
 }
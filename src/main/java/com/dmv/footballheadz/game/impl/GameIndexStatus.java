@@ -0,0 +1,65 @@
+package com.dmv.footballheadz.game.impl;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndexDescription;
+import com.amazonaws.services.dynamodbv2.model.IndexStatus;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Which global secondary indexes of the game table can be queried. An index added to a table that already has
+ * games is backfilled before it can, and until then {@link GameRepository} and {@link AsyncGameRepository} scan
+ * instead; sharing this means both switch to the index at the same time.
+ */
+@Component
+public class GameIndexStatus {
+
+    private static final long CHECK_INTERVAL_MILLIS = 30_000;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private AmazonDynamoDB dynamoDB;
+
+    private final Set<String> activeIndexes = ConcurrentHashMap.newKeySet();
+
+    private volatile long checkedAt;
+
+    /**
+     * Whether {@code indexName} can be queried, asking DynamoDB at most every 30 seconds until it can. Once an
+     * index is active it stays so, and the answer costs no call.
+     */
+    public boolean isActive(String indexName) {
+        if (activeIndexes.contains(indexName)) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (now - checkedAt < CHECK_INTERVAL_MILLIS) {
+            return false;
+        }
+        checkedAt = now;
+        try {
+            TableDescription table = dynamoDB.describeTable(Game.TABLE_NAME).getTable();
+            if (table.getGlobalSecondaryIndexes() != null) {
+                for (GlobalSecondaryIndexDescription index : table.getGlobalSecondaryIndexes()) {
+                    if (IndexStatus.ACTIVE.toString().equals(index.getIndexStatus())) {
+                        activeIndexes.add(index.getIndexName());
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not describe table {}: {}", Game.TABLE_NAME, e.getMessage());
+        }
+        if (!activeIndexes.contains(indexName)) {
+            log.info("Index {} not active yet, scanning instead", indexName);
+            return false;
+        }
+        return true;
+    }
+}
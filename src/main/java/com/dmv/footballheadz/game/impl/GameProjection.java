@@ -0,0 +1,171 @@
+package com.dmv.footballheadz.game.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * State derived from every stored game and kept in memory. Built from one scan when {@link GameProjections} warms
+ * it, then moved by each write {@link GameService} applies, and rebuilt by {@link GameProjections} when asked to
+ * pick up writes made elsewhere. A read never scans: until the first build completes it throws
+ * {@link ProjectionNotWarmException}, or the caller checks {@link #isWarm()} first and falls back to an index.
+ *
+ * The projection keeps the game each id last contributed and moves the state from that game, not from the
+ * caller's {@code before}, so a write applied twice, or one already seen by the scan, changes nothing. A write
+ * older than the version held for its id is skipped, so two writes to one game applied in reverse order end in
+ * the later one. Writes applied while a rebuild scans are replayed onto the rebuilt state before it is swapped in.
+ */
+public abstract class GameProjection<S> {
+
+    private volatile S state;
+
+    /**
+     * Games the state holds, and the last version deleted of ids it no longer holds. Guarded by
+     * {@link #writeLock}, like {@link #pending}, which is null when no rebuild is running.
+     */
+    private Map<String, Game> held;
+    private Map<String, Long> deleted;
+    private List<Game[]> pending;
+
+    private final Lock writeLock = new ReentrantLock();
+
+    /**
+     * One build at a time. A lock rather than a monitor: builds scan the table, and a virtual thread blocked in
+     * a monitor would pin its carrier thread for as long as the scan takes.
+     */
+    private final Lock buildLock = new ReentrantLock();
+
+    /**
+     * State with no games in it.
+     */
+    protected abstract S empty();
+
+    /**
+     * Replaces {@code before}, the game {@code state} holds for an id, with {@code after}. Either may be null.
+     * Writes are moved one at a time, so only reads can run concurrently.
+     */
+    protected abstract void move(S state, Game before, Game after);
+
+    public boolean isWarm() {
+        return state != null;
+    }
+
+    /**
+     * The current state.
+     *
+     * @throws ProjectionNotWarmException until the first build completes
+     */
+    protected S state() {
+        S current = state;
+        if (current == null) {
+            throw new ProjectionNotWarmException(getClass().getSimpleName());
+        }
+        return current;
+    }
+
+    public void apply(Game before, Game after) {
+        Game stored = after == null ? null : after.copy();
+        writeLock.lock();
+        try {
+            S current = state;
+            if (current != null) {
+                applyTo(current, held, deleted, before, stored);
+            }
+            if (pending != null) {
+                pending.add(new Game[]{before, stored});
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Starts capturing writes for a rebuild from a scan about to be taken; {@link GameProjections} takes one
+     * scan for every projection. Must be followed by {@link #completeRebuild} or {@link #abortRebuild}.
+     */
+    void beginRebuild() {
+        buildLock.lock();
+        writeLock.lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    void completeRebuild(List<Game> games) {
+        boolean swapped = false;
+        try {
+            S built = empty();
+            Map<String, Game> builtHeld = new HashMap<>(games.size() * 2);
+            for (Game game : games) {
+                Game previous = builtHeld.put(game.getId(), game);
+                move(built, previous, game);
+            }
+            Map<String, Long> builtDeleted = new HashMap<>();
+            writeLock.lock();
+            try {
+                for (Game[] write : pending) {
+                    applyTo(built, builtHeld, builtDeleted, write[0], write[1]);
+                }
+                pending = null;
+                held = builtHeld;
+                deleted = builtDeleted;
+                state = built;
+                swapped = true;
+            } finally {
+                writeLock.unlock();
+            }
+        } finally {
+            if (!swapped) {
+                abortRebuild();
+            } else {
+                buildLock.unlock();
+            }
+        }
+    }
+
+    void abortRebuild() {
+        writeLock.lock();
+        try {
+            pending = null;
+        } finally {
+            writeLock.unlock();
+            buildLock.unlock();
+        }
+    }
+
+    private void applyTo(S target, Map<String, Game> targetHeld, Map<String, Long> targetDeleted,
+                         Game before, Game after) {
+        String id = after != null ? after.getId() : before != null ? before.getId() : null;
+        if (id == null) {
+            return;
+        }
+        Game current = targetHeld.get(id);
+        if (after == null) {
+            if (current != null) {
+                move(target, current, null);
+                targetHeld.remove(id);
+            }
+            if (before != null && before.getVersion() != null) {
+                targetDeleted.merge(id, before.getVersion(), Math::max);
+            }
+            return;
+        }
+        if (current != null && isOlder(after, current.getVersion())) {
+            return;
+        }
+        if (current == null && before != null && isOlder(after, targetDeleted.get(id))) {
+            return;
+        }
+        move(target, current, after);
+        targetHeld.put(id, after);
+    }
+
+    private static boolean isOlder(Game game, Long version) {
+        return version != null && game.getVersion() != null && game.getVersion() <= version;
+    }
+}
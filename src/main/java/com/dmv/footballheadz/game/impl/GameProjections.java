@@ -0,0 +1,106 @@
+package com.dmv.footballheadz.game.impl;
+
+import com.dmv.footballheadz.game.IRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds every {@link GameProjection} from one shared scan in the background once the application is ready, and
+ * so after the table exists, retrying every few seconds until it succeeds. Each is a full scan, so periodic
+ * rebuilds, to pick up writes that bypassed {@link GameService} or went to another instance, are opt in: every
+ * game.projections.refresh-seconds when that is above zero, and never by default.
+ */
+@Component
+public class GameProjections implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final long WARM_UP_RETRY_SECONDS = 5;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private IRepository<Game> repository;
+
+    @Autowired
+    private List<GameProjection<?>> projections;
+
+    @Value("${game.projections.refresh-seconds:0}")
+    private long refreshSeconds;
+
+    private ScheduledExecutorService refreshExecutor;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        refreshExecutor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("game-projections-"));
+        refreshExecutor.execute(this::warmUp);
+        if (refreshSeconds > 0) {
+            refreshExecutor.scheduleWithFixedDelay(this::refresh, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+
+    public boolean isWarm() {
+        for (GameProjection<?> projection : projections) {
+            if (!projection.isWarm()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rebuilds every projection from one scan, e.g. right after writes that bypassed {@link GameService}.
+     * Failures are logged and leave the current state, warm or not, in place until the next refresh.
+     */
+    public void refresh() {
+        log.trace("Entering refresh()");
+        boolean wasWarm = isWarm();
+        for (GameProjection<?> projection : projections) {
+            projection.beginRebuild();
+        }
+        List<Game> games;
+        try {
+            games = repository.readAll();
+        } catch (RuntimeException e) {
+            log.warn("Game projections refresh failed", e);
+            for (GameProjection<?> projection : projections) {
+                projection.abortRebuild();
+            }
+            return;
+        }
+        for (GameProjection<?> projection : projections) {
+            try {
+                projection.completeRebuild(games);
+            } catch (RuntimeException e) {
+                log.warn("{} refresh failed", projection.getClass().getSimpleName(), e);
+            }
+        }
+        if (!wasWarm && isWarm()) {
+            log.info("Game projections warm with {} games", games.size());
+        }
+    }
+
+    private void warmUp() {
+        refresh();
+        if (!isWarm() && !refreshExecutor.isShutdown()) {
+            refreshExecutor.schedule(this::warmUp, WARM_UP_RETRY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+}
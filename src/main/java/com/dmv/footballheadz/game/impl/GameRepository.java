@@ -1,38 +1,189 @@
 package com.dmv.footballheadz.game.impl;
 
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperFieldModel;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedList;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemResult;
+import com.amazonaws.services.dynamodbv2.model.DeleteRequest;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
 import com.dmv.footballheadz.game.IRepository;
+import com.dmv.footballheadz.game.Page;
+import com.dmv.footballheadz.game.StaleVersionException;
+import com.dmv.footballheadz.util.DynamoDbUsage;
+import com.dmv.footballheadz.util.ExpiringCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.amazonaws.util.StringUtils.isNullOrEmpty;
 
 @Repository
+@Profile("!in-memory")
 public class GameRepository implements IRepository<Game> {
 
+    private static final Map<String, String> INDEX_HASH_KEYS = new HashMap<>();
+
+    static {
+        INDEX_HASH_KEYS.put(Game.HOME_TEAM_INDEX, "HomeTeam");
+        INDEX_HASH_KEYS.put(Game.AWAY_TEAM_INDEX, "AwayTeam");
+    }
+
+    private static final Set<String> NOT_WRITTEN = new HashSet<>(Arrays.asList("Id", "Version"));
+    private static final Set<String> DERIVED = new HashSet<>(Arrays.asList("Matchup", "SeasonWeek"));
+    private static final DynamoDBMapperConfig CONSISTENT_READ =
+            new DynamoDBMapperConfig(DynamoDBMapperConfig.ConsistentReads.CONSISTENT);
+
+    private static final int BATCH_WRITE_SIZE = 25;
+    private static final int BATCH_GET_SIZE = 100;
+    private static final long BATCH_BACKOFF_MILLIS = 20;
+    private static final int MAX_PATCH_ATTEMPTS = 3;
+
+    private static final Comparator<Game> SEASON_WEEK_ORDER =
+            Comparator.comparing(Game::getSeasonWeek, Comparator.nullsFirst(Comparator.naturalOrder()));
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     @Autowired
     private DynamoDBMapper dbMapper;
 
-    @Override
+    @Autowired
+    private AmazonDynamoDB dynamoDB;
+
+    /**
+     * Point reads are served from here first. Entries are copies so callers mutating a returned game never
+     * change what is cached.
+     */
+    @Autowired
+    private ExpiringCache<String, Game> cache;
+
+    @Autowired
+    private ExecutorService scanExecutor;
+
+    @Autowired
+    private GameIndexStatus indexStatus;
+
+    @Value("${game.scan.segments:1}")
+    private int scanSegments;
+
+    @Value("${game.batch.max-retries:8}")
+    private int batchMaxRetries;
+
+    /**
+     * A scan filtered by a DynamoDB expression. Not part of {@link IRepository}, which has no filter language of
+     * its own to offer other stores.
+     */
     public List<Game> readExpression(DynamoDBScanExpression dynamoDBScanExpression) {
         log.trace("Entering readQuery()");
-        PaginatedList<Game> results = dbMapper.scan(Game.class, dynamoDBScanExpression);
-        results.loadAllResults();
-        return results;
+        return scan(dynamoDBScanExpression);
     }
 
     @Override
     public List<Game> readAll() {
         log.trace("Entering readAll()");
-        PaginatedList<Game> results = dbMapper.scan(Game.class, new DynamoDBScanExpression());
+        return scan(new DynamoDBScanExpression());
+    }
+
+    @Override
+    public Page<Game> readPage(int limit, String cursor) {
+        log.trace("Entering readPage() with {}, {}", limit, cursor);
+        DynamoDBScanExpression dynamoDBScanExpression = new DynamoDBScanExpression()
+                .withLimit(limit)
+                .withExclusiveStartKey(decodeCursor(cursor));
+        ScanResultPage<Game> page = dbMapper.scanPage(Game.class, dynamoDBScanExpression);
+        return new Page<>(page.getResults(), encodeCursor(page.getLastEvaluatedKey()));
+    }
+
+    /**
+     * Lazily scans the table a page at a time without keeping earlier pages, so it can be iterated only once.
+     */
+    @Override
+    public Iterable<Game> iterateAll() {
+        log.trace("Entering iterateAll()");
+        return dbMapper.scan(Game.class, new DynamoDBScanExpression(),
+                new DynamoDBMapperConfig(DynamoDBMapperConfig.PaginationLoadingStrategy.ITERATION_ONLY));
+    }
+
+    @Override
+    public List<Game> readIndex(String indexName, String key) {
+        log.trace("Entering readIndex() with {}, {}", indexName, key);
+        String attributeName = INDEX_HASH_KEYS.get(indexName);
+        if (attributeName == null) {
+            throw new IllegalArgumentException("Unknown index " + indexName);
+        }
+        if (!indexStatus.isActive(indexName)) {
+            Map<String, AttributeValue> eav = Collections.singletonMap(":val", new AttributeValue().withS(key));
+            return scan(new DynamoDBScanExpression()
+                    .withFilterExpression(attributeName + " = :val")
+                    .withExpressionAttributeValues(eav));
+        }
+        return query(indexName, attributeName, key);
+    }
+
+    /**
+     * Scans for the two teams while the matchup index is backfilling, matching on the teams rather than the
+     * Matchup attribute, which games stored before the index existed may not have yet.
+     */
+    @Override
+    public List<Game> readMatchup(String team1, String team2) {
+        log.trace("Entering readMatchup() with {}, {}", team1, team2);
+        if (indexStatus.isActive(Game.MATCHUP_INDEX)) {
+            return query(Game.MATCHUP_INDEX, "Matchup", Game.matchupKey(team1, team2));
+        }
+        Map<String, AttributeValue> eav = new HashMap<>();
+        eav.put(":team1", new AttributeValue().withS(team1));
+        eav.put(":team2", new AttributeValue().withS(team2));
+        List<Game> sorted = new ArrayList<>(scan(new DynamoDBScanExpression()
+                .withFilterExpression("(HomeTeam = :team1 and AwayTeam = :team2) or (HomeTeam = :team2 and AwayTeam = :team1)")
+                .withExpressionAttributeValues(eav)));
+        sorted.sort(SEASON_WEEK_ORDER);
+        return sorted;
+    }
+
+    private List<Game> query(String indexName, String attributeName, String key) {
+        Map<String, AttributeValue> eav = Collections.singletonMap(":val", new AttributeValue().withS(key));
+
+        DynamoDBQueryExpression<Game> queryExpression = new DynamoDBQueryExpression<Game>()
+                .withIndexName(indexName)
+                .withConsistentRead(false)
+                .withKeyConditionExpression(attributeName + " = :val")
+                .withExpressionAttributeValues(eav);
+
+        PaginatedList<Game> results = dbMapper.query(Game.class, queryExpression);
         results.loadAllResults();
         return results;
     }
@@ -40,18 +191,408 @@ public class GameRepository implements IRepository<Game> {
     @Override
     public Optional<Game> read(String key) {
         log.trace("Entering read() with {}", key);
-        return Optional.ofNullable(dbMapper.load(Game.class, key));
+        Optional<Game> cached = cache.get(key);
+        if (cached.isPresent()) {
+            return Optional.of(cached.get().copy());
+        }
+        long mark = cache.mark();
+        Game game = dbMapper.load(Game.class, key);
+        if (game != null) {
+            cache.putIfUnchanged(key, game.copy(), mark);
+        }
+        return Optional.ofNullable(game);
     }
 
+    /**
+     * Serves what it can from the cache and loads the rest with BatchGetItem calls of 100; the mapper retries
+     * unprocessed keys with backoff. Games come back in the order of {@code keys}, missing ones left out.
+     */
+    @Override
+    public List<Game> readMany(List<String> keys) {
+        log.trace("Entering readMany() with {} keys", keys.size());
+        Map<String, Game> found = new HashMap<>();
+        List<Game> toLoad = new ArrayList<>();
+        for (String key : new LinkedHashSet<>(keys)) {
+            Optional<Game> cached = cache.get(key);
+            if (cached.isPresent()) {
+                found.put(key, cached.get().copy());
+            } else {
+                toLoad.add(new Game().withId(key));
+            }
+        }
+        batchLoad(toLoad, found, false);
+        return inOrderOf(keys, found);
+    }
+
+    /**
+     * Loads every key with consistent BatchGetItem calls of 100, whatever the cache holds.
+     */
+    @Override
+    public List<Game> readManyConsistent(List<String> keys) {
+        log.trace("Entering readManyConsistent() with {} keys", keys.size());
+        List<Game> toLoad = new ArrayList<>();
+        for (String key : new LinkedHashSet<>(keys)) {
+            toLoad.add(new Game().withId(key));
+        }
+        Map<String, Game> found = new HashMap<>();
+        batchLoad(toLoad, found, true);
+        return inOrderOf(keys, found);
+    }
+
+    private void batchLoad(List<Game> toLoad, Map<String, Game> found, boolean consistent) {
+        long mark = cache.mark();
+        for (int from = 0; from < toLoad.size(); from += BATCH_GET_SIZE) {
+            List<Game> chunk = toLoad.subList(from, Math.min(from + BATCH_GET_SIZE, toLoad.size()));
+            Map<String, List<Object>> batch = consistent
+                    ? dbMapper.batchLoad(chunk, CONSISTENT_READ) : dbMapper.batchLoad(chunk);
+            for (List<Object> loaded : batch.values()) {
+                for (Object item : loaded) {
+                    Game game = (Game) item;
+                    found.put(game.getId(), game);
+                    cache.putIfUnchanged(game.getId(), game.copy(), mark);
+                }
+            }
+        }
+    }
+
+    private static List<Game> inOrderOf(List<String> keys, Map<String, Game> found) {
+        List<Game> results = new ArrayList<>(found.size());
+        for (String key : new LinkedHashSet<>(keys)) {
+            if (found.containsKey(key)) {
+                results.add(found.get(key));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Saves through the mapper, which increments the version and expects the stored one to match, so saving a
+     * new game whose id is already taken fails with a {@link StaleVersionException}.
+     */
     @Override
     public void save(Game game) {
         log.trace("Entering save() with {}", game);
-        dbMapper.save(game);
+        try {
+            dbMapper.save(game);
+        } catch (ConditionalCheckFailedException e) {
+            cache.invalidate(game.getId());
+            throw new StaleVersionException(game.getId(), e);
+        } catch (RuntimeException e) {
+            cache.invalidate(game.getId());
+            throw e;
+        }
+        cache.put(game.getId(), game.copy());
+    }
+
+    @Override
+    public Optional<Game> replace(Game game) {
+        log.trace("Entering replace() with {}", game);
+        return conditionalUpdate(game, true);
+    }
+
+    @Override
+    public Optional<Game> update(Game patch) {
+        log.trace("Entering update() with {}", patch);
+        if (movesMatchup(patch) && !namesMatchupSources(patch)) {
+            return patchAndReplace(patch);
+        }
+        return conditionalUpdate(patch, false);
+    }
+
+    @Override
+    public Optional<Game> delete(String key, Long version) {
+        log.trace("Entering delete() with {}, {}", key, version);
+        DeleteItemRequest request = new DeleteItemRequest()
+                .withTableName(Game.TABLE_NAME)
+                .withKey(keyOf(key))
+                .withConditionExpression("attribute_exists(Id)")
+                .withReturnValues(ReturnValue.ALL_OLD);
+        if (version != null) {
+            request.withConditionExpression("attribute_exists(Id) and #Version = :expected")
+                    .withExpressionAttributeNames(Collections.singletonMap("#Version", "Version"))
+                    .withExpressionAttributeValues(Collections.singletonMap(":expected",
+                            new AttributeValue().withN(version.toString())));
+        }
+        try {
+            DeleteItemResult result = dynamoDB.deleteItem(request);
+            return Optional.of(dbMapper.getTableModel(Game.class).unconvert(result.getAttributes()));
+        } catch (ConditionalCheckFailedException e) {
+            if (version != null && dbMapper.load(Game.class, key, CONSISTENT_READ) != null) {
+                throw new StaleVersionException(key, e);
+            }
+            log.debug("Game {} not found", key);
+            return Optional.empty();
+        } finally {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * One conditional UpdateItem: a replace sets every attribute {@code game} has and removes the rest, an update
+     * sets only the attributes it has values for, and the matchup keys when it names every attribute they derive
+     * from. Both increment the version and, when {@code game} carries a version, require it to match the stored
+     * one. On success {@code game} is given the new version.
+     */
+    private Optional<Game> conditionalUpdate(Game game, boolean replace) {
+        DynamoDBMapperTableModel<Game> model = dbMapper.getTableModel(Game.class);
+        Map<String, AttributeValue> item = model.convert(game);
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        List<String> set = new ArrayList<>();
+        List<String> remove = new ArrayList<>();
+        for (DynamoDBMapperFieldModel<Game, Object> field : model.fields()) {
+            String attributeName = field.name();
+            AttributeValue value = item.get(attributeName);
+            boolean hasValue = value != null && !"".equals(value.getS());
+            if (NOT_WRITTEN.contains(attributeName) || (!replace && (!hasValue
+                    || (DERIVED.contains(attributeName) && !namesMatchupSources(game))))) {
+                continue;
+            }
+            names.put("#" + attributeName, attributeName);
+            if (hasValue) {
+                values.put(":" + attributeName, value);
+                set.add("#" + attributeName + " = :" + attributeName);
+            } else {
+                remove.add("#" + attributeName);
+            }
+        }
+        names.put("#Version", "Version");
+        values.put(":one", new AttributeValue().withN("1"));
+        String condition = "attribute_exists(Id)";
+        if (game.getVersion() != null) {
+            values.put(":expected", new AttributeValue().withN(game.getVersion().toString()));
+            condition += " and #Version = :expected";
+        }
+        UpdateItemRequest request = new UpdateItemRequest()
+                .withTableName(Game.TABLE_NAME)
+                .withKey(keyOf(game.getId()))
+                .withUpdateExpression(updateExpression(set, remove, "#Version :one"))
+                .withConditionExpression(condition)
+                .withExpressionAttributeNames(names)
+                .withExpressionAttributeValues(values)
+                .withReturnValues(ReturnValue.ALL_OLD);
+        try {
+            Map<String, AttributeValue> previousItem = dynamoDB.updateItem(request).getAttributes();
+            Game previous = model.unconvert(previousItem);
+            Game updated = replace ? game.copy() : previous.patchedWith(game);
+            updated.setVersion(Game.nextVersion(previous.getVersion()));
+            game.setVersion(updated.getVersion());
+            cache.put(updated.getId(), updated.copy());
+            return Optional.of(previous);
+        } catch (ConditionalCheckFailedException e) {
+            cache.invalidate(game.getId());
+            if (game.getVersion() != null && dbMapper.load(Game.class, game.getId(), CONSISTENT_READ) != null) {
+                throw new StaleVersionException(game.getId(), e);
+            }
+            log.debug("Game {} not found", game.getId());
+            return Optional.empty();
+        } catch (RuntimeException e) {
+            cache.invalidate(game.getId());
+            throw e;
+        }
+    }
+
+    private static String updateExpression(List<String> set, List<String> remove, String add) {
+        List<String> clauses = new ArrayList<>();
+        if (!set.isEmpty()) {
+            clauses.add("SET " + String.join(", ", set));
+        }
+        if (!remove.isEmpty()) {
+            clauses.add("REMOVE " + String.join(", ", remove));
+        }
+        if (add != null) {
+            clauses.add("ADD " + add);
+        }
+        return String.join(" ", clauses);
+    }
+
+    /**
+     * Matchup and SeasonWeek cannot be computed within an update expression, so a patch moving a game without
+     * naming both teams, the year and the week is applied to the stored game, read consistently, and written as
+     * one replace conditional on the version read. A concurrent write in between fails that condition; the
+     * patch is then reapplied to the newer game, unless the client asked for a version, which is now stale.
+     */
+    private Optional<Game> patchAndReplace(Game patch) {
+        for (int attempt = 1; ; attempt++) {
+            Game stored = dbMapper.load(Game.class, patch.getId(), CONSISTENT_READ);
+            if (stored == null) {
+                log.debug("Game {} not found", patch.getId());
+                return Optional.empty();
+            }
+            if (patch.getVersion() != null && !patch.getVersion().equals(stored.getVersion())) {
+                cache.invalidate(patch.getId());
+                throw new StaleVersionException(patch.getId(), null);
+            }
+            Game patched = stored.patchedWith(patch);
+            try {
+                Optional<Game> previous = conditionalUpdate(patched, true);
+                patch.setVersion(patched.getVersion());
+                return previous;
+            } catch (StaleVersionException e) {
+                if (patch.getVersion() != null || attempt == MAX_PATCH_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Game {} changed while patching it, attempt {}", patch.getId(), attempt);
+            }
+        }
+    }
+
+    private static boolean movesMatchup(Game patch) {
+        return !isNullOrEmpty(patch.getHomeTeam()) || !isNullOrEmpty(patch.getAwayTeam())
+                || !isNullOrEmpty(patch.getYear()) || !isNullOrEmpty(patch.getWeek());
+    }
+
+    private static boolean namesMatchupSources(Game patch) {
+        return !isNullOrEmpty(patch.getHomeTeam()) && !isNullOrEmpty(patch.getAwayTeam())
+                && !isNullOrEmpty(patch.getYear()) && !isNullOrEmpty(patch.getWeek());
     }
 
+    private static Map<String, AttributeValue> keyOf(String id) {
+        return Collections.singletonMap("Id", new AttributeValue().withS(id));
+    }
+
+    /**
+     * Sends the writes as BatchWriteItem calls of 25, retrying unprocessed items with full jitter exponential
+     * backoff up to game.batch.max-retries times; whatever is still unprocessed after that is returned.
+     * Items are written as given, version included: batch writes cannot be conditional, so the caller sets the
+     * version each game should be stored with.
+     */
     @Override
-    public void delete(String key) {
-        dbMapper.delete(new Game().withId(key), new DynamoDBMapperConfig(DynamoDBMapperConfig.SaveBehavior.CLOBBER));
+    public Set<String> writeMany(List<Game> toSave, List<String> keysToDelete) {
+        log.trace("Entering writeMany() with {} saves and {} deletes", toSave.size(), keysToDelete.size());
+        DynamoDBMapperTableModel<Game> model = dbMapper.getTableModel(Game.class);
+        List<WriteRequest> writeRequests = new ArrayList<>(toSave.size() + keysToDelete.size());
+        for (Game game : toSave) {
+            writeRequests.add(new WriteRequest().withPutRequest(new PutRequest().withItem(model.convert(game))));
+        }
+        for (String key : keysToDelete) {
+            writeRequests.add(new WriteRequest().withDeleteRequest(new DeleteRequest().withKey(keyOf(key))));
+        }
+        Set<String> failed = new HashSet<>();
+        for (int from = 0; from < writeRequests.size(); from += BATCH_WRITE_SIZE) {
+            List<WriteRequest> chunk = writeRequests.subList(from, Math.min(from + BATCH_WRITE_SIZE, writeRequests.size()));
+            for (WriteRequest writeRequest : writeChunk(chunk)) {
+                failed.add(writeRequest.getPutRequest() != null
+                        ? writeRequest.getPutRequest().getItem().get("Id").getS()
+                        : writeRequest.getDeleteRequest().getKey().get("Id").getS());
+            }
+        }
+        for (Game game : toSave) {
+            if (failed.contains(game.getId())) {
+                cache.invalidate(game.getId());
+            } else {
+                cache.put(game.getId(), game.copy());
+            }
+        }
+        keysToDelete.forEach(cache::invalidate);
+        return failed;
+    }
+
+    /**
+     * Returns the requests of {@code chunk} that were still unprocessed after the last retry, or all of them if
+     * a call failed outright.
+     */
+    private List<WriteRequest> writeChunk(List<WriteRequest> chunk) {
+        List<WriteRequest> unprocessed = chunk;
+        try {
+            for (int attempt = 0; ; attempt++) {
+                BatchWriteItemResult result = dynamoDB.batchWriteItem(new BatchWriteItemRequest()
+                        .withRequestItems(Collections.singletonMap(Game.TABLE_NAME, unprocessed)));
+                unprocessed = result.getUnprocessedItems() == null
+                        ? Collections.emptyList()
+                        : result.getUnprocessedItems().getOrDefault(Game.TABLE_NAME, Collections.emptyList());
+                if (unprocessed.isEmpty() || attempt >= batchMaxRetries) {
+                    return unprocessed;
+                }
+                Thread.sleep(ThreadLocalRandom.current().nextLong(BATCH_BACKOFF_MILLIS << Math.min(attempt, 10)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted during batch write");
+            return unprocessed;
+        } catch (RuntimeException e) {
+            log.warn("Batch write failed", e);
+            return unprocessed;
+        }
+    }
+
+    /**
+     * Full scans are split into game.scan.segments segments read concurrently on the scan executor, so a cold
+     * read of the whole table is bounded by provisioned throughput rather than by one connection's latency.
+     */
+    private List<Game> scan(DynamoDBScanExpression dynamoDBScanExpression) {
+        if (scanSegments <= 1) {
+            PaginatedList<Game> results = dbMapper.scan(Game.class, dynamoDBScanExpression);
+            results.loadAllResults();
+            return results;
+        }
+        List<Future<List<Game>>> segments = new ArrayList<>(scanSegments);
+        for (int segment = 0; segment < scanSegments; segment++) {
+            DynamoDBScanExpression segmentExpression = segmentOf(dynamoDBScanExpression, segment, scanSegments);
+            segments.add(scanExecutor.submit(DynamoDbUsage.propagate(() -> scanSegment(segmentExpression))));
+        }
+        List<Game> results = new ArrayList<>();
+        try {
+            for (Future<List<Game>> segment : segments) {
+                results.addAll(segment.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while scanning", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            for (Future<List<Game>> segment : segments) {
+                segment.cancel(true);
+            }
+        }
+        return results;
+    }
+
+    private List<Game> scanSegment(DynamoDBScanExpression dynamoDBScanExpression) {
+        List<Game> results = new ArrayList<>();
+        ScanResultPage<Game> page;
+        do {
+            page = dbMapper.scanPage(Game.class, dynamoDBScanExpression);
+            results.addAll(page.getResults());
+            dynamoDBScanExpression.setExclusiveStartKey(page.getLastEvaluatedKey());
+        } while (page.getLastEvaluatedKey() != null && !Thread.currentThread().isInterrupted());
+        return results;
+    }
+
+    private static DynamoDBScanExpression segmentOf(DynamoDBScanExpression expression, int segment, int totalSegments) {
+        return new DynamoDBScanExpression()
+                .withIndexName(expression.getIndexName())
+                .withFilterExpression(expression.getFilterExpression())
+                .withExpressionAttributeNames(expression.getExpressionAttributeNames())
+                .withExpressionAttributeValues(expression.getExpressionAttributeValues())
+                .withScanFilter(expression.getScanFilter())
+                .withConditionalOperator(expression.getConditionalOperator())
+                .withProjectionExpression(expression.getProjectionExpression())
+                .withLimit(expression.getLimit())
+                .withSegment(segment)
+                .withTotalSegments(totalSegments);
+    }
+
+    /**
+     * The table's only key attribute is Id, so a cursor is just the last evaluated Id, URL safe encoded.
+     */
+    private static String encodeCursor(Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null || !lastEvaluatedKey.containsKey("Id")) {
+            return null;
+        }
+        byte[] id = lastEvaluatedKey.get("Id").getS().getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id);
+    }
 
+    private static Map<String, AttributeValue> decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        String id = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        return Collections.singletonMap("Id", new AttributeValue().withS(id));
     }
 }
@@ -1,17 +1,24 @@
 package com.dmv.footballheadz.game.impl;
 
-import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
-import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.dmv.footballheadz.game.BatchOperation;
+import com.dmv.footballheadz.game.BatchResult;
+import com.dmv.footballheadz.game.IRepository;
 import com.dmv.footballheadz.game.IService;
+import com.dmv.footballheadz.game.Page;
+import com.dmv.footballheadz.game.StaleVersionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 import static com.amazonaws.util.StringUtils.isNullOrEmpty;
 
@@ -21,7 +28,22 @@ public class GameService implements IService<Game> {
     private final Logger log = LoggerFactory.getLogger(getClass());
     
     @Autowired
-    private GameRepository repository;
+    private IRepository<Game> repository;
+
+    @Autowired
+    private GameTable gameTable;
+
+    @Autowired
+    private HeadToHeadMatrix headToHeadMatrix;
+
+    @Autowired
+    private Standings standings;
+
+    @Autowired
+    private EloRatings eloRatings;
+
+    @Autowired
+    private TeamIndex teamIndex;
 
     @Override
     public Optional<Game> read(String id) {
@@ -29,72 +51,192 @@ public class GameService implements IService<Game> {
         return repository.read(id);
     }
 
+    @Override
+    public List<Game> readMany(List<String> ids) {
+        log.trace("Entering readMany() with {} ids", ids.size());
+        return repository.readMany(ids);
+    }
+
+    /**
+     * Saves {@code game} as a new item; empty when its id is already taken.
+     */
     @Override
     public Optional<Game> create(Game game) {
         log.trace("Entering create() with {}", game);
-        repository.save(game);
+        game.setVersion(null);
+        try {
+            repository.save(game);
+        } catch (StaleVersionException e) {
+            log.warn("Game {} already exists", game.getId());
+            return Optional.empty();
+        }
+        applied(null, game);
         return Optional.of(game);
     }
 
     @Override
     public Optional<Game> replace(Game newData) {
         log.trace("Entering replace() with {}", newData);
-        Optional<Game> existingGame = repository.read(newData.getId());
-        if (!existingGame.isPresent()) {
+        Optional<Game> previous = repository.replace(newData);
+        if (!previous.isPresent()) {
             log.warn("Game {} not found", newData.getId());
             return Optional.empty();
         }
-        Game game = existingGame.get();
-        game.setYear(newData.getYear());
-        game.setWeek(newData.getWeek());
-        game.setHomeTeam(newData.getHomeTeam());
-        game.setAwayTeam(newData.getAwayTeam());
-        game.setHomeTeamPts(newData.getHomeTeamPts());
-        game.setAwayTeamPts(newData.getAwayTeamPts());
-        repository.save(game);
-        return Optional.of(game);
+        applied(previous.get(), newData);
+        return Optional.of(newData);
     }
 
     @Override
     public Optional<Game> update(Game newData) {
         log.trace("Entering update() with {}", newData);
-        Optional<Game> existingCustomer = repository.read(newData.getId());
-        if (!existingCustomer.isPresent()) {
-            log.warn("Customer {} not found", newData.getId());
+        Optional<Game> previous = repository.update(newData);
+        if (!previous.isPresent()) {
+            log.warn("Game {} not found", newData.getId());
             return Optional.empty();
         }
-        Game game = existingCustomer.get();
-        if (!isNullOrEmpty(newData.getYear())){
-            game.setYear(newData.getYear());
+        Game game = previous.get().patchedWith(newData).withVersion(newData.getVersion());
+        applied(previous.get(), game);
+        return Optional.of(game);
+    }
+
+    @Override
+    public boolean delete(String key, Long version) {
+        log.trace("Entering delete() with {}, {}", key, version);
+        Optional<Game> previous = repository.delete(key, version);
+        if (!previous.isPresent()) {
+            log.warn("Game {} not found", key);
+            return false;
+        }
+        applied(previous.get(), null);
+        return true;
+    }
+
+    /**
+     * Applies every operation with as few writes as possible. Games the client names by id are read first, with
+     * consistent reads, so deletes of missing games are reported instead of sent. Batch writes cannot be
+     * conditional, so only new games and deletes are batched; a put of an existing game is a conditional replace
+     * of the version read, or of the one the client sent, and fails if another write got there first.
+     */
+    @Override
+    public List<BatchResult> batch(List<BatchOperation<Game>> operations) {
+        log.trace("Entering batch() with {} operations", operations.size());
+        BatchResult[] results = new BatchResult[operations.size()];
+        String[] ids = new String[operations.size()];
+        Map<String, Optional<Game>> previous = new HashMap<>();
+        List<String> existingIds = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperation<Game> operation = operations.get(i);
+            String error = validate(operation);
+            if (error != null) {
+                results[i] = new BatchResult(i, null, BatchResult.Status.INVALID, error);
+                continue;
+            }
+            boolean generated = false;
+            if (operation.getAction() == BatchOperation.Action.PUT && isNullOrEmpty(operation.getItem().getId())) {
+                operation.getItem().setId(UUID.randomUUID().toString());
+                generated = true;
+            }
+            String id = operation.getAction() == BatchOperation.Action.PUT
+                    ? operation.getItem().getId() : operation.getId();
+            if (previous.containsKey(id)) {
+                results[i] = new BatchResult(i, id, BatchResult.Status.INVALID, "Duplicate id in batch");
+                continue;
+            }
+            previous.put(id, Optional.empty());
+            if (!generated) {
+                existingIds.add(id);
+            }
+            ids[i] = id;
+        }
+        if (!existingIds.isEmpty()) {
+            for (Game game : repository.readManyConsistent(existingIds)) {
+                previous.put(game.getId(), Optional.of(game));
+            }
         }
-        if (!isNullOrEmpty(newData.getWeek())){
-            game.setWeek(newData.getWeek());
+
+        List<Game> toSave = new ArrayList<>();
+        List<String> toDelete = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            if (operations.get(i).getAction() == BatchOperation.Action.PUT) {
+                if (previous.get(ids[i]).isPresent()) {
+                    results[i] = replace(i, operations.get(i).getItem(), previous.get(ids[i]).get());
+                } else {
+                    toSave.add(operations.get(i).getItem().withVersion(Game.nextVersion(null)));
+                }
+            } else if (previous.get(ids[i]).isPresent()) {
+                toDelete.add(ids[i]);
+            } else {
+                results[i] = new BatchResult(i, ids[i], BatchResult.Status.NOT_FOUND, null);
+            }
         }
-        if (!isNullOrEmpty(newData.getHomeTeam())){
-            game.setHomeTeam(newData.getHomeTeam());
+
+        Set<String> failed = repository.writeMany(toSave, toDelete);
+        for (int i = 0; i < operations.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Game before = previous.get(ids[i]).orElse(null);
+            if (failed.contains(ids[i])) {
+                results[i] = new BatchResult(i, ids[i], BatchResult.Status.FAILED, "Unprocessed after retries");
+            } else if (operations.get(i).getAction() == BatchOperation.Action.DELETE) {
+                applied(before, null);
+                results[i] = new BatchResult(i, ids[i], BatchResult.Status.DELETED, null);
+            } else {
+                applied(null, operations.get(i).getItem());
+                results[i] = new BatchResult(i, ids[i], BatchResult.Status.CREATED, null);
+            }
         }
-        if (!isNullOrEmpty(newData.getAwayTeam())){
-            game.setAwayTeam(newData.getAwayTeam());
+        return Arrays.asList(results);
+    }
+
+    private BatchResult replace(int index, Game game, Game stored) {
+        if (game.getVersion() == null) {
+            game.setVersion(stored.getVersion());
         }
-        if (null != newData.getHomeTeamPts()){
-            game.setHomeTeamPts(newData.getHomeTeamPts());
+        Optional<Game> replaced;
+        try {
+            replaced = repository.replace(game);
+        } catch (StaleVersionException e) {
+            log.warn("Game {} changed since it was read", game.getId());
+            return new BatchResult(index, game.getId(), BatchResult.Status.FAILED, "Version conflict");
         }
-        if (null != newData.getAwayTeamPts()){
-            game.setAwayTeamPts(newData.getAwayTeamPts());
+        if (!replaced.isPresent()) {
+            return new BatchResult(index, game.getId(), BatchResult.Status.NOT_FOUND, null);
         }
-        repository.save(game);
-        return Optional.of(game);
+        applied(replaced.get(), game);
+        return new BatchResult(index, game.getId(), BatchResult.Status.REPLACED, null);
     }
 
-    @Override
-    public boolean delete(String key) {
-        log.trace("Entering delete() with {}", key);
-        if (!repository.read(key).isPresent()) {
-            log.warn("Customer {} not found", key);
-            return false;
+    /**
+     * Every successful write goes through here after it is stored, including those made by {@link AsyncGameService}.
+     */
+    void applied(Game before, Game after) {
+        gameTable.apply(before, after);
+        eloRatings.apply(before, after);
+    }
+
+    private static String validate(BatchOperation<Game> operation) {
+        if (operation == null || operation.getAction() == null) {
+            return "Missing action";
         }
-        repository.delete(key);
-        return true;
+        if (operation.getAction() == BatchOperation.Action.PUT && operation.getItem() == null) {
+            return "Missing item";
+        }
+        if (operation.getAction() == BatchOperation.Action.PUT
+                && (!isTeamName(operation.getItem().getHomeTeam()) || !isTeamName(operation.getItem().getAwayTeam()))) {
+            return "Invalid team name";
+        }
+        if (operation.getAction() == BatchOperation.Action.DELETE && isNullOrEmpty(operation.getId())) {
+            return "Missing id";
+        }
+        return null;
+    }
+
+    private static boolean isTeamName(String team) {
+        return team == null || team.matches(Game.TEAM_NAME_PATTERN);
     }
 
     @Override
@@ -104,29 +246,66 @@ public class GameService implements IService<Game> {
     }
 
     @Override
-    public List<Game> listOfGamesByTeam(String key) {
-        log.trace("Entering listExpression()");
-        Map<String, AttributeValue> eav = new HashMap<>();
-        eav.put(":val", new AttributeValue().withS(key));
+    public Page<Game> listPage(int limit, String cursor) {
+        log.trace("Entering listPage() with {}, {}", limit, cursor);
+        return repository.readPage(limit, cursor);
+    }
 
-        DynamoDBScanExpression dynamoDBScanExpression = new DynamoDBScanExpression()
-                .withFilterExpression("HomeTeam = :val or AwayTeam = :val")
-                .withExpressionAttributeValues(eav);
+    @Override
+    public Iterable<Game> iterateAll() {
+        log.trace("Entering iterateAll()");
+        return repository.iterateAll();
+    }
 
-        return repository.readExpression(dynamoDBScanExpression);
+    /**
+     * From the {@link TeamIndex} once it is warm, in schedule order; until then from the team indexes.
+     */
+    @Override
+    public List<Game> listOfGamesByTeam(String key) {
+        log.trace("Entering listOfGamesByTeam() with {}", key);
+        Optional<List<Game>> indexed = teamIndex.games(key);
+        if (indexed.isPresent()) {
+            return indexed.get();
+        }
+        List<Game> games = new ArrayList<>(repository.readIndex(Game.HOME_TEAM_INDEX, key));
+        for (Game game : repository.readIndex(Game.AWAY_TEAM_INDEX, key)) {
+            if (!key.equals(game.getHomeTeam())) {
+                games.add(game);
+            }
+        }
+        return games;
     }
 
     @Override
     public List<Game> listOfGamesByTeams(String key1, String key2) {
-        log.trace("Entering listOfGamesByTeams()");
-        Map<String, AttributeValue> eav = new HashMap<>();
-        eav.put(":val", new AttributeValue().withS(key1));
-        eav.put(":val2", new AttributeValue().withS(key2));
+        log.trace("Entering listOfGamesByTeams() with {}, {}", key1, key2);
+        return repository.readMatchup(key1, key2);
+    }
 
-        DynamoDBScanExpression dynamoDBScanExpression = new DynamoDBScanExpression()
-                .withFilterExpression("(HomeTeam = :val or AwayTeam = :val) and (HomeTeam = :val2 or AwayTeam = :val2)")
-                .withExpressionAttributeValues(eav);
+    /**
+     * From the {@link HeadToHeadMatrix} once it is warm; until then totalled from the matchup's games.
+     */
+    public Optional<HeadToHead> headToHeadSummary(String team1, String team2) {
+        log.trace("Entering headToHeadSummary() with {}, {}", team1, team2);
+        if (headToHeadMatrix.isWarm()) {
+            return headToHeadMatrix.summary(team1, team2);
+        }
+        List<Game> games = repository.readMatchup(team1, team2);
+        if (games.isEmpty()) {
+            return Optional.empty();
+        }
+        HeadToHead summary = new HeadToHead(team1, team2, games);
+        summary.setGames(null);
+        return Optional.of(summary);
+    }
+
+    public List<Standing> standings(String year, String week) {
+        log.trace("Entering standings() with {}, {}", year, week);
+        return standings.table(year, week);
+    }
 
-        return repository.readExpression(dynamoDBScanExpression);
+    public List<Rating> ratings() {
+        log.trace("Entering ratings()");
+        return eloRatings.ratings();
     }
 }
@@ -0,0 +1,286 @@
+package com.dmv.footballheadz.game.impl;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Every stored game as columns of primitives, for the analytics {@link Standings}, {@link HeadToHeadMatrix} and
+ * {@link TeamIndex} answer from. Each game has a slot; teams are {@link TeamDictionary} ids in int[], year and
+ * week are packed into one int by {@link Game#seasonWeekOf}, and scores are double[] with NaN for a missing
+ * score. Every team's slots are kept in schedule order, and so are every season's, so queries walk int[] of slots
+ * and read columns, without unboxing or allocating per game.
+ */
+@Component
+public class GameTable extends GameProjection<GameTable.Columns> {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * The columns, which are only read under {@link Columns#readLock()}.
+     *
+     * @throws ProjectionNotWarmException until the table is built
+     */
+    Columns columns() {
+        return state();
+    }
+
+    @Override
+    protected Columns empty() {
+        return new Columns();
+    }
+
+    @Override
+    protected void move(Columns columns, Game before, Game after) {
+        columns.lock.writeLock().lock();
+        try {
+            columns.move(before, after);
+        } finally {
+            columns.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Slots are stable while a game is held, so the lists of slots do not change when other games move; a
+     * removed game's slot is reused by the next one added.
+     */
+    static final class Columns {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final TeamDictionary teams = new TeamDictionary();
+
+        private final Map<String, Integer> slots = new HashMap<>();
+        private int size;
+        private int[] free = new int[16];
+        private int freeCount;
+
+        private String[] ids = new String[INITIAL_CAPACITY];
+        private String[] scheduleKeys = new String[INITIAL_CAPACITY];
+        private int[] homeTeams = new int[INITIAL_CAPACITY];
+        private int[] awayTeams = new int[INITIAL_CAPACITY];
+        private int[] seasonWeeks = new int[INITIAL_CAPACITY];
+        private double[] homePoints = new double[INITIAL_CAPACITY];
+        private double[] awayPoints = new double[INITIAL_CAPACITY];
+        private Game[] games = new Game[INITIAL_CAPACITY];
+
+        private Slots[] teamGames = new Slots[64];
+        private final Map<Integer, Slots> seasonGames = new HashMap<>();
+
+        /**
+         * Year, padded week and game id, as the matchup index orders games; games outside numbered weeks keep
+         * their place among the others.
+         */
+        private final IntBinaryOperator scheduleOrder = (a, b) -> scheduleKeys[a].compareTo(scheduleKeys[b]);
+
+        /**
+         * Year * 100 + week, then game id.
+         */
+        private final IntBinaryOperator seasonOrder = (a, b) -> {
+            int comparison = Integer.compare(seasonWeeks[a], seasonWeeks[b]);
+            return comparison != 0 ? comparison : ids[a].compareTo(ids[b]);
+        };
+
+        Lock readLock() {
+            return lock.readLock();
+        }
+
+        /**
+         * The id of {@code team}, or -1 if it never played.
+         */
+        int teamOf(String team) {
+            return team == null ? -1 : teams.find(team);
+        }
+
+        String teamName(int team) {
+            return teams.nameOf(team);
+        }
+
+        /**
+         * The length arrays indexed by team id need.
+         */
+        int teamCount() {
+            return teams.size();
+        }
+
+        /**
+         * Slots of the games {@code team} played, home or away, in schedule order.
+         */
+        Slots gamesOf(int team) {
+            Slots slots = team < 0 || team >= teamGames.length ? null : teamGames[team];
+            return slots == null ? Slots.NONE : slots;
+        }
+
+        /**
+         * Slots of the games in a numbered week of {@code year}, by week and then game id.
+         */
+        Slots seasonOf(int year) {
+            Slots slots = seasonGames.get(year);
+            return slots == null ? Slots.NONE : slots;
+        }
+
+        int homeTeam(int slot) {
+            return homeTeams[slot];
+        }
+
+        int awayTeam(int slot) {
+            return awayTeams[slot];
+        }
+
+        /**
+         * Year * 100 + week, or -1 when the game is not in a numbered week of a numbered year.
+         */
+        int seasonWeek(int slot) {
+            return seasonWeeks[slot];
+        }
+
+        double homePoints(int slot) {
+            return homePoints[slot];
+        }
+
+        double awayPoints(int slot) {
+            return awayPoints[slot];
+        }
+
+        /**
+         * The game held in {@code slot}, which callers must not change.
+         */
+        Game game(int slot) {
+            return games[slot];
+        }
+
+        private void move(Game before, Game after) {
+            if (before != null) {
+                Integer slot = slots.remove(before.getId());
+                if (slot != null) {
+                    remove(slot);
+                }
+            }
+            if (after != null) {
+                add(after);
+            }
+        }
+
+        private void add(Game game) {
+            int slot = freeCount > 0 ? free[--freeCount] : size++;
+            if (slot == ids.length) {
+                grow();
+            }
+            ids[slot] = game.getId();
+            scheduleKeys[slot] = (game.getYear() == null ? "" : game.getYear()) + "#"
+                    + Game.paddedWeek(game.getWeek()) + "#" + game.getId();
+            homeTeams[slot] = game.getHomeTeam() == null ? -1 : teams.idOf(game.getHomeTeam());
+            awayTeams[slot] = game.getAwayTeam() == null ? -1 : teams.idOf(game.getAwayTeam());
+            seasonWeeks[slot] = Game.seasonWeekOf(game);
+            homePoints[slot] = game.getHomeTeamPts() == null ? Double.NaN : game.getHomeTeamPts();
+            awayPoints[slot] = game.getAwayTeamPts() == null ? Double.NaN : game.getAwayTeamPts();
+            games[slot] = game;
+            slots.put(game.getId(), slot);
+            if (homeTeams[slot] >= 0) {
+                teamSlots(homeTeams[slot]).insert(slot, scheduleOrder);
+            }
+            if (awayTeams[slot] >= 0 && awayTeams[slot] != homeTeams[slot]) {
+                teamSlots(awayTeams[slot]).insert(slot, scheduleOrder);
+            }
+            if (seasonWeeks[slot] >= 0) {
+                seasonGames.computeIfAbsent(seasonWeeks[slot] / 100, year -> new Slots()).insert(slot, seasonOrder);
+            }
+        }
+
+        private Slots teamSlots(int team) {
+            if (team >= teamGames.length) {
+                teamGames = Arrays.copyOf(teamGames, Math.max(team + 1, teamGames.length * 2));
+            }
+            if (teamGames[team] == null) {
+                teamGames[team] = new Slots();
+            }
+            return teamGames[team];
+        }
+
+        private void remove(int slot) {
+            if (homeTeams[slot] >= 0) {
+                teamGames[homeTeams[slot]].remove(slot);
+            }
+            if (awayTeams[slot] >= 0 && awayTeams[slot] != homeTeams[slot]) {
+                teamGames[awayTeams[slot]].remove(slot);
+            }
+            if (seasonWeeks[slot] >= 0) {
+                seasonGames.get(seasonWeeks[slot] / 100).remove(slot);
+            }
+            ids[slot] = null;
+            scheduleKeys[slot] = null;
+            games[slot] = null;
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, freeCount * 2);
+            }
+            free[freeCount++] = slot;
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            scheduleKeys = Arrays.copyOf(scheduleKeys, capacity);
+            homeTeams = Arrays.copyOf(homeTeams, capacity);
+            awayTeams = Arrays.copyOf(awayTeams, capacity);
+            seasonWeeks = Arrays.copyOf(seasonWeeks, capacity);
+            homePoints = Arrays.copyOf(homePoints, capacity);
+            awayPoints = Arrays.copyOf(awayPoints, capacity);
+            games = Arrays.copyOf(games, capacity);
+        }
+    }
+
+    /**
+     * A list of slots kept in an order, growing as needed. Inserting shifts the slots after the new one, which
+     * for the few hundred games of a team or a season is cheaper than any tree.
+     */
+    static final class Slots {
+
+        private static final Slots NONE = new Slots();
+
+        private int[] slots = new int[8];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        int get(int index) {
+            return slots[index];
+        }
+
+        private void insert(int slot, IntBinaryOperator order) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (order.applyAsInt(slots[middle], slot) <= 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(slots, low, slots, low + 1, size - low);
+            slots[low] = slot;
+            size++;
+        }
+
+        private void remove(int slot) {
+            for (int index = 0; index < size; index++) {
+                if (slots[index] == slot) {
+                    System.arraycopy(slots, index + 1, slots, index, size - index - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+    }
+}
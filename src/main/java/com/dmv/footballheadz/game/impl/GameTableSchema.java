@@ -0,0 +1,61 @@
+package com.dmv.footballheadz.game.impl;
+
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.extensions.VersionedRecordExtension;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
+
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.primaryPartitionKey;
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.secondaryPartitionKey;
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.secondarySortKey;
+
+/**
+ * The {@link Game} mapping for the v2 enhanced client, attribute for attribute the same as the v1 annotations on
+ * {@link Game}, so both clients read and write the same items. Built up front rather than by reflection.
+ */
+public final class GameTableSchema {
+
+    private GameTableSchema() {
+    }
+
+    public static TableSchema<Game> create() {
+        return StaticTableSchema.builder(Game.class)
+                .newItemSupplier(Game::new)
+                .addAttribute(String.class, a -> a.name("Id")
+                        .getter(Game::getId)
+                        .setter(Game::setId)
+                        .tags(primaryPartitionKey()))
+                .addAttribute(String.class, a -> a.name("Year")
+                        .getter(Game::getYear)
+                        .setter(Game::setYear))
+                .addAttribute(String.class, a -> a.name("Week")
+                        .getter(Game::getWeek)
+                        .setter(Game::setWeek))
+                .addAttribute(String.class, a -> a.name("HomeTeam")
+                        .getter(Game::getHomeTeam)
+                        .setter(Game::setHomeTeam)
+                        .tags(secondaryPartitionKey(Game.HOME_TEAM_INDEX)))
+                .addAttribute(String.class, a -> a.name("AwayTeam")
+                        .getter(Game::getAwayTeam)
+                        .setter(Game::setAwayTeam)
+                        .tags(secondaryPartitionKey(Game.AWAY_TEAM_INDEX)))
+                .addAttribute(Double.class, a -> a.name("HomeTeamPts")
+                        .getter(Game::getHomeTeamPts)
+                        .setter(Game::setHomeTeamPts))
+                .addAttribute(Double.class, a -> a.name("AwayTeamPts")
+                        .getter(Game::getAwayTeamPts)
+                        .setter(Game::setAwayTeamPts))
+                .addAttribute(String.class, a -> a.name("Matchup")
+                        .getter(Game::getMatchup)
+                        .setter(Game::setMatchup)
+                        .tags(secondaryPartitionKey(Game.MATCHUP_INDEX)))
+                .addAttribute(String.class, a -> a.name("SeasonWeek")
+                        .getter(Game::getSeasonWeek)
+                        .setter(Game::setSeasonWeek)
+                        .tags(secondarySortKey(Game.MATCHUP_INDEX)))
+                .addAttribute(Long.class, a -> a.name("Version")
+                        .getter(Game::getVersion)
+                        .setter(Game::setVersion)
+                        .tags(VersionedRecordExtension.AttributeTags.versionAttribute()))
+                .build();
+    }
+}
@@ -1,19 +1,76 @@
 package com.dmv.footballheadz.game.impl;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class HeadToHead {
 
     String team1;
     String team2;
     String record;
+    HeadToHeadStats team1Stats;
+    HeadToHeadStats team2Stats;
     List<Game> games;
 
-    public HeadToHead(String team1, String team2, List<Game> games, int homeWins) {
+    /**
+     * Head to head over {@code games}, tallied in one pass. Games without both scores, or not between the two
+     * teams, are returned but not counted.
+     */
+    public HeadToHead(String team1, String team2, List<Game> games) {
         this.team1 = team1;
         this.team2 = team2;
         this.games = games;
-        this.record = buildRecordString(homeWins);
+        int wins = 0;
+        int losses = 0;
+        int ties = 0;
+        double pointsFor = 0;
+        double pointsAgainst = 0;
+        for (Game game : games) {
+            Double home = game.getHomeTeamPts();
+            Double away = game.getAwayTeamPts();
+            if (home == null || away == null) {
+                continue;
+            }
+            double scored;
+            double conceded;
+            if (team1.equals(game.getHomeTeam()) && team2.equals(game.getAwayTeam())) {
+                scored = home;
+                conceded = away;
+            } else if (team2.equals(game.getHomeTeam()) && team1.equals(game.getAwayTeam())) {
+                scored = away;
+                conceded = home;
+            } else {
+                continue;
+            }
+            if (scored > conceded) {
+                wins++;
+            } else if (scored < conceded) {
+                losses++;
+            } else {
+                ties++;
+            }
+            pointsFor += scored;
+            pointsAgainst += conceded;
+        }
+        setStats(new HeadToHeadStats(team1, wins, losses, ties, pointsFor, pointsAgainst));
+    }
+
+    /**
+     * Summary only head to head, without the games it was calculated from.
+     */
+    public HeadToHead(String team1, String team2, int team1Wins, int team2Wins, int ties,
+                      double team1Points, double team2Points) {
+        this.team1 = team1;
+        this.team2 = team2;
+        setStats(new HeadToHeadStats(team1, team1Wins, team2Wins, ties, team1Points, team2Points));
+    }
+
+    private void setStats(HeadToHeadStats stats) {
+        this.team1Stats = stats;
+        this.team2Stats = stats.opponent(team2);
+        this.record = buildRecordString(stats.getWins(), stats.getLosses());
     }
 
     public String getTeam1() {
@@ -40,6 +97,22 @@ public class HeadToHead {
         this.record = record;
     }
 
+    public HeadToHeadStats getTeam1Stats() {
+        return team1Stats;
+    }
+
+    public void setTeam1Stats(HeadToHeadStats team1Stats) {
+        this.team1Stats = team1Stats;
+    }
+
+    public HeadToHeadStats getTeam2Stats() {
+        return team2Stats;
+    }
+
+    public void setTeam2Stats(HeadToHeadStats team2Stats) {
+        this.team2Stats = team2Stats;
+    }
+
     public List<Game> getGames() {
         return games;
     }
@@ -48,14 +121,14 @@ public class HeadToHead {
         this.games = games;
     }
 
-    private String buildRecordString(int homeWins) {
+    private String buildRecordString(int team1Wins, int team2Wins) {
         StringBuilder sb = new StringBuilder(team1);
         sb.append(" : ");
-        sb.append(homeWins);
+        sb.append(team1Wins);
         sb.append(" - ");
         sb.append(team2);
         sb.append(" : ");
-        sb.append(games.size() - homeWins);
+        sb.append(team2Wins);
         return sb.toString();
     }
 }
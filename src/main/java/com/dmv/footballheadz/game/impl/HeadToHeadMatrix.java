@@ -0,0 +1,83 @@
+package com.dmv.footballheadz.game.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Win/loss/tie record and points of a pair of teams, totalled from the {@link GameTable} over the games of
+ * whichever of the two played fewer. A pair has a summary once it has a game, scored or not, as it does for the
+ * matchup index; only scored games count towards the record.
+ */
+@Component
+public class HeadToHeadMatrix {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private GameTable gameTable;
+
+    public boolean isWarm() {
+        return gameTable.isWarm();
+    }
+
+    /**
+     * @throws ProjectionNotWarmException until the game table is built
+     */
+    public Optional<HeadToHead> summary(String team1, String team2) {
+        log.trace("Entering summary() with {}, {}", team1, team2);
+        GameTable.Columns columns = gameTable.columns();
+        int games = 0;
+        int team1Wins = 0;
+        int team2Wins = 0;
+        int ties = 0;
+        double team1Points = 0;
+        double team2Points = 0;
+        columns.readLock().lock();
+        try {
+            int first = columns.teamOf(team1);
+            int second = columns.teamOf(team2);
+            if (first < 0 || second < 0) {
+                return Optional.empty();
+            }
+            GameTable.Slots slots = columns.gamesOf(first).size() <= columns.gamesOf(second).size()
+                    ? columns.gamesOf(first) : columns.gamesOf(second);
+            for (int i = 0; i < slots.size(); i++) {
+                int slot = slots.get(i);
+                double scored;
+                double conceded;
+                if (columns.homeTeam(slot) == first && columns.awayTeam(slot) == second) {
+                    scored = columns.homePoints(slot);
+                    conceded = columns.awayPoints(slot);
+                } else if (columns.homeTeam(slot) == second && columns.awayTeam(slot) == first) {
+                    scored = columns.awayPoints(slot);
+                    conceded = columns.homePoints(slot);
+                } else {
+                    continue;
+                }
+                games++;
+                if (Double.isNaN(scored) || Double.isNaN(conceded)) {
+                    continue;
+                }
+                if (scored > conceded) {
+                    team1Wins++;
+                } else if (scored < conceded) {
+                    team2Wins++;
+                } else {
+                    ties++;
+                }
+                team1Points += scored;
+                team2Points += conceded;
+            }
+        } finally {
+            columns.readLock().unlock();
+        }
+        if (games == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new HeadToHead(team1, team2, team1Wins, team2Wins, ties, team1Points, team2Points));
+    }
+}
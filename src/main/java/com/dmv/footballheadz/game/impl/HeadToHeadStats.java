@@ -0,0 +1,70 @@
+package com.dmv.footballheadz.game.impl;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One side of a head to head: the team's results and points over the scored games against its opponent.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HeadToHeadStats {
+
+    private final String team;
+    private final int wins;
+    private final int losses;
+    private final int ties;
+    private final double pointsFor;
+    private final double pointsAgainst;
+
+    public HeadToHeadStats(String team, int wins, int losses, int ties, double pointsFor, double pointsAgainst) {
+        this.team = team;
+        this.wins = wins;
+        this.losses = losses;
+        this.ties = ties;
+        this.pointsFor = pointsFor;
+        this.pointsAgainst = pointsAgainst;
+    }
+
+    public String getTeam() {
+        return team;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getLosses() {
+        return losses;
+    }
+
+    public int getTies() {
+        return ties;
+    }
+
+    public double getPointsFor() {
+        return pointsFor;
+    }
+
+    public double getPointsAgainst() {
+        return pointsAgainst;
+    }
+
+    /**
+     * Points for less points against per scored game, zero before any.
+     */
+    public double getAverageMargin() {
+        int games = wins + losses + ties;
+        return games == 0 ? 0 : (pointsFor - pointsAgainst) / games;
+    }
+
+    /**
+     * The same games seen from the other side.
+     */
+    HeadToHeadStats opponent(String opponent) {
+        return new HeadToHeadStats(opponent, losses, wins, ties, pointsAgainst, pointsFor);
+    }
+
+    @Override
+    public String toString() {
+        return team + " " + wins + "-" + losses + "-" + ties + " " + pointsFor + "-" + pointsAgainst;
+    }
+}
@@ -0,0 +1,474 @@
+package com.dmv.footballheadz.game.impl;
+
+import com.dmv.footballheadz.game.IRepository;
+import com.dmv.footballheadz.game.Page;
+import com.dmv.footballheadz.game.StaleVersionException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Games held in memory, for deployments that serve reads with no network hop and for test environments.
+ * Selected with the in-memory profile in place of {@link GameRepository}.
+ *
+ * Games are held by id with their ids also kept sorted, so pages and cursors work as they do against the table,
+ * and the team and matchup indexes hold the ids of each key's games, so index reads cost the size of the result
+ * rather than of the table. Every write to a game is checked against its version as the table would check it,
+ * and runs once, under the lock {@link ConcurrentHashMap#compute} holds for that id, along with the moves of its
+ * index entries and its sorted id.
+ *
+ * With game.in-memory.snapshot-file set, games are loaded from the file on start up and written back to it
+ * every game.in-memory.snapshot-interval-seconds while there are changes, and on shut down.
+ */
+@Repository
+@Profile("in-memory")
+public class InMemoryGameRepository implements IRepository<Game> {
+
+    private static final Comparator<Game> SEASON_WEEK_ORDER =
+            Comparator.comparing(Game::getSeasonWeek, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    /**
+     * Snapshots are one game's JSON per line, the same JSON the API serves.
+     */
+    private static final ObjectMapper SNAPSHOT_MAPPER = new ObjectMapper();
+    private static final ObjectReader SNAPSHOT_READER = SNAPSHOT_MAPPER.readerFor(Game.class);
+    private static final ObjectWriter SNAPSHOT_WRITER = SNAPSHOT_MAPPER.writerFor(Game.class).withRootValueSeparator("\n");
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final ConcurrentMap<String, Game> games = new ConcurrentHashMap<>();
+
+    /**
+     * Ids of the games, sorted for pages. An id can briefly outlive or precede its game during a concurrent write,
+     * so readers skip ids without a game.
+     */
+    private final ConcurrentNavigableMap<String, Boolean> sortedIds = new ConcurrentSkipListMap<>();
+
+    private final Map<String, ConcurrentMap<String, Set<String>>> indexes = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean changed = new AtomicBoolean();
+
+    @Value("${game.in-memory.snapshot-file:}")
+    private String snapshotFile;
+
+    @Value("${game.in-memory.snapshot-interval-seconds:60}")
+    private long snapshotIntervalSeconds;
+
+    private ScheduledExecutorService snapshotExecutor;
+
+    public InMemoryGameRepository() {
+        indexes.put(Game.HOME_TEAM_INDEX, new ConcurrentHashMap<>());
+        indexes.put(Game.AWAY_TEAM_INDEX, new ConcurrentHashMap<>());
+        indexes.put(Game.MATCHUP_INDEX, new ConcurrentHashMap<>());
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!StringUtils.hasLength(snapshotFile)) {
+            log.info("Holding games in memory without snapshots");
+            return;
+        }
+        loadSnapshot();
+        snapshotExecutor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("game-snapshot-"));
+        snapshotExecutor.scheduleWithFixedDelay(this::snapshotIfChanged,
+                snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (snapshotExecutor != null) {
+            snapshotExecutor.shutdown();
+            snapshotIfChanged();
+        }
+    }
+
+    @Override
+    public List<Game> readAll() {
+        log.trace("Entering readAll()");
+        List<Game> copies = new ArrayList<>(games.size());
+        for (Iterator<Game> stored = stored(sortedIds.keySet()); stored.hasNext(); ) {
+            copies.add(stored.next().copy());
+        }
+        return copies;
+    }
+
+    @Override
+    public Page<Game> readPage(int limit, String cursor) {
+        log.trace("Entering readPage() with {}, {}", limit, cursor);
+        String after = decodeCursor(cursor);
+        Iterator<Game> iterator = stored(after == null ? sortedIds.keySet() : sortedIds.tailMap(after, false).keySet());
+        List<Game> items = new ArrayList<>(Math.min(limit, games.size()));
+        while (items.size() < limit && iterator.hasNext()) {
+            items.add(iterator.next().copy());
+        }
+        String next = iterator.hasNext() && !items.isEmpty() ? encodeCursor(items.get(items.size() - 1).getId()) : null;
+        return new Page<>(items, next);
+    }
+
+    @Override
+    public Iterable<Game> iterateAll() {
+        log.trace("Entering iterateAll()");
+        return () -> {
+            Iterator<Game> iterator = stored(sortedIds.keySet());
+            return new Iterator<Game>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Game next() {
+                    return iterator.next().copy();
+                }
+            };
+        };
+    }
+
+    /**
+     * The stored games of {@code keys}, in their order, skipping ids whose game has gone.
+     */
+    private Iterator<Game> stored(Collection<String> keys) {
+        Iterator<String> iterator = keys.iterator();
+        return new Iterator<Game>() {
+
+            private Game next = advance();
+
+            private Game advance() {
+                while (iterator.hasNext()) {
+                    Game game = games.get(iterator.next());
+                    if (game != null) {
+                        return game;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Game next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Game game = next;
+                next = advance();
+                return game;
+            }
+        };
+    }
+
+    @Override
+    public List<Game> readIndex(String indexName, String key) {
+        log.trace("Entering readIndex() with {}, {}", indexName, key);
+        if (Game.MATCHUP_INDEX.equals(indexName) || !indexes.containsKey(indexName)) {
+            throw new IllegalArgumentException("Unknown index " + indexName);
+        }
+        return lookup(indexName, key);
+    }
+
+    /**
+     * In schedule order, as the matchup index returns them.
+     */
+    @Override
+    public List<Game> readMatchup(String team1, String team2) {
+        log.trace("Entering readMatchup() with {}, {}", team1, team2);
+        List<Game> results = lookup(Game.MATCHUP_INDEX, Game.matchupKey(team1, team2));
+        results.sort(SEASON_WEEK_ORDER);
+        return results;
+    }
+
+    /**
+     * Games of the key. An index entry can briefly outlive or precede its game during a concurrent write, so
+     * each game is checked against the key.
+     */
+    private List<Game> lookup(String indexName, String key) {
+        ConcurrentMap<String, Set<String>> index = indexes.get(indexName);
+        Set<String> ids = index.getOrDefault(key, Collections.emptySet());
+        Function<Game, String> attribute = attributeOf(indexName);
+        List<Game> results = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Game game = games.get(id);
+            if (game != null && key.equals(attribute.apply(game))) {
+                results.add(game.copy());
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public Optional<Game> read(String key) {
+        log.trace("Entering read() with {}", key);
+        return Optional.ofNullable(games.get(key)).map(Game::copy);
+    }
+
+    @Override
+    public List<Game> readMany(List<String> keys) {
+        log.trace("Entering readMany() with {} keys", keys.size());
+        List<Game> results = new ArrayList<>(keys.size());
+        for (String key : new LinkedHashSet<>(keys)) {
+            Game game = games.get(key);
+            if (game != null) {
+                results.add(game.copy());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * The same as {@link #readMany}: every read here is consistent.
+     */
+    @Override
+    public List<Game> readManyConsistent(List<String> keys) {
+        log.trace("Entering readManyConsistent() with {} keys", keys.size());
+        return readMany(keys);
+    }
+
+    /**
+     * Saves as the mapper does: a game without a version must be new, one with a version must match the stored
+     * one, and the saved game's version is incremented.
+     */
+    @Override
+    public void save(Game game) {
+        log.trace("Entering save() with {}", game);
+        if (game.getId() == null) {
+            game.setId(UUID.randomUUID().toString());
+        }
+        Long expected = game.getVersion();
+        Game saved = game.copy().withVersion(Game.nextVersion(expected));
+        write(game.getId(), previous -> {
+            if (!Objects.equals(expected, previous == null ? null : previous.getVersion())) {
+                throw new StaleVersionException(game.getId(), null);
+            }
+            return saved;
+        });
+        game.setVersion(saved.getVersion());
+    }
+
+    @Override
+    public Optional<Game> replace(Game game) {
+        log.trace("Entering replace() with {}", game);
+        return conditionalWrite(game, previous -> game.copy().withVersion(Game.nextVersion(previous.getVersion())));
+    }
+
+    @Override
+    public Optional<Game> update(Game patch) {
+        log.trace("Entering update() with {}", patch);
+        return conditionalWrite(patch, previous -> previous.patchedWith(patch)
+                .withVersion(Game.nextVersion(previous.getVersion())));
+    }
+
+    @Override
+    public Optional<Game> delete(String key, Long version) {
+        log.trace("Entering delete() with {}, {}", key, version);
+        return Optional.ofNullable(write(key, previous -> {
+            if (previous != null && version != null && !version.equals(previous.getVersion())) {
+                throw new StaleVersionException(key, null);
+            }
+            return null;
+        })).map(Game::copy);
+    }
+
+    /**
+     * Nothing can go unprocessed in memory, so no keys are ever returned.
+     */
+    @Override
+    public Set<String> writeMany(List<Game> toSave, List<String> keysToDelete) {
+        log.trace("Entering writeMany() with {} to save and {} to delete", toSave.size(), keysToDelete.size());
+        for (Game game : toSave) {
+            Game saved = game.copy();
+            write(game.getId(), previous -> saved);
+        }
+        for (String key : keysToDelete) {
+            write(key, previous -> null);
+        }
+        return Collections.emptySet();
+    }
+
+    /**
+     * Writes the game {@code toWrite} derives from the stored one, if there is one and its version is the one
+     * {@code game} expects, and sets the new version on {@code game}.
+     */
+    private Optional<Game> conditionalWrite(Game game, Function<Game, Game> toWrite) {
+        AtomicReference<Game> written = new AtomicReference<>();
+        Game previous = write(game.getId(), stored -> {
+            if (stored == null) {
+                return null;
+            }
+            if (game.getVersion() != null && !game.getVersion().equals(stored.getVersion())) {
+                throw new StaleVersionException(game.getId(), null);
+            }
+            written.set(toWrite.apply(stored));
+            return written.get();
+        });
+        if (previous == null) {
+            return Optional.empty();
+        }
+        game.setVersion(written.get().getVersion());
+        return Optional.of(previous.copy());
+    }
+
+    /**
+     * Replaces the stored game with what {@code toWrite} returns for it, null to delete it, and moves its index
+     * entries and sorted id along. {@link ConcurrentHashMap#compute} calls {@code toWrite} exactly once, holding
+     * the id's lock, so the moves are made once, for the write that is stored, and concurrent writes to the id
+     * wait for it. Returns the game stored before.
+     */
+    private Game write(String id, Function<Game, Game> toWrite) {
+        AtomicReference<Game> previous = new AtomicReference<>();
+        games.compute(id, (key, stored) -> {
+            previous.set(stored);
+            Game next = toWrite.apply(stored);
+            if (next != stored) {
+                unindex(stored);
+                index(next);
+                if (next == null) {
+                    sortedIds.remove(key);
+                } else {
+                    sortedIds.put(key, Boolean.TRUE);
+                }
+                changed.set(true);
+            }
+            return next;
+        });
+        return previous.get();
+    }
+
+    private void index(Game game) {
+        if (game == null) {
+            return;
+        }
+        for (Map.Entry<String, ConcurrentMap<String, Set<String>>> index : indexes.entrySet()) {
+            String key = attributeOf(index.getKey()).apply(game);
+            if (key != null) {
+                index.getValue().computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(game.getId());
+            }
+        }
+    }
+
+    private void unindex(Game game) {
+        if (game == null) {
+            return;
+        }
+        for (Map.Entry<String, ConcurrentMap<String, Set<String>>> index : indexes.entrySet()) {
+            String key = attributeOf(index.getKey()).apply(game);
+            Set<String> ids = key == null ? null : index.getValue().get(key);
+            if (ids != null) {
+                ids.remove(game.getId());
+            }
+        }
+    }
+
+    private static Function<Game, String> attributeOf(String indexName) {
+        if (Game.HOME_TEAM_INDEX.equals(indexName)) {
+            return Game::getHomeTeam;
+        }
+        if (Game.AWAY_TEAM_INDEX.equals(indexName)) {
+            return Game::getAwayTeam;
+        }
+        return Game::getMatchup;
+    }
+
+    private void loadSnapshot() throws IOException {
+        Path path = Paths.get(snapshotFile);
+        if (!Files.exists(path)) {
+            log.info("No snapshot at {}, starting empty", path);
+            return;
+        }
+        try (MappingIterator<Game> snapshot = SNAPSHOT_READER.readValues(Files.newInputStream(path))) {
+            while (snapshot.hasNext()) {
+                Game game = snapshot.next();
+                games.put(game.getId(), game);
+                sortedIds.put(game.getId(), Boolean.TRUE);
+                index(game);
+            }
+        }
+        log.info("Loaded {} games from {}", games.size(), path);
+    }
+
+    /**
+     * Writes every game to a temporary file and moves it over the snapshot, so a crash mid write leaves the
+     * previous snapshot intact. Games written during the snapshot may or may not be in it; they mark the
+     * repository changed again, so the next snapshot has them.
+     */
+    void snapshotIfChanged() {
+        if (!changed.getAndSet(false)) {
+            return;
+        }
+        Path path = Paths.get(snapshotFile).toAbsolutePath();
+        try {
+            Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            int count = 0;
+            try (SequenceWriter snapshot = SNAPSHOT_WRITER.writeValues(Files.newOutputStream(temp))) {
+                for (Iterator<Game> stored = stored(sortedIds.keySet()); stored.hasNext(); ) {
+                    snapshot.write(stored.next());
+                    count++;
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Snapshot of {} games written to {}", count, path);
+        } catch (IOException | RuntimeException e) {
+            changed.set(true);
+            log.warn("Snapshot to {} failed", path, e);
+        }
+    }
+
+    private static String encodeCursor(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor " + cursor, e);
+        }
+    }
+}
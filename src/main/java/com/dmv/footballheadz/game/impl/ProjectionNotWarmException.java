@@ -0,0 +1,13 @@
+package com.dmv.footballheadz.game.impl;
+
+/**
+ * Thrown when a {@link GameProjection} is read before {@link GameProjections} has built it.
+ */
+public class ProjectionNotWarmException extends RuntimeException {
+
+    private static final long serialVersionUID = 6120954833046912703L;
+
+    public ProjectionNotWarmException(String projection) {
+        super(projection + " is not built yet");
+    }
+}
@@ -0,0 +1,40 @@
+package com.dmv.footballheadz.game.impl;
+
+/**
+ * One team's power rating.
+ */
+public class Rating {
+
+    private final int rank;
+    private final String team;
+    private final double rating;
+    private final int games;
+
+    public Rating(int rank, String team, double rating, int games) {
+        this.rank = rank;
+        this.team = team;
+        this.rating = rating;
+        this.games = games;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public String getTeam() {
+        return team;
+    }
+
+    public double getRating() {
+        return rating;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    @Override
+    public String toString() {
+        return rank + ". " + team + " " + rating + " (" + games + ")";
+    }
+}
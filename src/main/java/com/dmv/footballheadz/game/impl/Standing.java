@@ -0,0 +1,80 @@
+package com.dmv.footballheadz.game.impl;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One team's row of a league table.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Standing {
+
+    private final int rank;
+    private final String team;
+    private final int wins;
+    private final int losses;
+    private final int ties;
+    private final double pointsFor;
+    private final double pointsAgainst;
+    private final String streak;
+
+    public Standing(int rank, String team, int wins, int losses, int ties,
+                    double pointsFor, double pointsAgainst, String streak) {
+        this.rank = rank;
+        this.team = team;
+        this.wins = wins;
+        this.losses = losses;
+        this.ties = ties;
+        this.pointsFor = pointsFor;
+        this.pointsAgainst = pointsAgainst;
+        this.streak = streak;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public String getTeam() {
+        return team;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getLosses() {
+        return losses;
+    }
+
+    public int getTies() {
+        return ties;
+    }
+
+    public double getPointsFor() {
+        return pointsFor;
+    }
+
+    public double getPointsAgainst() {
+        return pointsAgainst;
+    }
+
+    /**
+     * Current run of one result, e.g. "W3" or "L1".
+     */
+    public String getStreak() {
+        return streak;
+    }
+
+    /**
+     * Ties count as half a win.
+     */
+    public double getWinPercentage() {
+        int games = wins + losses + ties;
+        return games == 0 ? 0 : (wins + ties / 2.0) / games;
+    }
+
+    @Override
+    public String toString() {
+        return rank + ". " + team + " " + wins + "-" + losses + "-" + ties + " " + pointsFor + "-" + pointsAgainst
+                + (streak == null ? "" : " " + streak);
+    }
+}
@@ -0,0 +1,133 @@
+package com.dmv.footballheadz.game.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * League tables totalled from the {@link GameTable} when asked for: a season's games are kept in schedule order,
+ * so a table is one pass over the season's slots into arrays indexed by team id, and can be cut off at any
+ * week. Only scored games between two teams in a numbered week of a numbered year count, as
+ * {@link Game#seasonWeekOf} places them.
+ */
+@Component
+public class Standings {
+
+    private static final Comparator<Standing> TABLE_ORDER = Comparator
+            .comparingDouble(Standing::getWinPercentage).reversed()
+            .thenComparing(Comparator.comparingDouble(
+                    (Standing standing) -> standing.getPointsFor() - standing.getPointsAgainst()).reversed())
+            .thenComparing(Comparator.comparingDouble(Standing::getPointsFor).reversed())
+            .thenComparing(Standing::getTeam);
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private GameTable gameTable;
+
+    /**
+     * The league table of {@code year} as of the end of {@code week}, or of every week played when null. Empty
+     * when either is not a number.
+     *
+     * @throws ProjectionNotWarmException until the game table is built
+     */
+    public List<Standing> table(String year, String week) {
+        log.trace("Entering table() with {}, {}", year, week);
+        Integer season = numberOf(year);
+        Integer through = week == null ? null : numberOf(week);
+        if (season == null || (week != null && (through == null || through < 0))) {
+            return new ArrayList<>();
+        }
+        int last = through == null ? 99 : Math.min(through, 99);
+        GameTable.Columns columns = gameTable.columns();
+        List<Standing> table = new ArrayList<>();
+        columns.readLock().lock();
+        try {
+            GameTable.Slots slots = columns.seasonOf(season);
+            int teamCount = columns.teamCount();
+            int[] wins = new int[teamCount];
+            int[] losses = new int[teamCount];
+            int[] ties = new int[teamCount];
+            double[] pointsFor = new double[teamCount];
+            double[] pointsAgainst = new double[teamCount];
+            int[] streakOutcome = new int[teamCount];
+            int[] streakLength = new int[teamCount];
+            for (int i = 0; i < slots.size(); i++) {
+                int slot = slots.get(i);
+                if (columns.seasonWeek(slot) % 100 > last) {
+                    break;
+                }
+                int home = columns.homeTeam(slot);
+                int away = columns.awayTeam(slot);
+                double homePoints = columns.homePoints(slot);
+                double awayPoints = columns.awayPoints(slot);
+                if (home < 0 || away < 0 || home == away || Double.isNaN(homePoints) || Double.isNaN(awayPoints)) {
+                    continue;
+                }
+                int outcome = Double.compare(homePoints, awayPoints);
+                record(home, outcome, homePoints, awayPoints,
+                        wins, losses, ties, pointsFor, pointsAgainst, streakOutcome, streakLength);
+                record(away, -outcome, awayPoints, homePoints,
+                        wins, losses, ties, pointsFor, pointsAgainst, streakOutcome, streakLength);
+            }
+            for (int team = 0; team < teamCount; team++) {
+                if (streakLength[team] > 0) {
+                    String streak = (streakOutcome[team] > 0 ? "W" : streakOutcome[team] < 0 ? "L" : "T")
+                            + streakLength[team];
+                    table.add(new Standing(0, columns.teamName(team), wins[team], losses[team], ties[team],
+                            pointsFor[team], pointsAgainst[team], streak));
+                }
+            }
+        } finally {
+            columns.readLock().unlock();
+        }
+        return ranked(table);
+    }
+
+    /**
+     * The rows of a table in table order, ranked: by win percentage, then point difference, then points scored.
+     */
+    private static List<Standing> ranked(List<Standing> table) {
+        table.sort(TABLE_ORDER);
+        List<Standing> ranked = new ArrayList<>(table.size());
+        for (Standing standing : table) {
+            ranked.add(new Standing(ranked.size() + 1, standing.getTeam(), standing.getWins(), standing.getLosses(),
+                    standing.getTies(), standing.getPointsFor(), standing.getPointsAgainst(), standing.getStreak()));
+        }
+        return ranked;
+    }
+
+    private static Integer numberOf(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void record(int team, int outcome, double scored, double conceded,
+                               int[] wins, int[] losses, int[] ties, double[] pointsFor, double[] pointsAgainst,
+                               int[] streakOutcome, int[] streakLength) {
+        outcome = Integer.signum(outcome);
+        if (outcome > 0) {
+            wins[team]++;
+        } else if (outcome < 0) {
+            losses[team]++;
+        } else {
+            ties[team]++;
+        }
+        pointsFor[team] += scored;
+        pointsAgainst[team] += conceded;
+        if (streakLength[team] > 0 && streakOutcome[team] == outcome) {
+            streakLength[team]++;
+        } else {
+            streakOutcome[team] = outcome;
+            streakLength[team] = 1;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.dmv.footballheadz.game.impl;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns team names as dense ids from zero, so per team figures can be kept in arrays indexed by id instead
+ * of maps keyed by name. Ids are never reused; looking one up is lock free.
+ */
+public class TeamDictionary {
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+    private volatile String[] names = new String[64];
+
+    private int size;
+
+    /**
+     * The id of {@code team}, assigning the next one if it has none yet.
+     */
+    public int idOf(String team) {
+        Integer id = ids.get(team);
+        return id != null ? id : intern(team);
+    }
+
+    /**
+     * The id of {@code team}, or -1 if it has none.
+     */
+    public int find(String team) {
+        Integer id = ids.get(team);
+        return id == null ? -1 : id;
+    }
+
+    public String nameOf(int id) {
+        return names[id];
+    }
+
+    /**
+     * One more than the highest id handed out, the length arrays indexed by id need.
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    private synchronized int intern(String team) {
+        Integer id = ids.get(team);
+        if (id != null) {
+            return id;
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+        }
+        names[size] = team;
+        ids.put(team, size);
+        return size++;
+    }
+}
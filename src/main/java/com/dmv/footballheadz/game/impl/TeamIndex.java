@@ -0,0 +1,49 @@
+package com.dmv.footballheadz.game.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Every team's games, home and away, in schedule order, from the {@link GameTable}. Has no answers until
+ * {@link GameProjections} has built the table, so a team lookup never waits on a scan.
+ */
+@Component
+public class TeamIndex {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private GameTable gameTable;
+
+    public boolean isWarm() {
+        return gameTable.isWarm();
+    }
+
+    /**
+     * Copies of {@code team}'s games, empty while the table is not warm.
+     */
+    public Optional<List<Game>> games(String team) {
+        log.trace("Entering games() with {}", team);
+        if (!gameTable.isWarm()) {
+            return Optional.empty();
+        }
+        GameTable.Columns columns = gameTable.columns();
+        columns.readLock().lock();
+        try {
+            GameTable.Slots slots = columns.gamesOf(columns.teamOf(team));
+            List<Game> copies = new ArrayList<>(slots.size());
+            for (int i = 0; i < slots.size(); i++) {
+                copies.add(columns.game(slots.get(i)).copy());
+            }
+            return Optional.of(copies);
+        } finally {
+            columns.readLock().unlock();
+        }
+    }
+}
@@ -1,17 +1,31 @@
 package com.dmv.footballheadz.healthcheck;
 
+import com.dmv.footballheadz.game.impl.GameProjections;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import static org.springframework.http.HttpStatus.*;
+
+/**
+ * Up once the game projections are warm, so an instance only takes traffic when team lookups are memory reads.
+ */
 @RestController
 public class HealthCheckController {
     private final Logger log = LoggerFactory.getLogger(getClass());
 
+    @Autowired(required = false)
+    private GameProjections gameProjections;
+
     @RequestMapping("/health")
-    public String healthCheck() {
+    public ResponseEntity<String> healthCheck() {
         log.trace("Entering healthCheck()");
-        return "up";
+        if (gameProjections != null && !gameProjections.isWarm()) {
+            return new ResponseEntity<>("starting", SERVICE_UNAVAILABLE);
+        }
+        return new ResponseEntity<>("up", OK);
     }
 }
@@ -8,10 +8,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Profile;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.stereotype.Component;
 
+import java.util.HashSet;
+import java.util.Set;
+
 @Component
+@Profile("!in-memory")
 public class DatabaseInitialisation implements ApplicationListener<ContextRefreshedEvent> {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
@@ -29,12 +34,59 @@ public class DatabaseInitialisation implements ApplicationListener<ContextRefres
         CreateTableRequest request = dbMapper
                 .generateCreateTableRequest(Game.class)
                 .withProvisionedThroughput(new ProvisionedThroughput(1L, 1L));
+        if (request.getGlobalSecondaryIndexes() != null) {
+            for (GlobalSecondaryIndex index : request.getGlobalSecondaryIndexes()) {
+                index.withProjection(new Projection().withProjectionType(ProjectionType.ALL))
+                        .withProvisionedThroughput(new ProvisionedThroughput(1L, 1L));
+            }
+        }
         try {
             DescribeTableResult result = dynamoDB.describeTable(request.getTableName());
             log.info("Table status {}, {}", request.getTableName(), result.getTable().getTableStatus());
+            createMissingIndexes(request, result.getTable());
         } catch (ResourceNotFoundException expectedException) {
             CreateTableResult result = dynamoDB.createTable(request);
             log.info("Table creation triggered {}, {}", request.getTableName(), result.getTableDescription().getTableStatus());
         }
     }
+
+    /**
+     * Indexes added to the mapping after a table was created are not picked up by createTable, so add them to
+     * the existing table. DynamoDB only accepts one index creation per UpdateTable call and rejects it while the
+     * table is busy; anything refused here is retried on the next start up. Until an added index has finished
+     * backfilling, GameRepository scans instead of querying it.
+     */
+    private void createMissingIndexes(CreateTableRequest request, TableDescription table) {
+        if (request.getGlobalSecondaryIndexes() == null
+                || !TableStatus.ACTIVE.toString().equals(table.getTableStatus())) {
+            return;
+        }
+        Set<String> existingIndexes = new HashSet<>();
+        if (table.getGlobalSecondaryIndexes() != null) {
+            for (GlobalSecondaryIndexDescription index : table.getGlobalSecondaryIndexes()) {
+                existingIndexes.add(index.getIndexName());
+            }
+        }
+        for (GlobalSecondaryIndex index : request.getGlobalSecondaryIndexes()) {
+            if (existingIndexes.contains(index.getIndexName())) {
+                continue;
+            }
+            UpdateTableRequest update = new UpdateTableRequest()
+                    .withTableName(request.getTableName())
+                    .withAttributeDefinitions(request.getAttributeDefinitions())
+                    .withGlobalSecondaryIndexUpdates(new GlobalSecondaryIndexUpdate()
+                            .withCreate(new CreateGlobalSecondaryIndexAction()
+                                    .withIndexName(index.getIndexName())
+                                    .withKeySchema(index.getKeySchema())
+                                    .withProjection(index.getProjection())
+                                    .withProvisionedThroughput(index.getProvisionedThroughput())));
+            try {
+                dynamoDB.updateTable(update);
+                log.info("Index creation triggered {}, {}", request.getTableName(), index.getIndexName());
+            } catch (LimitExceededException | ResourceInUseException e) {
+                log.warn("Index creation deferred {}, {}: {}", request.getTableName(), index.getIndexName(), e.getMessage());
+                return;
+            }
+        }
+    }
 }
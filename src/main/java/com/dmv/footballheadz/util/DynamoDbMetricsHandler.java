@@ -0,0 +1,144 @@
+package com.dmv.footballheadz.util;
+
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.services.dynamodbv2.model.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Asks DynamoDB for the capacity every call consumes and records it, along with the items each scan and query
+ * read against the items it returned. A large gap between the two is a filter doing the work a key should.
+ * The same figures are added to the {@link DynamoDbUsage} of the request being handled, if any.
+ */
+public class DynamoDbMetricsHandler extends RequestHandler2 {
+
+    static final String CAPACITY = "dynamodb.capacity.consumed";
+    static final String SCANNED = "dynamodb.items.scanned";
+    static final String RETURNED = "dynamodb.items.returned";
+
+    private final MeterRegistry registry;
+
+    public DynamoDbMetricsHandler(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public AmazonWebServiceRequest beforeExecution(AmazonWebServiceRequest request) {
+        if (request instanceof ScanRequest && ((ScanRequest) request).getReturnConsumedCapacity() == null) {
+            ((ScanRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        } else if (request instanceof QueryRequest && ((QueryRequest) request).getReturnConsumedCapacity() == null) {
+            ((QueryRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        } else if (request instanceof GetItemRequest && ((GetItemRequest) request).getReturnConsumedCapacity() == null) {
+            ((GetItemRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        } else if (request instanceof PutItemRequest && ((PutItemRequest) request).getReturnConsumedCapacity() == null) {
+            ((PutItemRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        } else if (request instanceof UpdateItemRequest && ((UpdateItemRequest) request).getReturnConsumedCapacity() == null) {
+            ((UpdateItemRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        } else if (request instanceof DeleteItemRequest && ((DeleteItemRequest) request).getReturnConsumedCapacity() == null) {
+            ((DeleteItemRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        } else if (request instanceof BatchGetItemRequest && ((BatchGetItemRequest) request).getReturnConsumedCapacity() == null) {
+            ((BatchGetItemRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        } else if (request instanceof BatchWriteItemRequest && ((BatchWriteItemRequest) request).getReturnConsumedCapacity() == null) {
+            ((BatchWriteItemRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        }
+        return request;
+    }
+
+    @Override
+    public void afterResponse(Request<?> request, Response<?> response) {
+        Object result = response == null ? null : response.getAwsResponse();
+        if (result == null) {
+            return;
+        }
+        DynamoDbUsage usage = DynamoDbUsage.current();
+        if (usage != null) {
+            usage.recordCall();
+        }
+        String operation = operationOf(request.getOriginalRequest());
+        String index = "none";
+        List<ConsumedCapacity> capacity = Collections.emptyList();
+        if (result instanceof ScanResult) {
+            ScanResult scan = (ScanResult) result;
+            index = indexOf(((ScanRequest) request.getOriginalRequest()).getIndexName());
+            record(usage, operation, index, scan.getScannedCount(), scan.getCount());
+            capacity = Collections.singletonList(scan.getConsumedCapacity());
+        } else if (result instanceof QueryResult) {
+            QueryResult query = (QueryResult) result;
+            index = indexOf(((QueryRequest) request.getOriginalRequest()).getIndexName());
+            record(usage, operation, index, query.getScannedCount(), query.getCount());
+            capacity = Collections.singletonList(query.getConsumedCapacity());
+        } else if (result instanceof GetItemResult) {
+            capacity = Collections.singletonList(((GetItemResult) result).getConsumedCapacity());
+        } else if (result instanceof PutItemResult) {
+            capacity = Collections.singletonList(((PutItemResult) result).getConsumedCapacity());
+        } else if (result instanceof UpdateItemResult) {
+            capacity = Collections.singletonList(((UpdateItemResult) result).getConsumedCapacity());
+        } else if (result instanceof DeleteItemResult) {
+            capacity = Collections.singletonList(((DeleteItemResult) result).getConsumedCapacity());
+        } else if (result instanceof BatchGetItemResult) {
+            capacity = nonNull(((BatchGetItemResult) result).getConsumedCapacity());
+        } else if (result instanceof BatchWriteItemResult) {
+            capacity = nonNull(((BatchWriteItemResult) result).getConsumedCapacity());
+        }
+        for (ConsumedCapacity consumed : capacity) {
+            if (consumed != null && consumed.getCapacityUnits() != null) {
+                Counter.builder(CAPACITY)
+                        .tag("operation", operation)
+                        .tag("table", String.valueOf(consumed.getTableName()))
+                        .tag("index", index)
+                        .register(registry)
+                        .increment(consumed.getCapacityUnits());
+                if (usage != null && isWrite(result)) {
+                    usage.recordWrite(consumed.getCapacityUnits());
+                } else if (usage != null) {
+                    usage.recordRead(consumed.getCapacityUnits());
+                }
+            }
+        }
+    }
+
+    private void record(DynamoDbUsage usage, String operation, String index, Integer scanned, Integer returned) {
+        if (usage != null) {
+            usage.recordItems(scanned == null ? 0 : scanned, returned == null ? 0 : returned);
+        }
+        if (scanned != null) {
+            summary(SCANNED, operation, index).record(scanned);
+        }
+        if (returned != null) {
+            summary(RETURNED, operation, index).record(returned);
+        }
+    }
+
+    private DistributionSummary summary(String name, String operation, String index) {
+        return DistributionSummary.builder(name)
+                .baseUnit("items")
+                .tag("operation", operation)
+                .tag("index", index)
+                .register(registry);
+    }
+
+    private static boolean isWrite(Object result) {
+        return result instanceof PutItemResult || result instanceof UpdateItemResult
+                || result instanceof DeleteItemResult || result instanceof BatchWriteItemResult;
+    }
+
+    private static String operationOf(AmazonWebServiceRequest request) {
+        String name = request.getClass().getSimpleName();
+        return name.endsWith("Request") ? name.substring(0, name.length() - "Request".length()) : name;
+    }
+
+    private static String indexOf(String indexName) {
+        return indexName == null ? "none" : indexName;
+    }
+
+    private static <T> List<T> nonNull(List<T> list) {
+        return list == null ? Collections.<T>emptyList() : list;
+    }
+}
@@ -0,0 +1,99 @@
+package com.dmv.footballheadz.util;
+
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.metrics.RequestMetricCollector;
+import com.amazonaws.util.AWSRequestMetrics;
+import com.amazonaws.util.TimingInfo;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client side metrics of every DynamoDB call made through the v1 client: attempts, retries, throttling, errors,
+ * time spent and how busy the connection pool was. Recording is a handful of adds per call.
+ */
+public class DynamoDbRequestMetricCollector extends RequestMetricCollector {
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder throttles = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder clientExecuteMillis = new LongAdder();
+    private final LongAccumulator maxClientExecuteMillis = new LongAccumulator(Math::max, 0);
+    private volatile int poolLeased;
+    private volatile int poolPending;
+
+    @Override
+    public void collectMetrics(Request<?> request, Response<?> response) {
+        AWSRequestMetrics metrics = request.getAWSRequestMetrics();
+        if (metrics == null) {
+            return;
+        }
+        TimingInfo timing = metrics.getTimingInfo();
+        requests.increment();
+        Number attempts = timing.getCounter(AWSRequestMetrics.Field.RequestCount.name());
+        if (attempts != null && attempts.longValue() > 1) {
+            retries.add(attempts.longValue() - 1);
+        }
+        Number throttled = timing.getCounter(AWSRequestMetrics.Field.ThrottleException.name());
+        if (throttled != null) {
+            throttles.add(throttled.longValue());
+        }
+        if (response == null) {
+            errors.increment();
+        }
+        TimingInfo execute = timing.getSubMeasurement(AWSRequestMetrics.Field.ClientExecuteTime.name());
+        if (execute != null && execute.getTimeTakenMillisIfKnown() != null) {
+            long millis = execute.getTimeTakenMillisIfKnown().longValue();
+            clientExecuteMillis.add(millis);
+            maxClientExecuteMillis.accumulate(millis);
+        }
+        Number leased = timing.getCounter(AWSRequestMetrics.Field.HttpClientPoolLeasedCount.name());
+        if (leased != null) {
+            poolLeased = leased.intValue();
+        }
+        Number pending = timing.getCounter(AWSRequestMetrics.Field.HttpClientPoolPendingCount.name());
+        if (pending != null) {
+            poolPending = pending.intValue();
+        }
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    public long getThrottleCount() {
+        return throttles.sum();
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    public long getClientExecuteMillis() {
+        return clientExecuteMillis.sum();
+    }
+
+    public long getMaxClientExecuteMillis() {
+        return maxClientExecuteMillis.get();
+    }
+
+    /**
+     * Connections in use, as of the most recent call.
+     */
+    public int getPoolLeased() {
+        return poolLeased;
+    }
+
+    /**
+     * Calls waiting for a connection, as of the most recent call; above zero means the pool is too small.
+     */
+    public int getPoolPending() {
+        return poolPending;
+    }
+}
@@ -0,0 +1,108 @@
+package com.dmv.footballheadz.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What the DynamoDB calls made on behalf of one request cost: capacity units consumed, items read and items
+ * returned. The usage of the request being handled is bound to its thread; work handed to another thread is
+ * counted against the same request by wrapping it with {@link #propagate(Callable)}.
+ */
+public final class DynamoDbUsage {
+
+    private static final ThreadLocal<DynamoDbUsage> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder calls = new LongAdder();
+    private final DoubleAdder readCapacity = new DoubleAdder();
+    private final DoubleAdder writeCapacity = new DoubleAdder();
+    private final LongAdder scanned = new LongAdder();
+    private final LongAdder returned = new LongAdder();
+
+    /**
+     * Starts counting against a new usage on this thread, replacing any already bound.
+     */
+    public static DynamoDbUsage begin() {
+        DynamoDbUsage usage = new DynamoDbUsage();
+        CURRENT.set(usage);
+        return usage;
+    }
+
+    /**
+     * Counts against {@code usage} on this thread, e.g. that of a request whose body is written on it.
+     */
+    public static void bind(DynamoDbUsage usage) {
+        CURRENT.set(usage);
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * The usage bound to this thread, null outside of a request.
+     */
+    public static DynamoDbUsage current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Wraps a task so that the calls it makes count against the usage bound to the calling thread.
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        DynamoDbUsage usage = CURRENT.get();
+        if (usage == null) {
+            return task;
+        }
+        return () -> {
+            DynamoDbUsage previous = CURRENT.get();
+            CURRENT.set(usage);
+            try {
+                return task.call();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    public void recordCall() {
+        calls.increment();
+    }
+
+    public void recordRead(double capacityUnits) {
+        readCapacity.add(capacityUnits);
+    }
+
+    public void recordWrite(double capacityUnits) {
+        writeCapacity.add(capacityUnits);
+    }
+
+    public void recordItems(long scannedCount, long returnedCount) {
+        scanned.add(scannedCount);
+        returned.add(returnedCount);
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public double getReadCapacity() {
+        return readCapacity.sum();
+    }
+
+    public double getWriteCapacity() {
+        return writeCapacity.sum();
+    }
+
+    public long getScannedCount() {
+        return scanned.sum();
+    }
+
+    public long getReturnedCount() {
+        return returned.sum();
+    }
+}
@@ -0,0 +1,150 @@
+package com.dmv.footballheadz.util;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+/**
+ * Counts the DynamoDB usage of every request and records it per endpoint, so the cost of each query shape can
+ * be watched before it throttles the table. Requests consuming more than game.usage.warn-capacity units are
+ * logged. The totals are also returned to the caller by {@link DynamoDbUsageHeaders}.
+ *
+ * A body written on another thread, such as a StreamingResponseBody, counts against its request too, and the
+ * request is recorded once that async processing completes. Its headers are sent before the body is written,
+ * so the totals follow it as trailer fields instead, where the client and protocol support them.
+ */
+@Component
+public class DynamoDbUsageFilter extends OncePerRequestFilter {
+
+    static final String READ_CAPACITY = "game.request.capacity.read";
+    static final String WRITE_CAPACITY = "game.request.capacity.write";
+    static final String SCANNED = "game.request.items.scanned";
+    static final String RETURNED = "game.request.items.returned";
+
+    private static final String USAGE_INTERCEPTOR = DynamoDbUsageFilter.class.getName();
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${game.usage.warn-capacity:100}")
+    private double warnCapacity;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        DynamoDbUsage usage = DynamoDbUsage.begin();
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(USAGE_INTERCEPTOR, new UsageBinding(usage));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            DynamoDbUsage.end();
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        recordIfUsed(request, usage);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                recordIfUsed(request, usage);
+            }
+        }
+    }
+
+    private void recordIfUsed(HttpServletRequest request, DynamoDbUsage usage) {
+        if (usage.getCalls() > 0) {
+            record(request, usage);
+        }
+    }
+
+    private void record(HttpServletRequest request, DynamoDbUsage usage) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        summary(READ_CAPACITY, "capacityUnits", request, uri).record(usage.getReadCapacity());
+        summary(WRITE_CAPACITY, "capacityUnits", request, uri).record(usage.getWriteCapacity());
+        summary(SCANNED, "items", request, uri).record(usage.getScannedCount());
+        summary(RETURNED, "items", request, uri).record(usage.getReturnedCount());
+        if (usage.getReadCapacity() + usage.getWriteCapacity() > warnCapacity) {
+            log.warn("{} {} consumed {} read and {} write capacity units, scanning {} items to return {}",
+                    request.getMethod(), request.getRequestURI(), usage.getReadCapacity(), usage.getWriteCapacity(),
+                    usage.getScannedCount(), usage.getReturnedCount());
+        }
+    }
+
+    private DistributionSummary summary(String name, String unit, HttpServletRequest request, String uri) {
+        return DistributionSummary.builder(name)
+                .baseUnit(unit)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry);
+    }
+
+    /**
+     * Binds a request's usage to the thread its Callable or StreamingResponseBody runs on, and announces the
+     * trailer fields that carry the totals once the body is written.
+     */
+    private static final class UsageBinding implements CallableProcessingInterceptor {
+
+        private final DynamoDbUsage usage;
+
+        private UsageBinding(DynamoDbUsage usage) {
+            this.usage = usage;
+        }
+
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+            HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+            if (response == null || response.isCommitted()) {
+                return;
+            }
+            try {
+                response.setTrailerFields(() -> DynamoDbUsageHeaders.valuesOf(usage));
+                response.setHeader("Trailer", String.join(", ", DynamoDbUsageHeaders.valuesOf(usage).keySet()));
+            } catch (IllegalStateException e) {
+                // no trailers over HTTP/1.0
+            }
+        }
+
+        @Override
+        public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+            DynamoDbUsage.bind(usage);
+        }
+
+        @Override
+        public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+            DynamoDbUsage.end();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.dmv.footballheadz.util;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Adds the DynamoDB usage of the request to its response headers. Headers have to be set before the body is
+ * written, which is the last point the usage is still growing, so responses without a body carry none.
+ */
+@ControllerAdvice
+public class DynamoDbUsageHeaders implements ResponseBodyAdvice<Object> {
+
+    public static final String READ_CAPACITY = "X-DynamoDB-Read-Capacity";
+    public static final String WRITE_CAPACITY = "X-DynamoDB-Write-Capacity";
+    public static final String SCANNED_COUNT = "X-DynamoDB-Scanned-Count";
+    public static final String RETURNED_COUNT = "X-DynamoDB-Returned-Count";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        DynamoDbUsage usage = DynamoDbUsage.current();
+        if (usage != null) {
+            HttpHeaders headers = response.getHeaders();
+            valuesOf(usage).forEach(headers::set);
+        }
+        return body;
+    }
+
+    /**
+     * The header names and values describing {@code usage}.
+     */
+    static Map<String, String> valuesOf(DynamoDbUsage usage) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put(READ_CAPACITY, format(usage.getReadCapacity()));
+        values.put(WRITE_CAPACITY, format(usage.getWriteCapacity()));
+        values.put(SCANNED_COUNT, Long.toString(usage.getScannedCount()));
+        values.put(RETURNED_COUNT, Long.toString(usage.getReturnedCount()));
+        return values;
+    }
+
+    private static String format(double capacityUnits) {
+        return String.format(Locale.ROOT, "%.1f", capacityUnits);
+    }
+}
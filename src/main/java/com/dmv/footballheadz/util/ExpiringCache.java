@@ -0,0 +1,133 @@
+package com.dmv.footballheadz.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Small bounded cache evicting the least recently used entry once full and any entry older than its time to live.
+ */
+public class ExpiringCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final Map<K, Entry<V>> entries;
+
+    /**
+     * Advanced by every put and invalidation; see {@link #putIfUnchanged}.
+     */
+    private long sequence;
+
+    private long lastInvalidation;
+
+    public ExpiringCache(int maxSize, long ttl, TimeUnit unit) {
+        this(maxSize, ttl, unit, System::nanoTime);
+    }
+
+    ExpiringCache(int maxSize, long ttl, TimeUnit unit, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.clock = clock;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, ExpiringCache.Entry<V>> eldest) {
+                if (size() > ExpiringCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized Optional<V> get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        if (clock.getAsLong() - entry.created > ttlNanos) {
+            entries.remove(key);
+            evictions.increment();
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.value);
+    }
+
+    public synchronized void put(K key, V value) {
+        if (maxSize <= 0) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, clock.getAsLong(), ++sequence));
+    }
+
+    /**
+     * Taken before loading a value that missed, to hand to {@link #putIfUnchanged} once it is loaded.
+     */
+    public synchronized long mark() {
+        return sequence;
+    }
+
+    /**
+     * Puts a value loaded after {@code mark} was taken, unless {@code key} was put or anything was invalidated
+     * since: a write racing the load may have stored something newer than what was loaded.
+     */
+    public synchronized boolean putIfUnchanged(K key, V value, long mark) {
+        Entry<V> entry = entries.get(key);
+        if (lastInvalidation > mark || (entry != null && entry.sequence > mark)) {
+            return false;
+        }
+        put(key, value);
+        return true;
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+        lastInvalidation = ++sequence;
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        lastInvalidation = ++sequence;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private final long created;
+        private final long sequence;
+
+        private Entry(V value, long created, long sequence) {
+            this.value = value;
+            this.created = created;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.dmv.footballheadz.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Times every call into a service or repository, tagged with the method and the exception it failed with, if
+ * any. Histograms are published so percentiles can be aggregated across instances. Async repository calls are
+ * timed until their future completes.
+ */
+@Aspect
+@Component
+public class GameMetricsAspect {
+
+    static final String SERVICE_TIMER = "game.service";
+    static final String REPOSITORY_TIMER = "game.repository";
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Around("execution(public * com.dmv.footballheadz.game.IService+.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(SERVICE_TIMER, joinPoint);
+    }
+
+    @Around("execution(public * com.dmv.footballheadz.game.IRepository+.*(..))"
+            + " || execution(public * com.dmv.footballheadz.game.IAsyncRepository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(REPOSITORY_TIMER, joinPoint);
+    }
+
+    private Object time(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(registry);
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            sample.stop(timer(name, method, e));
+            throw e;
+        }
+        if (result instanceof CompletionStage) {
+            ((CompletionStage<?>) result).whenComplete((value, e) -> sample.stop(timer(name, method, e)));
+        } else {
+            sample.stop(timer(name, method, null));
+        }
+        return result;
+    }
+
+    private Timer timer(String name, String method, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null
+                ? e.getCause() : e;
+        return Timer.builder(name)
+                .tag("method", method)
+                .tag("exception", cause == null ? "none" : cause.getClass().getSimpleName())
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
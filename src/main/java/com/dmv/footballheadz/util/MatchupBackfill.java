@@ -0,0 +1,53 @@
+package com.dmv.footballheadz.util;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.model.ResourceNotFoundException;
+import com.dmv.footballheadz.game.impl.Game;
+import com.dmv.footballheadz.game.impl.GameRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * One-off backfill of the Matchup and SeasonWeek attributes for games saved before the matchup index existed.
+ * Saving a game recomputes both attributes, so it is enough to re-save every game that is missing them.
+ * Enabled with game.backfill.matchup=true.
+ */
+@Component
+@Profile("!in-memory")
+public class MatchupBackfill implements ApplicationListener<ContextRefreshedEvent> {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    private GameRepository repository;
+
+    @Value("${game.backfill.matchup:false}")
+    private boolean enabled;
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        log.trace("Entering backfillMatchups()");
+        if (!enabled) {
+            return;
+        }
+        DynamoDBScanExpression dynamoDBScanExpression = new DynamoDBScanExpression()
+                .withFilterExpression("attribute_not_exists(Matchup) and attribute_exists(HomeTeam) and attribute_exists(AwayTeam)");
+        try {
+            List<Game> games = repository.readExpression(dynamoDBScanExpression);
+            for (Game game : games) {
+                repository.save(game);
+            }
+            log.info("Matchup backfill updated {} games", games.size());
+        } catch (ResourceNotFoundException e) {
+            log.warn("Matchup backfill skipped, table not ready: {}", e.getMessage());
+        }
+    }
+}
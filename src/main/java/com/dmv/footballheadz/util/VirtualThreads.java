@@ -0,0 +1,60 @@
+package com.dmv.footballheadz.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Access to virtual threads while the code still compiles for Java 8. Looked up reflectively so the same build
+ * runs on both; on a JDK without virtual threads there simply is no such executor.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * An executor starting a new virtual thread per task, if the running JDK has them.
+     */
+    public static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+        Method factory;
+        try {
+            factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of((ExecutorService) factory.invoke(null));
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not create a virtual thread executor", e);
+        }
+    }
+
+    /**
+     * {@code target} with at most {@code permits} calls through {@code type} in flight; further callers wait for
+     * a permit. A virtual thread waiting on a {@link Semaphore} is parked and frees its carrier, whereas one
+     * waiting for a connection inside a client's synchronized pool pins it, and once every carrier is pinned no
+     * virtual thread runs, not even the ones that would return a connection.
+     */
+    public static <T> T bounded(Class<T> type, T target, int permits) {
+        Semaphore inFlight = new Semaphore(permits, true);
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(target, args);
+            }
+            inFlight.acquire();
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                inFlight.release();
+            }
+        });
+        return type.cast(proxy);
+    }
+}
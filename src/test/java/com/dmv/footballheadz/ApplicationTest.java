@@ -1,12 +1,46 @@
 package com.dmv.footballheadz;
 
+import com.amazonaws.services.dynamodbv2.local.main.ServerRunner;
+import com.amazonaws.services.dynamodbv2.local.server.DynamoDBProxyServer;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
+import java.net.ServerSocket;
+
+/**
+ * Loads the whole context against an in memory DynamoDB Local, so start up, table creation included, runs
+ * without AWS credentials or network access.
+ */
 @SpringBootTest
 class ApplicationTest {
 
+    private static DynamoDBProxyServer dynamoDbLocal;
+
+    @DynamicPropertySource
+    static void dynamoDbLocal(DynamicPropertyRegistry registry) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        dynamoDbLocal = ServerRunner.createServerFromCommandLineArgs(
+                new String[]{"-inMemory", "-disableTelemetry", "-port", Integer.toString(port)});
+        dynamoDbLocal.start();
+        registry.add("amazon.dynamodb.endpoint", () -> "http://localhost:" + port);
+        registry.add("amazon.aws.accesskey", () -> "test");
+        registry.add("amazon.aws.secretkey", () -> "test");
+    }
+
+    @AfterAll
+    static void stopDynamoDbLocal() throws Exception {
+        if (dynamoDbLocal != null) {
+            dynamoDbLocal.stop();
+        }
+    }
+
     @Test
     void contextLoads(){
     }
-}
\ No newline at end of file
+}
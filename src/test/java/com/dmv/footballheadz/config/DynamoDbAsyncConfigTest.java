@@ -0,0 +1,29 @@
+package com.dmv.footballheadz.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class DynamoDbAsyncConfigTest {
+
+    private final DynamoDbAsyncConfig config = new DynamoDbAsyncConfig();
+
+    @Test
+    public void credentialsProviderShouldUseConfiguredKeys() throws Exception {
+        ReflectionTestUtils.setField(config, "amazonAWSAccessKey", "key");
+        ReflectionTestUtils.setField(config, "amazonAWSSecretKey", "secret");
+        assertThat(config.credentialsProvider(), is(instanceOf(StaticCredentialsProvider.class)));
+    }
+
+    @Test
+    public void credentialsProviderShouldFallBackToDefaultChainWithoutKeys() throws Exception {
+        ReflectionTestUtils.setField(config, "amazonAWSAccessKey", "");
+        ReflectionTestUtils.setField(config, "amazonAWSSecretKey", "");
+        assertThat(config.credentialsProvider(), is(instanceOf(DefaultCredentialsProvider.class)));
+    }
+}
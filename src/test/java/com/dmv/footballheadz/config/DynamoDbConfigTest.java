@@ -1,6 +1,72 @@
 package com.dmv.footballheadz.config;
 
-import static org.junit.jupiter.api.Assertions.*;
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.auth.DefaultAWSCredentialsProviderChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
 class DynamoDbConfigTest {
 
-}
\ No newline at end of file
+    private final DynamoDbConfig config = new DynamoDbConfig();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        ReflectionTestUtils.setField(config, "maxConnections", 300);
+        ReflectionTestUtils.setField(config, "connectionTtlMillis", 60000L);
+        ReflectionTestUtils.setField(config, "connectionMaxIdleMillis", 30000L);
+        ReflectionTestUtils.setField(config, "connectionTimeoutMillis", 1000);
+        ReflectionTestUtils.setField(config, "socketTimeoutMillis", 4000);
+        ReflectionTestUtils.setField(config, "requestTimeoutMillis", 4500);
+        ReflectionTestUtils.setField(config, "clientExecutionTimeoutMillis", 15000);
+        ReflectionTestUtils.setField(config, "tcpKeepAlive", true);
+        ReflectionTestUtils.setField(config, "maxErrorRetry", 7);
+        ReflectionTestUtils.setField(config, "retryBaseDelayMillis", 25);
+        ReflectionTestUtils.setField(config, "retryThrottledBaseDelayMillis", 500);
+        ReflectionTestUtils.setField(config, "retryMaxBackoffMillis", 20000);
+    }
+
+    @Test
+    public void clientConfigurationShouldBindEverySetting() throws Exception {
+        ClientConfiguration configuration = config.clientConfiguration();
+        assertThat(configuration.getMaxConnections(), is(300));
+        assertThat(configuration.getConnectionTTL(), is(60000L));
+        assertThat(configuration.getConnectionMaxIdleMillis(), is(30000L));
+        assertThat(configuration.getConnectionTimeout(), is(1000));
+        assertThat(configuration.getSocketTimeout(), is(4000));
+        assertThat(configuration.getRequestTimeout(), is(4500));
+        assertThat(configuration.getClientExecutionTimeout(), is(15000));
+        assertThat(configuration.useTcpKeepAlive(), is(true));
+        assertThat(configuration.useThrottledRetries(), is(true));
+        assertThat(configuration.getRetryPolicy().getMaxErrorRetry(), is(7));
+    }
+
+    @Test
+    public void credentialsProviderShouldUseConfiguredKeys() throws Exception {
+        ReflectionTestUtils.setField(config, "amazonAWSAccessKey", "key");
+        ReflectionTestUtils.setField(config, "amazonAWSSecretKey", "secret");
+        assertThat(config.amazonAWSCredentialsProvider(new BasicAWSCredentials("key", "secret")),
+                is(instanceOf(AWSStaticCredentialsProvider.class)));
+    }
+
+    @Test
+    public void credentialsProviderShouldFallBackToDefaultChainWithoutKeys() throws Exception {
+        ReflectionTestUtils.setField(config, "amazonAWSAccessKey", "");
+        assertThat(config.amazonAWSCredentialsProvider(new BasicAWSCredentials("", "")),
+                is(instanceOf(DefaultAWSCredentialsProviderChain.class)));
+    }
+
+    @Test
+    public void credentialsProviderShouldFallBackToDefaultChainWithOnlyAnAccessKey() throws Exception {
+        ReflectionTestUtils.setField(config, "amazonAWSAccessKey", "key");
+        ReflectionTestUtils.setField(config, "amazonAWSSecretKey", "");
+        assertThat(config.amazonAWSCredentialsProvider(new BasicAWSCredentials("key", "")),
+                is(instanceOf(DefaultAWSCredentialsProviderChain.class)));
+    }
+}
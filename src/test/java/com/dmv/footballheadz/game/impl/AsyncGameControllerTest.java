@@ -0,0 +1,159 @@
+package com.dmv.footballheadz.game.impl;
+
+import com.dmv.footballheadz.game.StaleVersionException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.*;
+
+@ExtendWith(SpringExtension.class)
+class AsyncGameControllerTest {
+
+    @InjectMocks
+    private AsyncGameController controller;
+
+    @Mock
+    private AsyncGameService service;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void readShouldReplyWithGameAndETagIfGameExists() throws Exception {
+
+        Game game = new Game().withId("1d2").withVersion(2L);
+        when(service.read("1d2")).thenReturn(CompletableFuture.completedFuture(Optional.of(game)));
+        ResponseEntity<Game> result = controller.read("1d2", null).get();
+        assertThat(result.getStatusCode(), is(OK));
+        assertThat(result.getBody(), is(game));
+        assertThat(result.getHeaders().getETag(), is("\"2\""));
+    }
+
+    @Test
+    public void readShouldReplyWithNotFoundIfNoSuchGame() throws Exception {
+
+        when(service.read("1d2")).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        assertThat(controller.read("1d2", null).get().getStatusCode(), is(NOT_FOUND));
+    }
+
+    @Test
+    public void readShouldReplyWithNotModifiedIfNoneMatchNamesTheVersion() throws Exception {
+
+        Game game = new Game().withId("1d2").withVersion(2L);
+        when(service.read("1d2")).thenReturn(CompletableFuture.completedFuture(Optional.of(game)));
+        ResponseEntity<Game> result = controller.read("1d2", "\"1\", W/\"2\"").get();
+        assertThat(result.getStatusCode(), is(NOT_MODIFIED));
+        assertThat(result.getBody(), is(nullValue()));
+        assertThat(result.getHeaders().getETag(), is("\"2\""));
+        assertThat(controller.read("1d2", "\"1\"").get().getStatusCode(), is(OK));
+        assertThat(controller.read("1d2", "*").get().getStatusCode(), is(NOT_MODIFIED));
+    }
+
+    @Test
+    public void createShouldReplyWithConflictIfGameAlreadyExists() throws Exception {
+
+        Game game = new Game().withId("1d2");
+        when(service.create(game)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        assertThat(controller.create(game).get().getStatusCode(), is(CONFLICT));
+    }
+
+    @Test
+    public void deleteShouldRespondWithNoContentIfDeleteSuccessful() throws Exception {
+
+        when(service.delete("1d2", null)).thenReturn(CompletableFuture.completedFuture(true));
+        assertThat(controller.delete("1d2", null).get().getStatusCode(), is(NO_CONTENT));
+    }
+
+    @Test
+    public void deleteShouldPassIfMatchVersionToService() throws Exception {
+
+        when(service.delete("1d2", 3L)).thenReturn(CompletableFuture.completedFuture(true));
+        assertThat(controller.delete("1d2", "\"3\"").get().getStatusCode(), is(NO_CONTENT));
+        assertThrows(StaleVersionException.class, () -> controller.delete("1d2", "W/\"3\""));
+    }
+
+    @Test
+    public void deleteShouldRequireTheStoredVersionOfSeveralIfMatchTags() throws Exception {
+
+        Game game = new Game().withId("1d2").withVersion(4L);
+        when(service.read("1d2")).thenReturn(CompletableFuture.completedFuture(Optional.of(game)));
+        when(service.delete("1d2", 4L)).thenReturn(CompletableFuture.completedFuture(true));
+        assertThat(controller.delete("1d2", "\"3\", \"4\"").get().getStatusCode(), is(NO_CONTENT));
+        assertThrows(StaleVersionException.class, () -> controller.delete("1d2", "\"5\", \"6\""));
+    }
+
+    @Test
+    public void staleVersionShouldReplyWithPreconditionFailed() {
+
+        assertThat(controller.staleVersion(new StaleVersionException("1d2", null)).getStatusCode(),
+                is(PRECONDITION_FAILED));
+    }
+
+    @Test
+    public void listOfGamesByTeamShouldRespondWithNoContentWhenNothingFound() throws Exception {
+
+        when(service.listOfGamesByTeam("GimmyDaLoot")).thenReturn(CompletableFuture.completedFuture(emptyList()));
+        assertThat(controller.listOfGamesByTeam("GimmyDaLoot", null).get().getStatusCode(), is(NO_CONTENT));
+    }
+
+    @Test
+    public void listOfGamesByTeamShouldTagTheListAndHonourIfNoneMatch() throws Exception {
+
+        List<Game> games = asList(new Game().withId("1d2").withHomeTeam("GimmyDaLoot").withVersion(1L));
+        when(service.listOfGamesByTeam("GimmyDaLoot")).thenReturn(CompletableFuture.completedFuture(games));
+        ResponseEntity<List<Game>> result = controller.listOfGamesByTeam("GimmyDaLoot", null).get();
+        assertThat(result.getStatusCode(), is(OK));
+        String eTag = GameController.listETagOf(objectMapper, games);
+        assertThat(result.getHeaders().getETag(), is(eTag));
+        ResponseEntity<List<Game>> notModified = controller.listOfGamesByTeam("GimmyDaLoot", eTag).get();
+        assertThat(notModified.getStatusCode(), is(NOT_MODIFIED));
+        assertThat(notModified.getHeaders().getETag(), is(eTag));
+    }
+
+    @Test
+    public void headToHeadShouldRespondWithTheRecordAndGamesLikeV1() throws Exception {
+
+        List<Game> games = asList(new Game().withId("1d2").withHomeTeam("team1").withAwayTeam("team2")
+                .withHomeTeamPts(100.0).withAwayTeamPts(90.0));
+        when(service.listOfGamesByTeams("team1", "team2")).thenReturn(CompletableFuture.completedFuture(games));
+        ResponseEntity<HeadToHead> result = controller.headToHead(asList("team1", "team2"), null).get();
+        assertThat(result.getStatusCode(), is(OK));
+        assertThat(result.getBody().getRecord(), is("team1 : 1 - team2 : 0"));
+        assertThat(result.getBody().getGames(), is(games));
+        assertThat(result.getHeaders().getETag(), is(GameController.listETagOf(objectMapper, result.getBody())));
+        String eTag = result.getHeaders().getETag();
+        assertThat(controller.headToHead(asList("team1", "team2"), eTag).get().getStatusCode(), is(NOT_MODIFIED));
+    }
+
+    @Test
+    public void headToHeadShouldRespondWithNoContentWhenTheTeamsNeverPlayed() throws Exception {
+
+        when(service.listOfGamesByTeams("team1", "team2")).thenReturn(CompletableFuture.completedFuture(emptyList()));
+        assertThat(controller.headToHead(asList("team1", "team2"), null).get().getStatusCode(), is(NO_CONTENT));
+    }
+
+    @Test
+    public void headToHeadShouldRespondWithBadRequestUnlessTwoTeams() throws Exception {
+
+        assertThat(controller.headToHead(asList("team1"), null).get().getStatusCode(), is(BAD_REQUEST));
+        verifyNoInteractions(service);
+    }
+}
@@ -0,0 +1,212 @@
+package com.dmv.footballheadz.game.impl;
+
+import com.dmv.footballheadz.game.StaleVersionException;
+import com.dmv.footballheadz.util.ExpiringCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import software.amazon.awssdk.core.async.SdkPublisher;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncIndex;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.DeleteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.GetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.PagePublisher;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class AsyncGameRepositoryTest {
+
+    @Mock
+    private DynamoDbAsyncTable<Game> table;
+
+    @Spy
+    private ExpiringCache<String, Game> cache = new ExpiringCache<>(10, 1, TimeUnit.MINUTES);
+
+    @Mock
+    private GameIndexStatus indexStatus;
+
+    @InjectMocks
+    private AsyncGameRepository repository;
+
+    @Test
+    public void readShouldLoadOnceAndServeRepeatedReadsFromCache() throws Exception {
+        Game game = new Game().withId("1d").withWeek("1");
+        when(table.getItem(any(Key.class))).thenReturn(CompletableFuture.completedFuture(game));
+        assertThat(repository.read("1d").get(), is(Optional.of(game)));
+        assertThat(repository.read("1d").get(), is(Optional.of(game)));
+        verify(table, times(1)).getItem(any(Key.class));
+    }
+
+    @Test
+    public void readShouldReturnEmptyOptionalWhenNoResult() throws Exception {
+        when(table.getItem(any(Key.class))).thenReturn(CompletableFuture.completedFuture(null));
+        assertThat(repository.read("1d").get(), is(Optional.empty()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void readIndexShouldCollectEveryPage() throws Exception {
+        Game game1 = new Game().withId("1d").withHomeTeam("GimmyDaLoot");
+        Game game2 = new Game().withId("2d").withHomeTeam("GimmyDaLoot");
+        DynamoDbAsyncIndex<Game> index = mock(DynamoDbAsyncIndex.class);
+        SdkPublisher<Page<Game>> pages = mock(SdkPublisher.class);
+        when(indexStatus.isActive(Game.HOME_TEAM_INDEX)).thenReturn(true);
+        when(table.index(Game.HOME_TEAM_INDEX)).thenReturn(index);
+        when(index.query(any(QueryConditional.class))).thenReturn(pages);
+        publish(pages, asList(game1), asList(game2));
+        List<Game> result = repository.readIndex(Game.HOME_TEAM_INDEX, "GimmyDaLoot").get();
+        assertThat(result, is(asList(game1, game2)));
+        verify(table, never()).scan(any(ScanEnhancedRequest.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void readIndexShouldScanWhileTheIndexIsBackfilling() throws Exception {
+        Game game = new Game().withId("1d").withAwayTeam("GimmyDaLoot");
+        PagePublisher<Game> pages = mock(PagePublisher.class);
+        when(indexStatus.isActive(Game.AWAY_TEAM_INDEX)).thenReturn(false);
+        when(table.scan(any(ScanEnhancedRequest.class))).thenReturn(pages);
+        publish(pages, asList(game));
+        assertThat(repository.readIndex(Game.AWAY_TEAM_INDEX, "GimmyDaLoot").get(), is(asList(game)));
+        verify(table, never()).index(anyString());
+    }
+
+    @Test
+    public void readIndexShouldRejectTheMatchupIndex() {
+        assertThrows(IllegalArgumentException.class, () -> repository.readIndex(Game.MATCHUP_INDEX, "a#b"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void readMatchupShouldQueryTheIndexRegardlessOfTeamOrder() throws Exception {
+        DynamoDbAsyncIndex<Game> index = mock(DynamoDbAsyncIndex.class);
+        SdkPublisher<Page<Game>> pages = mock(SdkPublisher.class);
+        when(indexStatus.isActive(Game.MATCHUP_INDEX)).thenReturn(true);
+        when(table.index(Game.MATCHUP_INDEX)).thenReturn(index);
+        when(index.query(any(QueryConditional.class))).thenReturn(pages);
+        publish(pages);
+        repository.readMatchup("HogPit", "GimmyDaLoot").get();
+        ArgumentCaptor<QueryConditional> condition = ArgumentCaptor.forClass(QueryConditional.class);
+        verify(index).query(condition.capture());
+        assertThat(condition.getValue(), is(QueryConditional.keyEqualTo(
+                Key.builder().partitionValue(Game.matchupKey("GimmyDaLoot", "HogPit")).build())));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void readMatchupShouldScanInScheduleOrderWhileTheIndexIsBackfilling() throws Exception {
+        Game week2 = new Game().withId("2d").withHomeTeam("HogPit").withAwayTeam("GimmyDaLoot")
+                .withYear("2019").withWeek("2");
+        Game week1 = new Game().withId("1d").withHomeTeam("GimmyDaLoot").withAwayTeam("HogPit")
+                .withYear("2019").withWeek("1");
+        PagePublisher<Game> pages = mock(PagePublisher.class);
+        when(indexStatus.isActive(Game.MATCHUP_INDEX)).thenReturn(false);
+        when(table.scan(any(ScanEnhancedRequest.class))).thenReturn(pages);
+        publish(pages, asList(week2, week1));
+        assertThat(repository.readMatchup("HogPit", "GimmyDaLoot").get(), is(asList(week1, week2)));
+        verify(table, never()).index(anyString());
+    }
+
+    @Test
+    public void saveShouldAdvanceVersionAndRefreshCache() throws Exception {
+        Game game = new Game().withId("1d").withWeek("1");
+        when(table.putItem(game)).thenReturn(CompletableFuture.completedFuture(null));
+        repository.save(game).get();
+        assertThat(game.getVersion(), is(1L));
+        assertThat(repository.read("1d").get().get(), is(equalTo(game)));
+        verify(table, never()).getItem(any(Key.class));
+    }
+
+    @Test
+    public void saveShouldCompleteWithStaleVersionWhenIdIsTaken() throws Exception {
+        Game game = new Game().withId("1d");
+        CompletableFuture<Void> failed = new CompletableFuture<>();
+        failed.completeExceptionally(ConditionalCheckFailedException.builder().message("Simulated failure").build());
+        when(table.putItem(game)).thenReturn(failed);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> repository.save(game).get());
+        assertThat(e.getCause(), is(instanceOf(StaleVersionException.class)));
+    }
+
+    @Test
+    public void deleteShouldReturnPreviousGameAndInvalidateCache() throws Exception {
+        Game game = new Game().withId("1d");
+        cache.put("1d", game);
+        when(table.deleteItem(any(DeleteItemEnhancedRequest.class))).thenReturn(CompletableFuture.completedFuture(game));
+        assertThat(repository.delete("1d", null).get(), is(Optional.of(game)));
+        assertThat(cache.get("1d"), is(Optional.empty()));
+    }
+
+    @Test
+    public void deleteShouldReturnEmptyOptionalWhenGameDoesNotExist() throws Exception {
+        when(table.deleteItem(any(DeleteItemEnhancedRequest.class))).thenReturn(CompletableFuture.completedFuture(null));
+        assertThat(repository.delete("1d", null).get(), is(Optional.empty()));
+    }
+
+    @Test
+    public void deleteShouldBeConditionalOnTheVersionGiven() throws Exception {
+        when(table.deleteItem(any(DeleteItemEnhancedRequest.class))).thenReturn(CompletableFuture.completedFuture(null));
+        repository.delete("1d", 3L).get();
+        ArgumentCaptor<DeleteItemEnhancedRequest> request = ArgumentCaptor.forClass(DeleteItemEnhancedRequest.class);
+        verify(table).deleteItem(request.capture());
+        assertThat(request.getValue().conditionExpression().expressionValues().get(":expected").n(), is("3"));
+    }
+
+    @Test
+    public void deleteShouldCompleteWithStaleVersionWhenTheGameHasMoved() {
+        when(table.deleteItem(any(DeleteItemEnhancedRequest.class))).thenReturn(conditionFailed());
+        when(table.getItem(any(GetItemEnhancedRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(new Game().withId("1d").withVersion(4L)));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> repository.delete("1d", 3L).get());
+        assertThat(e.getCause(), is(instanceOf(StaleVersionException.class)));
+    }
+
+    @Test
+    public void deleteShouldReturnEmptyOptionalWhenAVersionedGameDoesNotExist() throws Exception {
+        when(table.deleteItem(any(DeleteItemEnhancedRequest.class))).thenReturn(conditionFailed());
+        when(table.getItem(any(GetItemEnhancedRequest.class))).thenReturn(CompletableFuture.completedFuture(null));
+        assertThat(repository.delete("1d", 3L).get(), is(Optional.empty()));
+    }
+
+    private static CompletableFuture<Game> conditionFailed() {
+        CompletableFuture<Game> failed = new CompletableFuture<>();
+        failed.completeExceptionally(ConditionalCheckFailedException.builder().message("Simulated failure").build());
+        return failed;
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private static void publish(SdkPublisher<Page<Game>> pages, List<Game>... items) {
+        when(pages.subscribe(any(Consumer.class))).thenAnswer(invocation -> {
+            Consumer<Page<Game>> consumer = invocation.getArgument(0);
+            for (List<Game> page : items) {
+                consumer.accept(Page.create(page));
+            }
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+}
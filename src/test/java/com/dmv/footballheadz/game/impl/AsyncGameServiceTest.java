@@ -0,0 +1,91 @@
+package com.dmv.footballheadz.game.impl;
+
+import com.dmv.footballheadz.game.IAsyncRepository;
+import com.dmv.footballheadz.game.StaleVersionException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class AsyncGameServiceTest {
+
+    @Mock
+    private IAsyncRepository<Game> repository;
+
+    @Mock
+    private GameService gameService;
+
+    @InjectMocks
+    private AsyncGameService service;
+
+    @Test
+    public void createShouldSaveWithGeneratedIdAndReportTheWrite() throws Exception {
+
+        Game game = new Game().withHomeTeam("GimmyDaLoot");
+        when(repository.save(game)).thenReturn(CompletableFuture.completedFuture(null));
+        assertThat(service.create(game).get(), is(Optional.of(game)));
+        assertThat(game.getId(), is(notNullValue()));
+        verify(gameService).applied(null, game);
+    }
+
+    @Test
+    public void createShouldReturnEmptyOptionalWhenIdIsTaken() throws Exception {
+
+        Game game = new Game().withId("1d");
+        CompletableFuture<Void> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new StaleVersionException("1d", null));
+        when(repository.save(game)).thenReturn(failed);
+        assertThat(service.create(game).get(), is(Optional.empty()));
+        verify(gameService, never()).applied(any(), any());
+    }
+
+    @Test
+    public void deleteShouldReportTheWriteOnlyWhenGameExisted() throws Exception {
+
+        Game game = new Game().withId("1d");
+        when(repository.delete("1d", null)).thenReturn(CompletableFuture.completedFuture(Optional.of(game)));
+        when(repository.delete("2d", null)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        assertThat(service.delete("1d", null).get(), is(true));
+        assertThat(service.delete("2d", null).get(), is(false));
+        verify(gameService).applied(game, null);
+        verify(gameService, times(1)).applied(any(), any());
+    }
+
+    @Test
+    public void listOfGamesByTeamShouldQueryBothIndexesWithoutDuplicates() throws Exception {
+
+        Game home = new Game().withId("1d").withHomeTeam("GimmyDaLoot").withAwayTeam("HogPit");
+        Game away = new Game().withId("2d").withHomeTeam("HogPit").withAwayTeam("GimmyDaLoot");
+        Game againstItself = new Game().withId("3d").withHomeTeam("GimmyDaLoot").withAwayTeam("GimmyDaLoot");
+        when(repository.readIndex(Game.HOME_TEAM_INDEX, "GimmyDaLoot"))
+                .thenReturn(CompletableFuture.completedFuture(asList(home, againstItself)));
+        when(repository.readIndex(Game.AWAY_TEAM_INDEX, "GimmyDaLoot"))
+                .thenReturn(CompletableFuture.completedFuture(asList(away, againstItself)));
+        assertThat(service.listOfGamesByTeam("GimmyDaLoot").get(), containsInAnyOrder(home, away, againstItself));
+    }
+
+    @Test
+    public void listOfGamesByTeamsShouldReadTheMatchup() throws Exception {
+
+        List<Game> games = asList(new Game().withId("1d").withHomeTeam("HogPit").withAwayTeam("GimmyDaLoot"));
+        when(repository.readMatchup("HogPit", "GimmyDaLoot")).thenReturn(CompletableFuture.completedFuture(games));
+        assertThat(service.listOfGamesByTeams("HogPit", "GimmyDaLoot").get(), is(games));
+        verify(repository, never()).readIndex(anyString(), anyString());
+    }
+}
@@ -0,0 +1,194 @@
+package com.dmv.footballheadz.game.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.dmv.footballheadz.game.impl.TestGames.game;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+@ExtendWith(SpringExtension.class)
+class EloRatingsTest {
+
+    private final EloRatings ratings = new EloRatings();
+
+    private final Game week1 = game("1", "2018", "1", "teamA", "teamB", 110.0, 100.0);
+    private final Game week2 = game("2", "2018", "2", "teamB", "teamC", 95.0, 100.0);
+    private final Game week3 = game("3", "2018", "3", "teamC", "teamA", 100.0, 100.0);
+    private final Game nextSeason = game("4", "2019", "1", "teamC", "teamD", 120.0, 100.0);
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        configure(ratings);
+    }
+
+    @Test
+    public void ratingsShouldMoveKFactorPointsBetweenEqualTeams() throws Exception {
+
+        warm(asList(week1));
+        List<Rating> result = ratings.ratings();
+
+        assertThat(teams(result), contains("teamA", "teamB"));
+        assertThat(result.get(0).getRank(), is(1));
+        assertThat(result.get(0).getRating(), is(1510.0));
+        assertThat(result.get(0).getGames(), is(1));
+        assertThat(result.get(1).getRating(), is(1490.0));
+        ratings.ratings();
+    }
+
+    @Test
+    public void tiesBetweenEqualTeamsShouldChangeNothing() throws Exception {
+
+        warm(asList(game("1", "2018", "1", "teamA", "teamB", 100.0, 100.0)));
+        assertThat(ratings.ratings().get(0).getRating(), is(1500.0));
+    }
+
+    @Test
+    public void ratingsShouldRevertTowardTheInitialRatingBetweenSeasons() throws Exception {
+
+        warm(asList(week1, nextSeason));
+        List<Rating> result = ratings.ratings();
+        assertThat(teams(result), contains("teamC", "teamA", "teamB", "teamD"));
+        assertThat(result.get(1).getRating(), is(closeTo(1506.7, 0.0001)));
+        assertThat(result.get(2).getRating(), is(closeTo(1493.3, 0.0001)));
+    }
+
+    @Test
+    public void gamesShouldBeReplayedInScheduleOrderWhateverTheScanOrder() throws Exception {
+
+        warm(asList(nextSeason, week3, week1, week2));
+        assertThat(describe(ratings.ratings()), is(describe(replayed(week1, week2, week3, nextSeason))));
+    }
+
+    @Test
+    public void gamesThatCannotBeRatedShouldBeIgnored() throws Exception {
+
+        warm(asList(
+                game("1", "2018", "Wildcard", "teamA", "teamB", 110.0, 100.0),
+                game("2", "2018", "1", "teamA", "teamA", 110.0, 100.0),
+                new Game().withId("3").withYear("2018").withWeek("1").withHomeTeam("teamA").withAwayTeam("teamB")));
+        assertThat(ratings.ratings(), is(empty()));
+    }
+
+    @Test
+    public void gamesInScheduleOrderShouldBeRatedIncrementally() throws Exception {
+
+        warm(asList(week1));
+        ratings.ratings();
+        ratings.apply(null, week2);
+        ratings.apply(null, week3);
+        ratings.apply(null, nextSeason);
+
+        assertThat(describe(ratings.ratings()), is(describe(replayed(week1, week2, week3, nextSeason))));
+    }
+
+    @Test
+    public void writesChangingHistoryShouldBeReplayed() throws Exception {
+
+        warm(asList(week2, week3, nextSeason));
+        ratings.ratings();
+
+        ratings.apply(null, week1);
+        assertThat(describe(ratings.ratings()), is(describe(replayed(week1, week2, week3, nextSeason))));
+
+        Game upset = week1.copy().withHomeTeamPts(90.0);
+        ratings.apply(week1, upset);
+        assertThat(describe(ratings.ratings()), is(describe(replayed(upset, week2, week3, nextSeason))));
+
+        ratings.apply(week2, null);
+        assertThat(describe(ratings.ratings()), is(describe(replayed(upset, week3, nextSeason))));
+    }
+
+    @Test
+    public void applyShouldBeIgnoredUntilWarm() throws Exception {
+
+        ratings.apply(null, week1);
+        warm(emptyList());
+        assertThat(ratings.ratings(), is(empty()));
+    }
+
+    @Test
+    public void gamesOfOneWeekShouldBeReplayedInGameIdOrder() throws Exception {
+
+        Game first = game("1", "2018", "1", "teamC", "teamD", 100.0, 90.0);
+        Game second = game("2", "2018", "1", "teamA", "teamB", 110.0, 100.0);
+        Game third = game("3", "2018", "1", "teamC", "teamA", 110.0, 100.0);
+        warm(asList(first, second, third));
+        ratings.ratings();
+
+        ratings.apply(first, null);
+        assertThat(describe(ratings.ratings()), is(describe(replayed(second, third))));
+    }
+
+    @Test
+    public void aWriteEarlierInTheLatestWeekShouldBeReplayed() throws Exception {
+
+        Game second = game("2", "2018", "1", "teamA", "teamB", 110.0, 100.0);
+        Game third = game("3", "2018", "1", "teamC", "teamA", 110.0, 100.0);
+        warm(asList(third));
+        ratings.ratings();
+
+        ratings.apply(null, second);
+        assertThat(describe(ratings.ratings()), is(describe(replayed(second, third))));
+    }
+
+    @Test
+    public void rebuildShouldReplayWritesAppliedDuringItsScan() throws Exception {
+
+        ratings.beginRebuild();
+        ratings.apply(null, week2);
+        ratings.apply(week1, null);
+        ratings.completeRebuild(asList(week1, week3));
+
+        assertThat(describe(ratings.ratings()), is(describe(replayed(week2, week3))));
+    }
+
+    @Test
+    public void keyShouldOrderByYearThenWeek() throws Exception {
+
+        assertThat(EloRatings.keyOf(week1), is(201801L));
+        assertThat(EloRatings.keyOf(game("5", "2018", "12", "teamA", "teamB", 1.0, 0.0)), is(201812L));
+        assertThat(EloRatings.keyOf(null), is(-1L));
+        assertThat(EloRatings.keyOf(game("5", "2018", "100", "teamA", "teamB", 1.0, 0.0)), is(-1L));
+        assertThat(EloRatings.keyOf(game("5", "2018", "Wildcard", "teamA", "teamB", 1.0, 0.0)), is(-1L));
+    }
+
+    private static List<Rating> replayed(Game... games) {
+        EloRatings fresh = new EloRatings();
+        configure(fresh);
+        fresh.beginRebuild();
+        fresh.completeRebuild(asList(games));
+        return fresh.ratings();
+    }
+
+    private static void configure(EloRatings eloRatings) {
+        ReflectionTestUtils.setField(eloRatings, "kFactor", 20.0);
+        ReflectionTestUtils.setField(eloRatings, "initialRating", 1500.0);
+        ReflectionTestUtils.setField(eloRatings, "homeAdvantage", 0.0);
+        ReflectionTestUtils.setField(eloRatings, "seasonRevert", 0.33);
+    }
+
+    private static List<String> teams(List<Rating> ratings) {
+        return ratings.stream().map(Rating::getTeam).collect(Collectors.toList());
+    }
+
+    private static List<String> describe(List<Rating> ratings) {
+        return ratings.stream().map(Rating::toString).collect(Collectors.toList());
+    }
+
+    private void warm(List<Game> games) {
+        ratings.beginRebuild();
+        ratings.completeRebuild(games);
+    }
+}
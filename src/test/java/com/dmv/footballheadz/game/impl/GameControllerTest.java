@@ -1,5 +1,10 @@
 package com.dmv.footballheadz.game.impl;
 
+import com.dmv.footballheadz.game.BatchOperation;
+import com.dmv.footballheadz.game.BatchResult;
+import com.dmv.footballheadz.game.Page;
+import com.dmv.footballheadz.game.StaleVersionException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 import org.hamcrest.TypeSafeMatcher;
@@ -7,10 +12,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,8 +32,16 @@ import static java.util.Collections.emptyList;
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsIterableContainingInAnyOrder.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.HttpStatus.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
 class GameControllerTest {
@@ -31,11 +52,14 @@ class GameControllerTest {
     @Mock
     private GameService service;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @Test
     public void listShouldRespondWithNoContentWhenNothingInDatabase() throws Exception {
 
         when(service.list()).thenReturn(emptyList());
-        ResponseEntity<List<Game>> result = controller.list();
+        ResponseEntity<List<Game>> result = controller.list(request());
         assertThat(result, is(responseEntityWithStatus(NO_CONTENT)));
     }
 
@@ -45,18 +69,82 @@ class GameControllerTest {
         Game game1 = new Game().withId("1d");
         Game game2 = new Game().withId("1d2");
         when(service.list()).thenReturn(asList(game1, game2));
-        ResponseEntity<List<Game>> result = controller.list();
+        ResponseEntity<List<Game>> result = controller.list(request());
         assertThat(result, is(allOf(
                 responseEntityWithStatus(OK),
                 responseEntityThat(containsInAnyOrder(game1, game2)))));
     }
 
+    @Test
+    public void idsWithALimitShouldRespondWithBadRequest() throws Exception {
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        mockMvc.perform(get("/v1/game").param("ids", "1d1").param("limit", "10"))
+                .andExpect(status().isBadRequest());
+        verify(service, never()).readMany(any());
+        verify(service, never()).listPage(anyInt(), any());
+    }
+
+    @Test
+    public void listPageShouldRespondWithPageFromService() throws Exception {
+
+        Page<Game> page = new Page<>(asList(new Game().withId("1d")), "next");
+        when(service.listPage(1, null)).thenReturn(page);
+        ResponseEntity<Page<Game>> result = controller.listPage(1, null);
+        assertThat(result, is(allOf(
+                responseEntityWithStatus(OK),
+                responseEntityThat(equalTo(page)))));
+    }
+
+    @Test
+    public void listPageShouldRespondWithNoContentWhenNothingInDatabase() throws Exception {
+
+        when(service.listPage(10, null)).thenReturn(new Page<>(emptyList(), null));
+        ResponseEntity<Page<Game>> result = controller.listPage(10, null);
+        assertThat(result, is(responseEntityWithStatus(NO_CONTENT)));
+    }
+
+    @Test
+    public void listPageShouldRespondWithBadRequestForInvalidLimitOrCursor() throws Exception {
+
+        when(service.listPage(10, "%%%")).thenThrow(new IllegalArgumentException("Simulated failure"));
+        assertThat(controller.listPage(0, null), is(responseEntityWithStatus(BAD_REQUEST)));
+        assertThat(controller.listPage(10, "%%%"), is(responseEntityWithStatus(BAD_REQUEST)));
+    }
+
+    @Test
+    public void exportShouldStreamGamesAsNewlineDelimitedJson() throws Exception {
+
+        Game game1 = new Game().withId("1d").withHomeTeam("GimmyDaLoot");
+        Game game2 = new Game().withId("1d2").withAwayTeam("HogPit");
+        when(service.iterateAll()).thenReturn(asList(game1, game2));
+        ResponseEntity<StreamingResponseBody> result = controller.export();
+        verify(service, never()).iterateAll();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        result.getBody().writeTo(outputStream);
+        String[] lines = outputStream.toString("UTF-8").split("\n");
+        assertThat(result.getStatusCode(), is(OK));
+        assertThat(lines.length, is(2));
+        assertThat(objectMapper.readValue(lines[0], Game.class), is(equalTo(game1)));
+        assertThat(objectMapper.readValue(lines[1], Game.class), is(equalTo(game2)));
+    }
+
+    @Test
+    public void exportShouldStreamNothingWhenNothingInDatabase() throws Exception {
+
+        when(service.iterateAll()).thenReturn(emptyList());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        controller.export().getBody().writeTo(outputStream);
+        assertThat(outputStream.size(), is(0));
+    }
+
     @Test
     public void listExpressionShouldRespondWithNoContentWhenNothingInDatabase() throws Exception {
 
         String teamName = "GimmyDaLoot";
         when(service.listOfGamesByTeam(teamName)).thenReturn(emptyList());
-        ResponseEntity<List<Game>> result = controller.listOfGamesByTeam(teamName);
+        ResponseEntity<List<Game>> result = controller.listOfGamesByTeam(teamName, request());
         assertThat(result, is(responseEntityWithStatus(NO_CONTENT)));
     }
 
@@ -67,7 +155,7 @@ class GameControllerTest {
         Game game1 = new Game().withId("1d");
         Game game2 = new Game().withId("1d2");
         when(service.listOfGamesByTeam(teamName)).thenReturn(asList(game1, game2));
-        ResponseEntity<List<Game>> result = controller.listOfGamesByTeam(teamName);
+        ResponseEntity<List<Game>> result = controller.listOfGamesByTeam(teamName, request());
         assertThat(result, is(allOf(
                 responseEntityWithStatus(OK),
                 responseEntityThat(containsInAnyOrder(game1, game2)))));
@@ -77,7 +165,7 @@ class GameControllerTest {
     public void readShouldReplyWithNotFoundIfNoSuchGame() throws Exception {
 
         when(service.read("1d2")).thenReturn(Optional.empty());
-        ResponseEntity<Game> result = controller.read("1d2");
+        ResponseEntity<Game> result = controller.read("1d2", request());
         assertThat(result, is(responseEntityWithStatus(NOT_FOUND)));
     }
 
@@ -86,12 +174,32 @@ class GameControllerTest {
 
         Game game = new Game().withId("1d2");
         when(service.read("1d2")).thenReturn(Optional.of(game));
-        ResponseEntity<Game> result = controller.read("1d2");
+        ResponseEntity<Game> result = controller.read("1d2", request());
         assertThat(result, is(allOf(
                 responseEntityWithStatus(OK),
                 responseEntityThat(equalTo(game)))));
     }
 
+    @Test
+    public void readManyShouldReplyWithGamesFromService() throws Exception {
+
+        Game game1 = new Game().withId("1d");
+        Game game2 = new Game().withId("1d2");
+        when(service.readMany(asList("1d", "1d2"))).thenReturn(asList(game1, game2));
+        ResponseEntity<List<Game>> result = controller.readMany(asList("1d", "1d2"));
+        assertThat(result, is(allOf(
+                responseEntityWithStatus(OK),
+                responseEntityThat(equalTo(asList(game1, game2))))));
+    }
+
+    @Test
+    public void readManyShouldReplyWithNoContentWhenNoGameExists() throws Exception {
+
+        when(service.readMany(asList("1d"))).thenReturn(emptyList());
+        ResponseEntity<List<Game>> result = controller.readMany(asList("1d"));
+        assertThat(result, is(responseEntityWithStatus(NO_CONTENT)));
+    }
+
     @Test
     public void createShouldReplyWithConflictIfGameAlreadyExists() throws Exception {
 
@@ -112,12 +220,43 @@ class GameControllerTest {
                 responseEntityThat(equalTo(game)))));
     }
 
+    @Test
+    public void batchShouldReplyWithOkWhenEveryOperationSucceeded() throws Exception {
+
+        List<BatchOperation<Game>> operations = asList(
+                new BatchOperation<Game>().withAction(BatchOperation.Action.DELETE).withId("1d2"));
+        List<BatchResult> results = asList(new BatchResult(0, "1d2", BatchResult.Status.DELETED, null));
+        when(service.batch(operations)).thenReturn(results);
+        ResponseEntity<List<BatchResult>> result = controller.batch(operations);
+        assertThat(result, is(allOf(
+                responseEntityWithStatus(OK),
+                responseEntityThat(equalTo(results)))));
+    }
+
+    @Test
+    public void batchShouldReplyWithMultiStatusWhenAnOperationFailed() throws Exception {
+
+        List<BatchOperation<Game>> operations = asList(
+                new BatchOperation<Game>().withAction(BatchOperation.Action.DELETE).withId("1d2"));
+        when(service.batch(operations))
+                .thenReturn(asList(new BatchResult(0, "1d2", BatchResult.Status.NOT_FOUND, null)));
+        ResponseEntity<List<BatchResult>> result = controller.batch(operations);
+        assertThat(result, is(responseEntityWithStatus(MULTI_STATUS)));
+    }
+
+    @Test
+    public void batchShouldReplyWithBadRequestWhenEmpty() throws Exception {
+
+        ResponseEntity<List<BatchResult>> result = controller.batch(emptyList());
+        assertThat(result, is(responseEntityWithStatus(BAD_REQUEST)));
+    }
+
     @Test
     public void putShouldReplyWithNotFoundIfGameDoesNotExist() throws Exception {
 
         Game newGameData = new Game().withId("1d2").withHomeTeam("GimmyDaLoot");
         when(service.replace(newGameData)).thenReturn(Optional.empty());
-        ResponseEntity<Game> result = controller.put("1d2", new Game().withHomeTeam("GimmyDaLoot"));
+        ResponseEntity<Game> result = controller.put("1d2", null, new Game().withHomeTeam("GimmyDaLoot"));
         assertThat(result, is(responseEntityWithStatus(NOT_FOUND)));
     }
 
@@ -126,7 +265,7 @@ class GameControllerTest {
 
         Game newGameData = new Game().withId("1d2").withHomeTeam("GimmyDaLoot");
         when(service.replace(newGameData)).thenReturn(Optional.of(newGameData));
-        ResponseEntity<Game> result = controller.put("1d2", new Game().withHomeTeam("GimmyDaLoot"));
+        ResponseEntity<Game> result = controller.put("1d2", null, new Game().withHomeTeam("GimmyDaLoot"));
         assertThat(result, is(allOf(
                 responseEntityWithStatus(OK),
                 responseEntityThat(equalTo(newGameData)))));
@@ -137,7 +276,7 @@ class GameControllerTest {
 
         Game newGameData = new Game().withId("1d2").withHomeTeam("GimmyDaLoot");
         when(service.update(newGameData)).thenReturn(Optional.empty());
-        ResponseEntity<Game> result = controller.patch("1d2", new Game().withHomeTeam("GimmyDaLoot"));
+        ResponseEntity<Game> result = controller.patch("1d2", null, new Game().withHomeTeam("GimmyDaLoot"));
         assertThat(result, is(responseEntityWithStatus(NOT_FOUND)));
     }
 
@@ -146,28 +285,222 @@ class GameControllerTest {
 
         Game newGameData = new Game().withId("1d2").withHomeTeam("GimmyDaLoot");
         when(service.update(newGameData)).thenReturn(Optional.of(newGameData));
-        ResponseEntity<Game> result = controller.patch("1d2", new Game().withHomeTeam("GimmyDaLoot"));
+        ResponseEntity<Game> result = controller.patch("1d2", null, new Game().withHomeTeam("GimmyDaLoot"));
         assertThat(result, is(allOf(
                 responseEntityWithStatus(OK),
                 responseEntityThat(equalTo(newGameData)))));
     }
 
+    @Test
+    public void readShouldReplyWithVersionAsETag() throws Exception {
+
+        when(service.read("1d2")).thenReturn(Optional.of(new Game().withId("1d2").withVersion(3L)));
+        ResponseEntity<Game> result = controller.read("1d2", request());
+        assertThat(result.getHeaders().getETag(), is("\"3\""));
+    }
+
+    @Test
+    public void readShouldReplyWithNotModifiedWhenVersionMatches() throws Exception {
+
+        when(service.read("1d2")).thenReturn(Optional.of(new Game().withId("1d2").withVersion(3L)));
+        ResponseEntity<Game> result = controller.read("1d2", request("\"3\""));
+        assertThat(result, is(allOf(
+                responseEntityWithStatus(NOT_MODIFIED),
+                responseEntityThat(nullValue(Game.class)))));
+    }
+
+    @Test
+    public void readShouldReplyWithGameWhenVersionChanged() throws Exception {
+
+        when(service.read("1d2")).thenReturn(Optional.of(new Game().withId("1d2").withVersion(4L)));
+        ResponseEntity<Game> result = controller.read("1d2", request("\"3\""));
+        assertThat(result, is(responseEntityWithStatus(OK)));
+    }
+
+    @Test
+    public void listOfGamesByTeamShouldReplyWithNotModifiedWhenTheGamesAreUnchanged() throws Exception {
+
+        List<Game> games = asList(new Game().withId("1d1").withVersion(2L), new Game().withId("1d2").withVersion(1L));
+        when(service.listOfGamesByTeam("GimmyDaLoot")).thenReturn(games);
+        ResponseEntity<List<Game>> result =
+                controller.listOfGamesByTeam("GimmyDaLoot", request(GameController.listETagOf(objectMapper, games)));
+        assertThat(result, is(allOf(
+                responseEntityWithStatus(NOT_MODIFIED),
+                responseEntityThat(nullValue(List.class)))));
+    }
+
+    @Test
+    public void listETagShouldFollowTheListedGames() throws Exception {
+
+        List<Game> games = asList(new Game().withId("1d1").withVersion(2L));
+        String eTag = GameController.listETagOf(objectMapper, games);
+        assertThat(eTag, startsWith("W/\""));
+        assertThat(GameController.listETagOf(objectMapper, asList(new Game().withId("1d1").withVersion(2L))), is(eTag));
+        assertThat(GameController.listETagOf(objectMapper, asList(new Game().withId("1d1").withVersion(3L))),
+                is(not(eTag)));
+    }
+
+    @Test
+    public void headToHeadShouldTagResponseWhenChanged() throws Exception {
+
+        HeadToHead summary = new HeadToHead("team1", "team2", 1, 0, 0, 110.0, 100.0);
+        when(service.headToHeadSummary("team1", "team2")).thenReturn(Optional.of(summary));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ResponseEntity<HeadToHead> result = controller.headToHead(asList("team1", "team2"), false,
+                new ServletWebRequest(conditionalGet("\"a-1-1\""), response));
+        assertThat(result, is(responseEntityWithStatus(OK)));
+        assertThat(response.getHeader("ETag"), is(GameController.listETagOf(objectMapper, summary)));
+    }
+
+    @Test
+    public void ratingsShouldRespondWithOkAndRatingsFromService() throws Exception {
+
+        List<Rating> ratings = asList(new Rating(1, "team1", 1510.0, 1), new Rating(2, "team2", 1490.0, 1));
+        when(service.ratings()).thenReturn(ratings);
+        ResponseEntity<List<Rating>> result = controller.ratings(request());
+        assertThat(result, is(allOf(
+                responseEntityWithStatus(OK),
+                responseEntityThat(is(ratings)))));
+    }
+
+    @Test
+    public void ratingsShouldRespondWithNoContentWhenNoGameIsRated() throws Exception {
+
+        when(service.ratings()).thenReturn(emptyList());
+        ResponseEntity<List<Rating>> result = controller.ratings(request());
+        assertThat(result, is(responseEntityWithStatus(NO_CONTENT)));
+    }
+
+    @Test
+    public void standingsShouldRespondWithOkAndTableFromService() throws Exception {
+
+        List<Standing> table = asList(new Standing(1, "team1", 2, 0, 0, 200, 150, "W2"),
+                new Standing(2, "team2", 0, 2, 0, 150, 200, "L2"));
+        when(service.standings("2018", null)).thenReturn(table);
+        ResponseEntity<List<Standing>> result = controller.standings("2018", null, request());
+        assertThat(result, is(allOf(
+                responseEntityWithStatus(OK),
+                responseEntityThat(is(table)))));
+    }
+
+    @Test
+    public void standingsShouldRespondWithServiceUnavailableUntilTheProjectionsAreWarm() throws Exception {
+
+        when(service.standings("2018", null)).thenThrow(new ProjectionNotWarmException("Standings"));
+        ProjectionNotWarmException e = assertThrows(ProjectionNotWarmException.class,
+                () -> controller.standings("2018", null, request()));
+        assertThat(controller.projectionNotWarm(e), is(responseEntityWithStatus(SERVICE_UNAVAILABLE)));
+    }
+
+    @Test
+    public void standingsShouldRespondWithNoContentForSeasonsWithoutGames() throws Exception {
+
+        when(service.standings("1999", "3")).thenReturn(emptyList());
+        ResponseEntity<List<Standing>> result = controller.standings("1999", "3", request());
+        assertThat(result, is(responseEntityWithStatus(NO_CONTENT)));
+    }
+
+    @Test
+    public void standingsShouldReplyWithNotModifiedWhenTheTableIsUnchanged() throws Exception {
+
+        List<Standing> table = asList(new Standing(1, "team1", 2, 0, 0, 200, 150, "W2"));
+        when(service.standings("2018", null)).thenReturn(table);
+        ResponseEntity<List<Standing>> result =
+                controller.standings("2018", null, request(GameController.listETagOf(objectMapper, table)));
+        assertThat(result, is(responseEntityWithStatus(NOT_MODIFIED)));
+    }
+
+    @Test
+    public void putShouldPassIfMatchVersionToService() throws Exception {
+
+        Game newGameData = new Game().withId("1d2").withHomeTeam("GimmyDaLoot");
+        when(service.replace(argThat(game -> Long.valueOf(3L).equals(game.getVersion()))))
+                .thenAnswer(invocation -> Optional.of(newGameData.copy().withVersion(4L)));
+        ResponseEntity<Game> result = controller.put("1d2", "\"3\"", new Game().withHomeTeam("GimmyDaLoot"));
+        assertThat(result, is(responseEntityWithStatus(OK)));
+        assertThat(result.getHeaders().getETag(), is("\"4\""));
+    }
+
+    @Test
+    public void patchShouldIgnoreVersionInBodyWithoutIfMatch() throws Exception {
+
+        when(service.update(argThat(game -> game.getVersion() == null)))
+                .thenReturn(Optional.of(new Game().withId("1d2")));
+        ResponseEntity<Game> result = controller.patch("1d2", "*", new Game().withVersion(7L));
+        assertThat(result, is(responseEntityWithStatus(OK)));
+    }
+
+    @Test
+    public void patchShouldReplyWithPreconditionFailedOnStaleVersion() throws Exception {
+
+        when(service.update(any(Game.class))).thenThrow(new StaleVersionException("1d2", null));
+        StaleVersionException e = assertThrows(StaleVersionException.class,
+                () -> controller.patch("1d2", "\"3\"", new Game().withHomeTeamPts(21.0)));
+        assertThat(controller.staleVersion(e), is(responseEntityWithStatus(PRECONDITION_FAILED)));
+    }
+
+    @Test
+    public void patchShouldReplyWithPreconditionFailedOnAWeakTag() throws Exception {
+
+        StaleVersionException e = assertThrows(StaleVersionException.class,
+                () -> controller.patch("1d2", "W/\"3\"", new Game().withHomeTeamPts(21.0)));
+        assertThat(controller.staleVersion(e), is(responseEntityWithStatus(PRECONDITION_FAILED)));
+        verify(service, never()).update(any(Game.class));
+    }
+
+    @Test
+    public void putShouldRequireTheStoredVersionOfSeveralTags() throws Exception {
+
+        when(service.read("1d2")).thenReturn(Optional.of(new Game().withId("1d2").withVersion(5L)));
+        when(service.replace(argThat(game -> Long.valueOf(5L).equals(game.getVersion()))))
+                .thenAnswer(invocation -> Optional.of(new Game().withId("1d2").withVersion(6L)));
+        ResponseEntity<Game> result = controller.put("1d2", "\"3\", W/\"4\", \"5\"", new Game());
+        assertThat(result, is(responseEntityWithStatus(OK)));
+        assertThat(result.getHeaders().getETag(), is("\"6\""));
+    }
+
+    @Test
+    public void putShouldReplyWithPreconditionFailedWhenNoneOfSeveralTagsIsStored() throws Exception {
+
+        when(service.read("1d2")).thenReturn(Optional.of(new Game().withId("1d2").withVersion(5L)));
+        assertThrows(StaleVersionException.class, () -> controller.put("1d2", "W/\"5\", W/\"6\"", new Game()));
+        assertThrows(StaleVersionException.class, () -> controller.put("1d2", "\"3\", \"4\"", new Game()));
+        verify(service, never()).replace(any(Game.class));
+    }
+
+    @Test
+    public void putShouldRejectIfMatchThatIsNotAVersion() throws Exception {
+
+        assertThrows(StaleVersionException.class,
+                () -> controller.put("1d2", "\"abc\"", new Game().withHomeTeam("GimmyDaLoot")));
+        verify(service, never()).replace(any(Game.class));
+    }
+
     @Test
     public void deleteShouldRespondWithNotFoundIfGameDoesNotExist() throws Exception {
 
-        when(service.delete("1d2")).thenReturn(false);
-        ResponseEntity<Void> result = controller.delete("1d2");
+        when(service.delete("1d2", null)).thenReturn(false);
+        ResponseEntity<Void> result = controller.delete("1d2", null);
         assertThat(result, is(responseEntityWithStatus(NOT_FOUND)));
     }
 
     @Test
     public void deleteShouldRespondWithNoContentIfDeleteSuccessful() throws Exception {
 
-        when(service.delete("1d2")).thenReturn(true);
-        ResponseEntity<Void> result = controller.delete("1d2");
+        when(service.delete("1d2", null)).thenReturn(true);
+        ResponseEntity<Void> result = controller.delete("1d2", null);
         assertThat(result, is(responseEntityWithStatus(NO_CONTENT)));
     }
 
+    @Test
+    public void deleteShouldPassIfMatchVersionToService() throws Exception {
+
+        when(service.delete("1d2", 3L)).thenReturn(true);
+        assertThat(controller.delete("1d2", "\"3\""), is(responseEntityWithStatus(NO_CONTENT)));
+        assertThrows(StaleVersionException.class, () -> controller.delete("1d2", "W/\"3\""));
+        verify(service, never()).delete("1d2", null);
+    }
+
     @Test
     public void headToHeadShouldRespondWithOkAndResultsFromService() throws Exception {
         String team1 = "team1";
@@ -179,13 +512,15 @@ class GameControllerTest {
         Game game3 = new Game().withId("1d2").withHomeTeam("team2").withAwayTeam("team1")
                 .withHomeTeamPts(100.19).withAwayTeamPts(101.20);
 
-        HeadToHead expectedResult = new HeadToHead(team1, team2, asList(game1, game2, game2), 1);
+        HeadToHead expectedResult = new HeadToHead(team1, team2, asList(game1, game2, game3));
 
         when(service.listOfGamesByTeams("team1", "team2")).thenReturn(asList(game1, game2, game3));
-        ResponseEntity<HeadToHead> result = controller.headToHead(asList(team1, team2));
+        ResponseEntity<HeadToHead> result = controller.headToHead(asList(team1, team2), true, request());
 
         assertThat(result.getStatusCode(), is(OK));
         assertThat(result.getBody().record, is(expectedResult.record));
+        assertThat(result.getBody().getRecord(), is("team1 : 1 - team2 : 2"));
+        assertThat(result.getBody().getTeam2Stats().getWins(), is(2));
         assertThat(result.getBody().getTeam1(), is(expectedResult.getTeam1()));
         assertThat(result.getBody().getTeam2(), is(expectedResult.getTeam2()));
         assertThat(result.getBody().getGames(), is(containsInAnyOrder(game1, game2, game3)));
@@ -197,7 +532,29 @@ class GameControllerTest {
         String team2 = "team2";
 
         when(service.listOfGamesByTeams("team1", "team2")).thenReturn(emptyList());
-        ResponseEntity<HeadToHead> result = controller.headToHead(asList(team1, team2));
+        ResponseEntity<HeadToHead> result = controller.headToHead(asList(team1, team2), true, request());
+
+        assertThat(result.getStatusCode(), is(NO_CONTENT));
+    }
+
+    @Test
+    public void headToHeadSummaryShouldRespondWithRecordOnlyFromService() throws Exception {
+        HeadToHead summary = new HeadToHead("team1", "team2", 2, 1, 0, 300.0, 290.0);
+
+        when(service.headToHeadSummary("team1", "team2")).thenReturn(Optional.of(summary));
+        ResponseEntity<HeadToHead> result = controller.headToHead(asList("team1", "team2"), false, request());
+
+        assertThat(result.getStatusCode(), is(OK));
+        assertThat(result.getBody().getRecord(), is("team1 : 2 - team2 : 1"));
+        assertThat(result.getBody().getGames(), is(nullValue()));
+        verify(service, never()).listOfGamesByTeams("team1", "team2");
+    }
+
+    @Test
+    public void headToHeadSummaryShouldRespondWithNoContentIfTeamsNeverPlayed() throws Exception {
+
+        when(service.headToHeadSummary("team1", "team2")).thenReturn(Optional.empty());
+        ResponseEntity<HeadToHead> result = controller.headToHead(asList("team1", "team2"), false, request());
 
         assertThat(result.getStatusCode(), is(NO_CONTENT));
     }
@@ -226,6 +583,16 @@ class GameControllerTest {
         assertThat(wins, is(2));
     }
 
+    @Test
+    void calculateTeamWinsShouldSkipGamesWithoutScores() {
+        Game game1 = new Game().withId("1d1").withHomeTeam("team1").withAwayTeam("team2")
+                .withHomeTeamPts(100.19).withAwayTeamPts(90.20);
+        Game game2 = new Game().withId("1d2").withHomeTeam("team2").withAwayTeam("team1")
+                .withAwayTeamPts(101.20);
+        int wins = controller.calculateTeamWins("team1", asList(game1,game2));
+        assertThat(wins, is(1));
+    }
+
     private Matcher<ResponseEntity> responseEntityWithStatus(HttpStatus status) {
 
         return new TypeSafeMatcher<ResponseEntity>() {
@@ -260,5 +627,18 @@ class GameControllerTest {
             }
         };
     }
-    
+
+    private static ServletWebRequest request() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/v1/game"), new MockHttpServletResponse());
+    }
+
+    private static ServletWebRequest request(String ifNoneMatch) {
+        return new ServletWebRequest(conditionalGet(ifNoneMatch), new MockHttpServletResponse());
+    }
+
+    private static MockHttpServletRequest conditionalGet(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/game");
+        request.addHeader("If-None-Match", ifNoneMatch);
+        return request;
+    }
 }
\ No newline at end of file
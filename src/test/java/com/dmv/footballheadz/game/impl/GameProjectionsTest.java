@@ -0,0 +1,92 @@
+package com.dmv.footballheadz.game.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class GameProjectionsTest {
+
+    @Mock
+    private GameRepository repository;
+
+    private final GameTable table = new GameTable();
+
+    private final HeadToHeadMatrix matrix = new HeadToHeadMatrix();
+
+    private final GameProjections projections = new GameProjections();
+
+    private final Game game1 = new Game().withId("1d1").withHomeTeam("team1").withAwayTeam("team2")
+            .withHomeTeamPts(100.19).withAwayTeamPts(101.20).withVersion(1L);
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(projections, "repository", repository);
+        ReflectionTestUtils.setField(matrix, "gameTable", table);
+        ReflectionTestUtils.setField(projections, "projections", Collections.singletonList(table));
+    }
+
+    @Test
+    public void refreshShouldWarmEveryProjectionFromOneScan() throws Exception {
+
+        when(repository.readAll()).thenReturn(asList(game1));
+        assertThat(projections.isWarm(), is(false));
+
+        projections.refresh();
+        assertThat(projections.isWarm(), is(true));
+        assertThat(matrix.summary("team1", "team2").get().getRecord(), is("team1 : 0 - team2 : 1"));
+        verify(repository, times(1)).readAll();
+    }
+
+    @Test
+    public void refreshShouldPickUpWritesMadeElsewhere() throws Exception {
+
+        when(repository.readAll()).thenReturn(asList(game1));
+        projections.refresh();
+
+        when(repository.readAll()).thenReturn(asList(game1.copy().withHomeTeamPts(110.0).withVersion(2L)));
+        projections.refresh();
+        assertThat(matrix.summary("team1", "team2").get().getRecord(), is("team1 : 1 - team2 : 0"));
+    }
+
+    @Test
+    public void refreshShouldKeepTheCurrentStateWhenTheScanFails() throws Exception {
+
+        when(repository.readAll()).thenReturn(asList(game1));
+        projections.refresh();
+
+        when(repository.readAll()).thenThrow(new IllegalStateException("scan failed"));
+        projections.refresh();
+        assertThat(projections.isWarm(), is(true));
+        assertThat(matrix.summary("team1", "team2").get().getRecord(), is("team1 : 0 - team2 : 1"));
+
+        table.apply(game1, game1.copy().withHomeTeamPts(110.0).withVersion(2L));
+        assertThat(matrix.summary("team1", "team2").get().getRecord(), is("team1 : 1 - team2 : 0"));
+    }
+
+    @Test
+    public void aFailedFirstScanShouldLeaveProjectionsColdUntilTheNextRefresh() throws Exception {
+
+        when(repository.readAll()).thenThrow(new IllegalStateException("scan failed")).thenReturn(asList(game1));
+        projections.refresh();
+        assertThat(projections.isWarm(), is(false));
+        assertThrows(ProjectionNotWarmException.class, () -> matrix.summary("team1", "team2"));
+        verify(repository, times(1)).readAll();
+
+        projections.refresh();
+        assertThat(projections.isWarm(), is(true));
+        assertThat(matrix.summary("team1", "team3"), is(Optional.empty()));
+    }
+}
@@ -1,25 +1,66 @@
 package com.dmv.footballheadz.game.impl;
 
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedQueryList;
 import com.amazonaws.services.dynamodbv2.datamodeling.PaginatedScanList;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemResult;
+import com.amazonaws.services.dynamodbv2.model.DeleteRequest;
+import com.amazonaws.services.dynamodbv2.model.DescribeTableResult;
+import com.amazonaws.services.dynamodbv2.model.GlobalSecondaryIndexDescription;
+import com.amazonaws.services.dynamodbv2.model.IndexStatus;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughputExceededException;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.TableDescription;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import com.dmv.footballheadz.game.Page;
+import com.dmv.footballheadz.game.StaleVersionException;
+import com.dmv.footballheadz.util.ExpiringCache;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -28,10 +69,28 @@ class GameRepositoryTest {
     
     @Mock
     private DynamoDBMapper dbMapper;
+
+    @Mock
+    private AmazonDynamoDB dynamoDB;
     
+    @Spy
+    private ExpiringCache<String, Game> cache = new ExpiringCache<>(10, 1, TimeUnit.MINUTES);
+
+    @Spy
+    private GameIndexStatus indexStatus = new GameIndexStatus();
+
     @InjectMocks
     private GameRepository repository;
 
+    private final DynamoDBMapperTableModel<Game> tableModel =
+            new DynamoDBMapper(mock(AmazonDynamoDB.class)).getTableModel(Game.class);
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        when(dbMapper.getTableModel(Game.class)).thenReturn(tableModel);
+        ReflectionTestUtils.setField(indexStatus, "dynamoDB", dynamoDB);
+    }
+
     @Test
     public void readExpressionShouldFilterTheScan() throws Exception {
         PaginatedScanList expectedResult = mock(PaginatedScanList.class);
@@ -59,6 +118,163 @@ class GameRepositoryTest {
         verify(expectedResult).loadAllResults();
     }
 
+    @Test
+    public void readPageShouldScanOnePageAndReturnCursor() throws Exception {
+        Game game = new Game().withId("1d");
+        ScanResultPage<Game> scanPage = new ScanResultPage<>();
+        scanPage.setResults(asList(game));
+        scanPage.setLastEvaluatedKey(singletonMap("Id", new AttributeValue().withS("1d")));
+        when(dbMapper.scanPage(eq(Game.class), any(DynamoDBScanExpression.class))).thenReturn(scanPage);
+
+        Page<Game> result = repository.readPage(1, null);
+        assertThat(result.getItems(), is(asList(game)));
+        assertThat(result.getCursor(), is(notNullValue()));
+
+        repository.readPage(1, result.getCursor());
+        verify(dbMapper).scanPage(eq(Game.class), argThat((DynamoDBScanExpression expression) ->
+                expression.getExclusiveStartKey() != null
+                        && "1d".equals(expression.getExclusiveStartKey().get("Id").getS())
+                        && expression.getLimit() == 1));
+        verify(dbMapper, never()).scan(eq(Game.class), any(DynamoDBScanExpression.class));
+    }
+
+    @Test
+    public void readPageShouldReturnNoCursorOnLastPage() throws Exception {
+        ScanResultPage<Game> scanPage = new ScanResultPage<>();
+        scanPage.setResults(asList(new Game().withId("1d")));
+        when(dbMapper.scanPage(eq(Game.class), any(DynamoDBScanExpression.class))).thenReturn(scanPage);
+
+        Page<Game> result = repository.readPage(10, null);
+        assertThat(result.getCursor(), is(nullValue()));
+    }
+
+    @Test
+    public void iterateAllShouldScanLazily() throws Exception {
+        PaginatedScanList expectedResult = mock(PaginatedScanList.class);
+        when(dbMapper.scan(eq(Game.class), any(DynamoDBScanExpression.class), any(DynamoDBMapperConfig.class)))
+                .thenReturn(expectedResult);
+        Iterable<Game> result = repository.iterateAll();
+        assertThat(result, is(expectedResult));
+        verify(dbMapper).scan(eq(Game.class), any(DynamoDBScanExpression.class), argThat((DynamoDBMapperConfig config) ->
+                config.getPaginationLoadingStrategy() == DynamoDBMapperConfig.PaginationLoadingStrategy.ITERATION_ONLY));
+        verify(expectedResult, never()).loadAllResults();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void readIndexShouldQueryTheIndex() throws Exception {
+        describeIndexes(IndexStatus.ACTIVE);
+        PaginatedQueryList expectedResult = mock(PaginatedQueryList.class);
+        when(dbMapper.query(eq(Game.class), any(DynamoDBQueryExpression.class))).thenReturn(expectedResult);
+        List<Game> result = repository.readIndex(Game.HOME_TEAM_INDEX, "GimmyDaLoot");
+        assertThat(result, is(expectedResult));
+        verify(expectedResult).loadAllResults();
+        verify(dbMapper).query(eq(Game.class), argThat((DynamoDBQueryExpression<Game> expression) ->
+                Game.HOME_TEAM_INDEX.equals(expression.getIndexName())
+                        && "HomeTeam = :val".equals(expression.getKeyConditionExpression())
+                        && "GimmyDaLoot".equals(expression.getExpressionAttributeValues().get(":val").getS())));
+        verify(dbMapper, never()).scan(eq(Game.class), any(DynamoDBScanExpression.class));
+    }
+
+    @Test
+    public void readIndexShouldScanWhileTheIndexIsBackfilling() throws Exception {
+        describeIndexes(IndexStatus.CREATING);
+        PaginatedScanList scanResult = mock(PaginatedScanList.class);
+        when(dbMapper.scan(eq(Game.class), any(DynamoDBScanExpression.class))).thenReturn(scanResult);
+
+        repository.readIndex(Game.AWAY_TEAM_INDEX, "GimmyDaLoot");
+        repository.readIndex(Game.AWAY_TEAM_INDEX, "GimmyDaLoot");
+
+        verify(dbMapper, times(2)).scan(eq(Game.class), argThat((DynamoDBScanExpression expression) ->
+                "AwayTeam = :val".equals(expression.getFilterExpression())
+                        && "GimmyDaLoot".equals(expression.getExpressionAttributeValues().get(":val").getS())));
+        verify(dbMapper, never()).query(eq(Game.class), any(DynamoDBQueryExpression.class));
+        verify(dynamoDB, times(1)).describeTable(Game.TABLE_NAME);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void readMatchupShouldScanForBothTeamOrdersWhileTheMatchupIndexIsBackfilling() throws Exception {
+        describeIndexes(IndexStatus.CREATING);
+        Game week2 = new Game().withId("1d2").withYear("2018").withWeek("2")
+                .withHomeTeam("HogPit").withAwayTeam("GimmyDaLoot");
+        Game week1 = new Game().withId("1d1").withYear("2018").withWeek("1")
+                .withHomeTeam("GimmyDaLoot").withAwayTeam("HogPit");
+        PaginatedScanList scanResult = mock(PaginatedScanList.class);
+        when(scanResult.toArray()).thenReturn(new Object[]{week2, week1});
+        when(dbMapper.scan(eq(Game.class), any(DynamoDBScanExpression.class))).thenReturn(scanResult);
+
+        List<Game> result = repository.readMatchup("GimmyDaLoot", "HogPit");
+
+        assertThat(result, is(asList(week1, week2)));
+        verify(dbMapper).scan(eq(Game.class), argThat((DynamoDBScanExpression expression) ->
+                "GimmyDaLoot".equals(expression.getExpressionAttributeValues().get(":team1").getS())
+                        && "HogPit".equals(expression.getExpressionAttributeValues().get(":team2").getS())));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void readMatchupShouldQueryTheMatchupIndexOnceActive() throws Exception {
+        describeIndexes(IndexStatus.ACTIVE);
+        PaginatedQueryList<Game> queryResult = mock(PaginatedQueryList.class);
+        when(dbMapper.query(eq(Game.class), any(DynamoDBQueryExpression.class))).thenReturn(queryResult);
+
+        repository.readMatchup("HogPit", "GimmyDaLoot");
+
+        verify(dbMapper).query(eq(Game.class), argThat((DynamoDBQueryExpression<Game> expression) ->
+                Game.MATCHUP_INDEX.equals(expression.getIndexName())
+                        && "GimmyDaLoot#HogPit".equals(expression.getExpressionAttributeValues().get(":val").getS())));
+        verify(dbMapper, never()).scan(eq(Game.class), any(DynamoDBScanExpression.class));
+    }
+
+    @Test
+    public void readIndexShouldLeaveTheMatchupIndexToReadMatchup() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> repository.readIndex(Game.MATCHUP_INDEX, "GimmyDaLoot#HogPit"));
+    }
+
+    @Test
+    public void readIndexShouldRejectUnknownIndex() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> repository.readIndex("Unknown-index", "GimmyDaLoot"));
+    }
+
+    private void describeIndexes(IndexStatus status) {
+        when(dynamoDB.describeTable(Game.TABLE_NAME)).thenReturn(new DescribeTableResult().withTable(
+                new TableDescription().withGlobalSecondaryIndexes(
+                        new GlobalSecondaryIndexDescription().withIndexName(Game.HOME_TEAM_INDEX).withIndexStatus(status),
+                        new GlobalSecondaryIndexDescription().withIndexName(Game.AWAY_TEAM_INDEX).withIndexStatus(status),
+                        new GlobalSecondaryIndexDescription().withIndexName(Game.MATCHUP_INDEX).withIndexStatus(status))));
+    }
+
+    @Test
+    public void readAllShouldScanSegmentsInParallelWhenConfigured() throws Exception {
+        ExecutorService scanExecutor = Executors.newFixedThreadPool(2);
+        ReflectionTestUtils.setField(repository, "scanExecutor", scanExecutor);
+        ReflectionTestUtils.setField(repository, "scanSegments", 2);
+        Game game1 = new Game().withId("1d");
+        Game game2 = new Game().withId("1d2");
+        Game game3 = new Game().withId("1d3");
+        when(dbMapper.scanPage(eq(Game.class), any(DynamoDBScanExpression.class))).thenAnswer(invocation -> {
+            DynamoDBScanExpression expression = invocation.getArgument(1);
+            ScanResultPage<Game> page = new ScanResultPage<>();
+            if (expression.getSegment() == 0 && expression.getExclusiveStartKey() == null) {
+                page.setResults(asList(game1));
+                page.setLastEvaluatedKey(singletonMap("Id", new AttributeValue().withS("1d")));
+            } else if (expression.getSegment() == 0) {
+                page.setResults(asList(game2));
+            } else {
+                page.setResults(asList(game3));
+            }
+            return page;
+        });
+
+        List<Game> result = repository.readAll();
+        scanExecutor.shutdown();
+        assertThat(result, containsInAnyOrder(game1, game2, game3));
+        verify(dbMapper, times(3)).scanPage(eq(Game.class), argThat((DynamoDBScanExpression expression) ->
+                expression.getTotalSegments() == 2));
+        verify(dbMapper, never()).scan(eq(Game.class), any(DynamoDBScanExpression.class));
+    }
+
     @Test
     public void readShouldReturnEmptyOptionalWhenNoResult() throws Exception {
         when(dbMapper.load(Game.class, "Id12x4")).thenReturn(null);
@@ -74,6 +290,94 @@ class GameRepositoryTest {
         assertThat(result, is(equalTo(customer)));
     }
 
+    @Test
+    public void readShouldServeRepeatedReadsFromCache() throws Exception {
+        Game game = new Game().withId("Id12x4").withHomeTeam("GimmyDaLoot");
+        when(dbMapper.load(Game.class, "Id12x4")).thenReturn(game);
+        repository.read("Id12x4").get().setHomeTeam("HogPit");
+        Game result = repository.read("Id12x4").get();
+        assertThat(result.getHomeTeam(), is("GimmyDaLoot"));
+        verify(dbMapper, times(1)).load(Game.class, "Id12x4");
+        assertThat(cache.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void readShouldNotCacheWhatItLoadedOverAConcurrentWrite() throws Exception {
+        Game stale = new Game().withId("Id12x4").withHomeTeamPts(100.0).withVersion(1L);
+        Game saved = new Game().withId("Id12x4").withHomeTeamPts(120.0).withVersion(2L);
+        when(dbMapper.load(Game.class, "Id12x4")).thenAnswer(invocation -> {
+            repository.save(saved);
+            return stale;
+        });
+
+        assertThat(repository.read("Id12x4").get().getVersion(), is(1L));
+        assertThat(repository.read("Id12x4").get().getVersion(), is(2L));
+        verify(dbMapper, times(1)).load(Game.class, "Id12x4");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void readManyShouldBatchLoadMissesInChunksOfOneHundredAndKeepRequestOrder() throws Exception {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            keys.add("1d" + i);
+        }
+        repository.save(new Game().withId("1d0").withWeek("1"));
+        when(dbMapper.batchLoad(any(Iterable.class))).thenAnswer(invocation -> {
+            List<Object> loaded = new ArrayList<>();
+            for (Game key : (List<Game>) invocation.getArgument(0)) {
+                if (!key.getId().equals("1d7")) {
+                    loaded.add(0, new Game().withId(key.getId()));
+                }
+            }
+            return singletonMap("Game", loaded);
+        });
+
+        List<Game> result = repository.readMany(keys);
+        assertThat(result.size(), is(149));
+        assertThat(result.get(0).getWeek(), is("1"));
+        assertThat(result.get(1).getId(), is("1d1"));
+        assertThat(result.get(7).getId(), is("1d8"));
+        verify(dbMapper).batchLoad(argThat((Iterable<Game> chunk) -> ((List<Game>) chunk).size() == 100));
+        verify(dbMapper).batchLoad(argThat((Iterable<Game> chunk) -> ((List<Game>) chunk).size() == 49));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void readManyConsistentShouldLoadEveryKeyConsistentlyWhateverTheCacheHolds() throws Exception {
+        repository.save(new Game().withId("1d1").withWeek("1"));
+        List<Object> loaded = Arrays.asList(new Game().withId("1d2"), new Game().withId("1d1").withWeek("2"));
+        when(dbMapper.batchLoad(any(Iterable.class), any(DynamoDBMapperConfig.class)))
+                .thenReturn(singletonMap("Game", loaded));
+
+        List<Game> result = repository.readManyConsistent(asList("1d1", "1d2", "1d3"));
+        assertThat(result.get(0).getWeek(), is("2"));
+        assertThat(result.get(1).getId(), is("1d2"));
+        assertThat(result.size(), is(2));
+        verify(dbMapper).batchLoad(any(Iterable.class), argThat((DynamoDBMapperConfig config) ->
+                config.getConsistentReads() == DynamoDBMapperConfig.ConsistentReads.CONSISTENT));
+        verify(dbMapper, never()).batchLoad(any(Iterable.class));
+    }
+
+    @Test
+    public void saveShouldRefreshCache() throws Exception {
+        Game game = new Game().withId("Id12x4").withWeek("1");
+        repository.save(game);
+        Game result = repository.read("Id12x4").get();
+        assertThat(result, is(equalTo(game)));
+        verify(dbMapper, never()).load(Game.class, "Id12x4");
+    }
+
+    @Test
+    public void deleteShouldInvalidateCache() throws Exception {
+        when(dynamoDB.deleteItem(any(DeleteItemRequest.class)))
+                .thenReturn(new DeleteItemResult().withAttributes(itemOf(new Game().withId("1d"))));
+        repository.save(new Game().withId("1d"));
+        repository.delete("1d", null);
+        assertThat(repository.read("1d"), is(Optional.empty()));
+        verify(dbMapper).load(Game.class, "1d");
+    }
+
     @Test
     public void saveShouldPersistCustomer() throws Exception {
         Game customer = new Game().withId("Id12x4");
@@ -82,8 +386,233 @@ class GameRepositoryTest {
     }
 
     @Test
-    public void deleteShouldDeleteCustomerByName() throws Exception {
-        repository.delete("1d");
-        verify(dbMapper).delete(eq(new Game().withId("1d")), any(DynamoDBMapperConfig.class));
+    public void saveShouldReportTakenIdAsStaleVersion() throws Exception {
+        Game game = new Game().withId("1d");
+        doThrow(new ConditionalCheckFailedException("Simulated failure")).when(dbMapper).save(game);
+        assertThrows(StaleVersionException.class, () -> repository.save(game));
+    }
+
+    @Test
+    public void writeManyShouldSendBatchesOfTwentyFiveAndRetryUnprocessedItems() throws Exception {
+        ReflectionTestUtils.setField(repository, "batchMaxRetries", 1);
+        List<Game> toSave = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            toSave.add(new Game().withId("1d" + i).withVersion(2L));
+        }
+        WriteRequest unprocessedPut = new WriteRequest(new PutRequest(singletonMap("Id", new AttributeValue().withS("1d3"))));
+        WriteRequest unprocessedDelete = new WriteRequest(new DeleteRequest(singletonMap("Id", new AttributeValue().withS("2d"))));
+        when(dynamoDB.batchWriteItem(any(BatchWriteItemRequest.class))).thenReturn(
+                new BatchWriteItemResult().withUnprocessedItems(singletonMap("Game", asList(unprocessedPut))),
+                new BatchWriteItemResult().withUnprocessedItems(emptyMap()),
+                new BatchWriteItemResult().withUnprocessedItems(singletonMap("Game", asList(unprocessedDelete))),
+                new BatchWriteItemResult().withUnprocessedItems(singletonMap("Game", asList(unprocessedDelete))));
+
+        Set<String> result = repository.writeMany(toSave, asList("2d", "3d"));
+        assertThat(result, containsInAnyOrder("2d"));
+        verify(dynamoDB, times(4)).batchWriteItem(any(BatchWriteItemRequest.class));
+        verify(dynamoDB).batchWriteItem(argThat((BatchWriteItemRequest request) ->
+                request.getRequestItems().get("Game").size() == 25
+                        && "2".equals(request.getRequestItems().get("Game").get(0).getPutRequest().getItem().get("Version").getN())));
+        verify(dynamoDB).batchWriteItem(argThat((BatchWriteItemRequest request) ->
+                request.getRequestItems().get("Game").size() == 7));
+        assertThat(repository.read("1d29").get(), is(equalTo(toSave.get(29))));
+        verify(dbMapper, never()).load(Game.class, "1d29");
+    }
+
+    @Test
+    public void writeManyShouldReturnWholeChunkWhenBatchWriteFails() throws Exception {
+        when(dynamoDB.batchWriteItem(any(BatchWriteItemRequest.class)))
+                .thenThrow(new ProvisionedThroughputExceededException("Simulated failure"));
+        Set<String> result = repository.writeMany(asList(new Game().withId("1d")), asList("2d"));
+        assertThat(result, containsInAnyOrder("1d", "2d"));
+    }
+
+    @Test
+    public void deleteShouldDeleteConditionallyAndReturnPreviousGame() throws Exception {
+        Game game = new Game().withId("1d").withHomeTeam("GimmyDaLoot");
+        when(dynamoDB.deleteItem(any(DeleteItemRequest.class)))
+                .thenReturn(new DeleteItemResult().withAttributes(itemOf(game)));
+        Optional<Game> result = repository.delete("1d", null);
+        assertThat(result, is(Optional.of(game)));
+        verify(dynamoDB).deleteItem(argThat((DeleteItemRequest request) ->
+                "attribute_exists(Id)".equals(request.getConditionExpression())
+                        && "1d".equals(request.getKey().get("Id").getS())
+                        && ReturnValue.ALL_OLD.toString().equals(request.getReturnValues())));
+        verify(dbMapper, never()).load(Game.class, "1d");
+    }
+
+    @Test
+    public void deleteShouldReturnEmptyOptionalWhenGameDoesNotExist() throws Exception {
+        when(dynamoDB.deleteItem(any(DeleteItemRequest.class)))
+                .thenThrow(new ConditionalCheckFailedException("Simulated failure"));
+        assertThat(repository.delete("1d", null), is(Optional.empty()));
+    }
+
+    @Test
+    public void deleteShouldBeConditionalOnTheVersionGiven() throws Exception {
+        Game game = new Game().withId("1d").withVersion(3L);
+        when(dynamoDB.deleteItem(any(DeleteItemRequest.class)))
+                .thenReturn(new DeleteItemResult().withAttributes(itemOf(game)));
+        assertThat(repository.delete("1d", 3L), is(Optional.of(game)));
+        verify(dynamoDB).deleteItem(argThat((DeleteItemRequest request) ->
+                "attribute_exists(Id) and #Version = :expected".equals(request.getConditionExpression())
+                        && "3".equals(request.getExpressionAttributeValues().get(":expected").getN())));
+    }
+
+    @Test
+    public void deleteShouldThrowStaleVersionWhenTheGameHasMoved() throws Exception {
+        when(dynamoDB.deleteItem(any(DeleteItemRequest.class)))
+                .thenThrow(new ConditionalCheckFailedException("Simulated failure"));
+        when(dbMapper.load(eq(Game.class), eq("1d"), any(DynamoDBMapperConfig.class)))
+                .thenReturn(new Game().withId("1d").withVersion(4L));
+        assertThrows(StaleVersionException.class, () -> repository.delete("1d", 3L));
+    }
+
+    @Test
+    public void replaceShouldUpdateConditionallyAndReturnPreviousGame() throws Exception {
+        Game oldGameData = new Game().withId("1d").withWeek("1").withVersion(4L);
+        Game newGameData = new Game().withId("1d").withHomeTeam("GimmyDaLoot").withAwayTeam("HogPit");
+        when(dynamoDB.updateItem(any(UpdateItemRequest.class)))
+                .thenReturn(new UpdateItemResult().withAttributes(itemOf(oldGameData)));
+        Optional<Game> result = repository.replace(newGameData);
+        assertThat(result, is(Optional.of(oldGameData)));
+        verify(dynamoDB).updateItem(argThat((UpdateItemRequest request) ->
+                "attribute_exists(Id)".equals(request.getConditionExpression())
+                        && request.getUpdateExpression().contains("#Matchup = :Matchup")
+                        && request.getUpdateExpression().contains("REMOVE ")
+                        && request.getUpdateExpression().contains("#Week")
+                        && request.getUpdateExpression().endsWith("ADD #Version :one")
+                        && "GimmyDaLoot#HogPit".equals(request.getExpressionAttributeValues().get(":Matchup").getS())));
+        assertThat(newGameData.getVersion(), is(5L));
+        assertThat(repository.read("1d").get(), is(equalTo(newGameData)));
+        assertThat(repository.read("1d").get().getVersion(), is(5L));
+        verify(dbMapper, never()).load(Game.class, "1d");
+    }
+
+    @Test
+    public void replaceShouldReturnEmptyOptionalWhenGameDoesNotExist() throws Exception {
+        when(dynamoDB.updateItem(any(UpdateItemRequest.class)))
+                .thenThrow(new ConditionalCheckFailedException("Simulated failure"));
+        assertThat(repository.replace(new Game().withId("1d")), is(Optional.empty()));
+    }
+
+    @Test
+    public void replaceShouldRequireExpectedVersion() throws Exception {
+        when(dynamoDB.updateItem(any(UpdateItemRequest.class)))
+                .thenReturn(new UpdateItemResult().withAttributes(itemOf(new Game().withId("1d").withVersion(3L))));
+        repository.replace(new Game().withId("1d").withVersion(3L));
+        verify(dynamoDB).updateItem(argThat((UpdateItemRequest request) ->
+                "attribute_exists(Id) and #Version = :expected".equals(request.getConditionExpression())
+                        && "3".equals(request.getExpressionAttributeValues().get(":expected").getN())));
+    }
+
+    @Test
+    public void updateShouldThrowStaleVersionWhenGameChangedConcurrently() throws Exception {
+        when(dynamoDB.updateItem(any(UpdateItemRequest.class)))
+                .thenThrow(new ConditionalCheckFailedException("Simulated failure"));
+        when(dbMapper.load(eq(Game.class), eq("1d"), any(DynamoDBMapperConfig.class)))
+                .thenReturn(new Game().withId("1d").withVersion(4L));
+        assertThrows(StaleVersionException.class,
+                () -> repository.update(new Game().withId("1d").withHomeTeamPts(100.0).withVersion(3L)));
+    }
+
+    @Test
+    public void updateShouldReturnEmptyOptionalWhenVersionedGameDoesNotExist() throws Exception {
+        when(dynamoDB.updateItem(any(UpdateItemRequest.class)))
+                .thenThrow(new ConditionalCheckFailedException("Simulated failure"));
+        assertThat(repository.update(new Game().withId("1d").withHomeTeamPts(100.0).withVersion(3L)),
+                is(Optional.empty()));
+    }
+
+    @Test
+    public void updateShouldSetOnlyPatchedAttributesInOneWrite() throws Exception {
+        Game oldGameData = new Game().withId("1d").withHomeTeam("GimmyDaLoot").withAwayTeam("HogPit")
+                .withYear("2012").withWeek("3").withHomeTeamPts(90.0);
+        when(dynamoDB.updateItem(any(UpdateItemRequest.class)))
+                .thenReturn(new UpdateItemResult().withAttributes(itemOf(oldGameData)));
+        Optional<Game> result = repository.update(new Game().withId("1d").withHomeTeamPts(100.0).withWeek(""));
+        assertThat(result, is(Optional.of(oldGameData)));
+        verify(dynamoDB, times(1)).updateItem(any(UpdateItemRequest.class));
+        verify(dynamoDB).updateItem(argThat((UpdateItemRequest request) ->
+                "SET #HomeTeamPts = :HomeTeamPts ADD #Version :one".equals(request.getUpdateExpression())
+                        && "attribute_exists(Id)".equals(request.getConditionExpression())));
+        assertThat(repository.read("1d").get().getHomeTeamPts(), is(100.0));
+        assertThat(repository.read("1d").get().getVersion(), is(1L));
+    }
+
+    @Test
+    public void updateShouldReplaceTheStoredGameInOneVersionedWriteWhenAPatchMovesItsMatchup() throws Exception {
+        Game oldGameData = new Game().withId("1d").withHomeTeam("GimmyDaLoot").withAwayTeam("HogPit")
+                .withYear("2012").withWeek("3").withHomeTeamPts(90.0).withVersion(4L);
+        when(dbMapper.load(eq(Game.class), eq("1d"), any(DynamoDBMapperConfig.class))).thenReturn(oldGameData);
+        when(dynamoDB.updateItem(any(UpdateItemRequest.class)))
+                .thenReturn(new UpdateItemResult().withAttributes(itemOf(oldGameData)));
+        Game patch = new Game().withId("1d").withAwayTeam("Hammers");
+        assertThat(repository.update(patch), is(Optional.of(oldGameData)));
+        verify(dynamoDB, times(1)).updateItem(any(UpdateItemRequest.class));
+        verify(dynamoDB).updateItem(argThat((UpdateItemRequest request) ->
+                "attribute_exists(Id) and #Version = :expected".equals(request.getConditionExpression())
+                        && "4".equals(request.getExpressionAttributeValues().get(":expected").getN())
+                        && "GimmyDaLoot#Hammers".equals(request.getExpressionAttributeValues().get(":Matchup").getS())
+                        && "2012#03".equals(request.getExpressionAttributeValues().get(":SeasonWeek").getS())
+                        && "Hammers".equals(request.getExpressionAttributeValues().get(":AwayTeam").getS())
+                        && request.getExpressionAttributeValues().get(":HomeTeamPts") != null));
+        assertThat(patch.getVersion(), is(5L));
+        assertThat(repository.read("1d").get().getAwayTeam(), is("Hammers"));
+    }
+
+    @Test
+    public void updateShouldSetMatchupKeysInTheSameWriteWhenThePatchNamesTeamsYearAndWeek() throws Exception {
+        Game oldGameData = new Game().withId("1d").withHomeTeam("GimmyDaLoot").withAwayTeam("HogPit")
+                .withYear("2012").withWeek("3");
+        when(dynamoDB.updateItem(any(UpdateItemRequest.class)))
+                .thenReturn(new UpdateItemResult().withAttributes(itemOf(oldGameData)));
+        repository.update(new Game().withId("1d").withHomeTeam("Hammers").withAwayTeam("HogPit")
+                .withYear("2013").withWeek("1"));
+        verify(dynamoDB, times(1)).updateItem(any(UpdateItemRequest.class));
+        verify(dynamoDB).updateItem(argThat((UpdateItemRequest request) ->
+                "attribute_exists(Id)".equals(request.getConditionExpression())
+                        && "Hammers#HogPit".equals(request.getExpressionAttributeValues().get(":Matchup").getS())
+                        && "2013#01".equals(request.getExpressionAttributeValues().get(":SeasonWeek").getS())));
+        verify(dbMapper, never()).load(eq(Game.class), eq("1d"), any(DynamoDBMapperConfig.class));
+    }
+
+    @Test
+    public void updateShouldReapplyAPatchMovingTheMatchupWhenTheGameChangedInBetween() throws Exception {
+        Game first = new Game().withId("1d").withHomeTeam("GimmyDaLoot").withAwayTeam("HogPit")
+                .withYear("2012").withWeek("3").withVersion(4L);
+        Game second = first.copy().withHomeTeamPts(100.0).withVersion(5L);
+        when(dbMapper.load(eq(Game.class), eq("1d"), any(DynamoDBMapperConfig.class)))
+                .thenReturn(first, second);
+        when(dynamoDB.updateItem(any(UpdateItemRequest.class)))
+                .thenThrow(new ConditionalCheckFailedException("Simulated failure"))
+                .thenReturn(new UpdateItemResult().withAttributes(itemOf(second)));
+        Game patch = new Game().withId("1d").withWeek("4");
+        assertThat(repository.update(patch), is(Optional.of(second)));
+        verify(dynamoDB).updateItem(argThat((UpdateItemRequest request) ->
+                "5".equals(request.getExpressionAttributeValues().get(":expected").getN())
+                        && "2012#04".equals(request.getExpressionAttributeValues().get(":SeasonWeek").getS())
+                        && request.getExpressionAttributeValues().get(":HomeTeamPts") != null));
+        assertThat(patch.getVersion(), is(6L));
+    }
+
+    @Test
+    public void updateShouldThrowStaleVersionWhenAPatchMovingTheMatchupExpectsAnotherVersion() throws Exception {
+        when(dbMapper.load(eq(Game.class), eq("1d"), any(DynamoDBMapperConfig.class)))
+                .thenReturn(new Game().withId("1d").withWeek("3").withVersion(4L));
+        assertThrows(StaleVersionException.class,
+                () -> repository.update(new Game().withId("1d").withWeek("4").withVersion(3L)));
+        verify(dynamoDB, never()).updateItem(any(UpdateItemRequest.class));
+    }
+
+    @Test
+    public void updateShouldReturnEmptyOptionalWhenGameDoesNotExist() throws Exception {
+        when(dynamoDB.updateItem(any(UpdateItemRequest.class)))
+                .thenThrow(new ConditionalCheckFailedException("Simulated failure"));
+        assertThat(repository.update(new Game().withId("1d").withWeek("1")), is(Optional.empty()));
+    }
+
+    private Map<String, AttributeValue> itemOf(Game game) {
+        return tableModel.convert(game);
     }
-}
\ No newline at end of file
+}
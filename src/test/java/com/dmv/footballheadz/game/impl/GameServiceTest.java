@@ -1,6 +1,9 @@
 package com.dmv.footballheadz.game.impl;
 
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.dmv.footballheadz.game.BatchOperation;
+import com.dmv.footballheadz.game.BatchResult;
+import com.dmv.footballheadz.game.StaleVersionException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -12,12 +15,20 @@ import java.util.Optional;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.collection.IsEmptyCollection.emptyCollectionOf;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(SpringExtension.class)
@@ -26,6 +37,21 @@ class GameServiceTest {
     @Mock
     private GameRepository repository;
 
+    @Mock
+    private GameTable gameTable;
+
+    @Mock
+    private HeadToHeadMatrix headToHeadMatrix;
+
+    @Mock
+    private Standings standings;
+
+    @Mock
+    private EloRatings eloRatings;
+
+    @Mock
+    private TeamIndex teamIndex;
+
     @InjectMocks
     private GameService service;
 
@@ -56,14 +82,39 @@ class GameServiceTest {
         verify(repository).save(newGame);
     }
 
+    @Test
+    public void createShouldReturnEmptyOptionalWhenIdIsTaken() throws Exception {
+
+        Game newGame = new Game().withId("1d").withVersion(3L);
+        doThrow(new StaleVersionException("1d", null)).when(repository).save(newGame);
+        assertThat(service.create(newGame), is(Optional.empty()));
+        assertThat(newGame.getVersion(), is(nullValue()));
+        verify(gameTable, never()).apply(any(), any());
+    }
+
+    @Test
+    public void updateShouldReturnGameWithNewVersion() throws Exception {
+
+        Game oldGameData = new Game().withId("1d").withHomeTeamPts(90.0).withVersion(3L);
+        Game newGameData = new Game().withId("1d").withHomeTeamPts(100.0).withVersion(3L);
+        when(repository.update(newGameData)).thenAnswer(invocation -> {
+            newGameData.setVersion(4L);
+            return Optional.of(oldGameData);
+        });
+        Game result = service.update(newGameData).get();
+        assertThat(result.getHomeTeamPts(), is(100.0));
+        assertThat(result.getVersion(), is(4L));
+    }
+
     @Test
     public void replaceShouldReturnEmptyOptionalWhenGameNotFound() throws Exception {
 
         Game newGameData = new Game().withId("1d").withHomeTeam("GimmyDatLoot");
-        when(repository.read("1d")).thenReturn(Optional.empty());
+        when(repository.replace(newGameData)).thenReturn(Optional.empty());
         Optional<Game> result = service.replace(newGameData);
         assertThat(result, is(Optional.empty()));
-        verify(repository, never()).save(newGameData);
+        verify(repository, never()).read(anyString());
+        verify(gameTable, never()).apply(any(), any());
     }
 
     @Test
@@ -71,20 +122,22 @@ class GameServiceTest {
 
         Game oldGameData = new Game().withId("1d").withHomeTeam("GimmyDatLoot");
         Game newGameData = new Game().withId("1d").withWeek("1");
-        when(repository.read("1d")).thenReturn(Optional.of(oldGameData));
+        when(repository.replace(newGameData)).thenReturn(Optional.of(oldGameData));
         Game result = service.replace(newGameData).get();
         assertThat(result, is(equalTo(newGameData)));
-        verify(repository).save(newGameData);
+        verify(repository, never()).read(anyString());
+        verify(repository, never()).save(any(Game.class));
     }
 
     @Test
     public void updateShouldReturnEmptyOptionalWhenGameNotFound() throws Exception {
 
         Game newGameData = new Game().withId("1d").withWeek("1");
-        when(repository.read("1d")).thenReturn(Optional.empty());
+        when(repository.update(newGameData)).thenReturn(Optional.empty());
         Optional<Game> result = service.update(newGameData);
         assertThat(result, is(Optional.empty()));
-        verify(repository, never()).save(newGameData);
+        verify(repository, never()).read(anyString());
+        verify(gameTable, never()).apply(any(), any());
     }
 
     @Test
@@ -92,10 +145,10 @@ class GameServiceTest {
 
         Game oldGameData = new Game().withId("1d").withWeek("2");
         Game newGameData = new Game().withId("1d").withWeek("1");
-        when(repository.read("1d")).thenReturn(Optional.of(oldGameData));
+        when(repository.update(newGameData)).thenReturn(Optional.of(oldGameData));
         Game result = service.update(newGameData).get();
         assertThat(result, is(equalTo(newGameData)));
-        verify(repository).save(newGameData);
+        verify(repository, never()).read(anyString());
     }
 
     @Test
@@ -104,27 +157,27 @@ class GameServiceTest {
         Game oldGameData = new Game().withId("1d").withWeek("2");
         Game newGameData = new Game().withId("1d").withHomeTeam("GimmyDatLoot");
         Game expectedResult = new Game().withId("1d").withWeek("2").withHomeTeam("GimmyDatLoot");
-        when(repository.read("1d")).thenReturn(Optional.of(oldGameData));
+        when(repository.update(newGameData)).thenReturn(Optional.of(oldGameData));
         Game result = service.update(newGameData).get();
         assertThat(result, is(equalTo(expectedResult)));
-        verify(repository).save(expectedResult);
     }
 
     @Test
     public void deleteShouldReturnFalseWhenGameNotFound() throws Exception {
 
-        when(repository.read("1d")).thenReturn(Optional.empty());
-        boolean result = service.delete("1d");
+        when(repository.delete("1d", null)).thenReturn(Optional.empty());
+        boolean result = service.delete("1d", null);
         assertThat(result, is(false));
     }
 
     @Test
     public void deleteShouldReturnTrueWhenGameDeleted() throws Exception {
 
-        when(repository.read("1d")).thenReturn(Optional.of(new Game().withId("1d")));
-        boolean result = service.delete("1d");
+        when(repository.delete("1d", null)).thenReturn(Optional.of(new Game().withId("1d")));
+        boolean result = service.delete("1d", null);
         assertThat(result, is(true));
-        verify(repository).delete("1d");
+        verify(repository).delete("1d", null);
+        verify(repository, never()).read(anyString());
     }
 
     @Test
@@ -148,7 +201,7 @@ class GameServiceTest {
     @Test
     public void listExpressionShouldReturnEmptyListWhenNothingFound() throws Exception {
 
-        when(repository.readExpression(any(DynamoDBScanExpression.class))).thenReturn(emptyList());
+        when(repository.readIndex(anyString(), eq("GimmyDaLoot"))).thenReturn(emptyList());
         List<Game> result = service.listOfGamesByTeam("GimmyDaLoot");
         assertThat(result, is(emptyCollectionOf(Game.class)));
     }
@@ -159,9 +212,196 @@ class GameServiceTest {
         Game game1 = new Game().withId("1d").withYear("2012").withHomeTeam("GimmyDaLoot").withAwayTeam("HogPit");
         Game game2 = new Game().withId("2d").withYear("2012").withAwayTeam("GimmyDaLoot");
 
-        when(repository.readExpression(any(DynamoDBScanExpression.class)))
-                .thenReturn(asList(game1, game2));
+        when(repository.readIndex(Game.HOME_TEAM_INDEX, "GimmyDaLoot")).thenReturn(asList(game1));
+        when(repository.readIndex(Game.AWAY_TEAM_INDEX, "GimmyDaLoot")).thenReturn(asList(game2));
         List<Game> result = service.listOfGamesByTeam("GimmyDaLoot");
         assertThat(result, containsInAnyOrder(game1, game2));
+        verify(repository, never()).readExpression(any(DynamoDBScanExpression.class));
+    }
+
+    @Test
+    public void listExpressionShouldNotDuplicateGamesAgainstItself() throws Exception {
+
+        Game game = new Game().withId("1d").withHomeTeam("GimmyDaLoot").withAwayTeam("GimmyDaLoot");
+
+        when(repository.readIndex(Game.HOME_TEAM_INDEX, "GimmyDaLoot")).thenReturn(asList(game));
+        when(repository.readIndex(Game.AWAY_TEAM_INDEX, "GimmyDaLoot")).thenReturn(asList(game));
+        List<Game> result = service.listOfGamesByTeam("GimmyDaLoot");
+        assertThat(result, containsInAnyOrder(game));
+    }
+
+    @Test
+    public void listOfGamesByTeamShouldComeFromTheTeamIndexOnceWarm() throws Exception {
+
+        Game game = new Game().withId("1d").withHomeTeam("GimmyDaLoot").withAwayTeam("HogPit");
+        when(teamIndex.games("GimmyDaLoot")).thenReturn(Optional.of(asList(game)));
+
+        assertThat(service.listOfGamesByTeam("GimmyDaLoot"), contains(game));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void listOfGamesByTeamsShouldReadTheMatchupOfBothTeams() throws Exception {
+
+        Game game = new Game().withId("1d").withHomeTeam("HogPit").withAwayTeam("GimmyDaLoot");
+
+        when(repository.readMatchup("HogPit", "GimmyDaLoot")).thenReturn(asList(game));
+        assertThat(service.listOfGamesByTeams("HogPit", "GimmyDaLoot"), containsInAnyOrder(game));
+        verify(repository, never()).readExpression(any(DynamoDBScanExpression.class));
+    }
+
+    @Test
+    public void writesShouldBeAppliedToTheProjections() throws Exception {
+
+        Game oldGameData = new Game().withId("1d").withHomeTeam("GimmyDaLoot").withAwayTeam("HogPit")
+                .withHomeTeamPts(100.0).withAwayTeamPts(90.0);
+        Game newGameData = new Game().withId("1d").withHomeTeamPts(80.0);
+        Game expectedResult = oldGameData.copy().withHomeTeamPts(80.0);
+        when(repository.update(newGameData)).thenReturn(Optional.of(oldGameData));
+        when(repository.delete("1d", null)).thenReturn(Optional.of(oldGameData));
+
+        service.update(newGameData);
+        verify(gameTable).apply(oldGameData, expectedResult);
+        verify(eloRatings).apply(oldGameData, expectedResult);
+
+        service.delete("1d", null);
+        verify(gameTable).apply(oldGameData, null);
+        verify(eloRatings).apply(oldGameData, null);
+    }
+
+    @Test
+    public void ratingsShouldComeFromTheEloRatings() throws Exception {
+
+        List<Rating> ratings = asList(new Rating(1, "GimmyDaLoot", 1520.5, 3));
+        when(eloRatings.ratings()).thenReturn(ratings);
+        assertThat(service.ratings(), is(ratings));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void standingsShouldComeFromTheStandingsTable() throws Exception {
+
+        List<Standing> table = asList(new Standing(1, "GimmyDaLoot", 3, 1, 0, 400, 350, "W2"));
+        when(standings.table("2018", "4")).thenReturn(table);
+        assertThat(service.standings("2018", "4"), is(table));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void headToHeadSummaryShouldComeFromTheMatrix() throws Exception {
+
+        HeadToHead summary = new HeadToHead("GimmyDaLoot", "HogPit", 3, 1, 0, 420.5, 390.0);
+        when(headToHeadMatrix.isWarm()).thenReturn(true);
+        when(headToHeadMatrix.summary("GimmyDaLoot", "HogPit")).thenReturn(Optional.of(summary));
+        assertThat(service.headToHeadSummary("GimmyDaLoot", "HogPit"), is(Optional.of(summary)));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void headToHeadSummaryShouldBeTotalledFromTheMatchupUntilTheMatrixIsWarm() throws Exception {
+
+        Game game = new Game().withId("1d").withHomeTeam("HogPit").withAwayTeam("GimmyDaLoot")
+                .withHomeTeamPts(90.0).withAwayTeamPts(100.0);
+        when(repository.readMatchup("GimmyDaLoot", "HogPit")).thenReturn(asList(game));
+
+        HeadToHead summary = service.headToHeadSummary("GimmyDaLoot", "HogPit").get();
+        assertThat(summary.getRecord(), is("GimmyDaLoot : 1 - HogPit : 0"));
+        assertThat(summary.getGames(), is(nullValue()));
+        assertThat(service.headToHeadSummary("GimmyDaLoot", "Bye"), is(Optional.empty()));
+        verify(headToHeadMatrix, never()).summary(anyString(), anyString());
+        verify(repository, never()).readAll();
+    }
+
+    @Test
+    public void batchShouldWriteOnceAndReportPerItemResults() throws Exception {
+
+        Game newGame = new Game().withHomeTeam("GimmyDaLoot").withAwayTeam("HogPit");
+        Game replacedGame = new Game().withId("1d").withWeek("2");
+        Game existingGame = new Game().withId("1d").withWeek("1").withVersion(4L);
+        Game deletedGame = new Game().withId("2d");
+        when(repository.readManyConsistent(asList("1d", "2d", "3d"))).thenReturn(asList(existingGame, deletedGame));
+        when(repository.writeMany(anyList(), anyList())).thenReturn(emptySet());
+        when(repository.replace(replacedGame)).thenAnswer(invocation -> {
+            assertThat(replacedGame.getVersion(), is(4L));
+            replacedGame.setVersion(5L);
+            return Optional.of(existingGame);
+        });
+
+        List<BatchResult> result = service.batch(asList(
+                new BatchOperation<Game>().withAction(BatchOperation.Action.PUT).withItem(newGame),
+                new BatchOperation<Game>().withAction(BatchOperation.Action.PUT).withItem(replacedGame),
+                new BatchOperation<Game>().withAction(BatchOperation.Action.DELETE).withId("2d"),
+                new BatchOperation<Game>().withAction(BatchOperation.Action.DELETE).withId("3d"),
+                new BatchOperation<Game>().withAction(BatchOperation.Action.DELETE).withId("2d"),
+                new BatchOperation<Game>().withAction(BatchOperation.Action.PUT)));
+
+        assertThat(newGame.getId(), is(notNullValue()));
+        assertThat(newGame.getVersion(), is(1L));
+        assertThat(replacedGame.getVersion(), is(5L));
+        assertThat(result, contains(
+                new BatchResult(0, newGame.getId(), BatchResult.Status.CREATED, null),
+                new BatchResult(1, "1d", BatchResult.Status.REPLACED, null),
+                new BatchResult(2, "2d", BatchResult.Status.DELETED, null),
+                new BatchResult(3, "3d", BatchResult.Status.NOT_FOUND, null),
+                new BatchResult(4, "2d", BatchResult.Status.INVALID, "Duplicate id in batch"),
+                new BatchResult(5, null, BatchResult.Status.INVALID, "Missing item")));
+        verify(repository).writeMany(asList(newGame), asList("2d"));
+        verify(repository).readManyConsistent(asList("1d", "2d", "3d"));
+        verify(repository, never()).readMany(anyList());
+        verify(repository, never()).read(anyString());
+        verify(gameTable).apply(null, newGame);
+        verify(gameTable).apply(existingGame, replacedGame);
+        verify(gameTable).apply(deletedGame, null);
+    }
+
+    @Test
+    public void batchShouldReportUnprocessedWritesAsFailed() throws Exception {
+
+        Game game = new Game().withId("1d");
+        when(repository.readManyConsistent(asList("1d"))).thenReturn(emptyList());
+        when(repository.writeMany(anyList(), anyList())).thenReturn(singleton("1d"));
+
+        List<BatchResult> result = service.batch(asList(
+                new BatchOperation<Game>().withAction(BatchOperation.Action.PUT).withItem(game)));
+
+        assertThat(result, contains(new BatchResult(0, "1d", BatchResult.Status.FAILED, "Unprocessed after retries")));
+        verify(gameTable, never()).apply(null, game);
+    }
+
+    @Test
+    public void batchShouldRejectTeamNamesWithTheMatchupSeparator() throws Exception {
+
+        Game game = new Game().withId("1d").withHomeTeam("Hog#Pit").withAwayTeam("GimmyDaLoot");
+
+        List<BatchResult> result = service.batch(asList(
+                new BatchOperation<Game>().withAction(BatchOperation.Action.PUT).withItem(game)));
+
+        assertThat(result, contains(new BatchResult(0, null, BatchResult.Status.INVALID, "Invalid team name")));
+        verify(repository).writeMany(emptyList(), emptyList());
+    }
+
+    @Test
+    public void batchShouldFailPutsOfGamesChangedSinceTheyWereRead() throws Exception {
+
+        Game game = new Game().withId("1d").withWeek("2");
+        when(repository.readManyConsistent(asList("1d"))).thenReturn(asList(new Game().withId("1d").withVersion(4L)));
+        when(repository.replace(game)).thenThrow(new StaleVersionException("1d", null));
+        when(repository.writeMany(anyList(), anyList())).thenReturn(emptySet());
+
+        List<BatchResult> result = service.batch(asList(
+                new BatchOperation<Game>().withAction(BatchOperation.Action.PUT).withItem(game)));
+
+        assertThat(result, contains(new BatchResult(0, "1d", BatchResult.Status.FAILED, "Version conflict")));
+        verify(repository).writeMany(emptyList(), emptyList());
+        verify(gameTable, never()).apply(any(), any());
+    }
+
+    @Test
+    public void readManyShouldReturnGamesFromRepository() throws Exception {
+
+        Game game1 = new Game().withId("1d");
+        Game game2 = new Game().withId("2d");
+        when(repository.readMany(asList("1d", "2d"))).thenReturn(asList(game1, game2));
+        assertThat(service.readMany(asList("1d", "2d")), contains(game1, game2));
     }
-}
\ No newline at end of file
+}
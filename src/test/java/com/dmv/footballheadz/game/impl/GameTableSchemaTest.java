@@ -0,0 +1,42 @@
+package com.dmv.footballheadz.game.impl;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+class GameTableSchemaTest {
+
+    private final TableSchema<Game> schema = GameTableSchema.create();
+
+    private final Game game = new Game().withId("1d").withYear("2012").withWeek("3")
+            .withHomeTeam("GimmyDaLoot").withAwayTeam("HogPit")
+            .withHomeTeamPts(100.5).withAwayTeamPts(90.0).withVersion(4L);
+
+    @Test
+    public void itemShouldMatchTheV1Mapping() throws Exception {
+        Map<String, com.amazonaws.services.dynamodbv2.model.AttributeValue> v1 =
+                new DynamoDBMapper(mock(AmazonDynamoDB.class)).getTableModel(Game.class).convert(game);
+        Map<String, AttributeValue> v2 = schema.itemToMap(game, true);
+        assertThat(v2.keySet(), is(equalTo(v1.keySet())));
+        for (String attributeName : v1.keySet()) {
+            assertThat(attributeName, v2.get(attributeName).s(), is(v1.get(attributeName).getS()));
+            assertThat(attributeName, v2.get(attributeName).n(), is(v1.get(attributeName).getN()));
+        }
+    }
+
+    @Test
+    public void mapShouldRoundTrip() throws Exception {
+        Game result = schema.mapToItem(schema.itemToMap(game, true));
+        assertThat(result, is(equalTo(game)));
+        assertThat(result.getVersion(), is(4L));
+    }
+}
@@ -0,0 +1,105 @@
+package com.dmv.footballheadz.game.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.dmv.footballheadz.game.impl.TestGames.game;
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(SpringExtension.class)
+class GameTableTest {
+
+    private final GameTable table = new GameTable();
+
+    private final Game week1 = game("1", "2018", "1", "team1", "team2", 110.0, 100.0);
+    private final Game week2 = game("2", "2018", "2", "team3", "team1", 120.0, 100.0);
+    private final Game week10 = game("4", "2018", "10", "team2", "team3", 130.0, 80.0);
+    private final Game otherSeason = game("5", "2017", "1", "team2", "team1", 20.0, 10.0);
+    private final Game unscored = new Game().withId("6").withYear("2018").withWeek("4")
+            .withHomeTeam("team1").withAwayTeam("team2");
+    private final Game unscheduled = game("7", "2018", "Wildcard", "team1", "team2", 95.0, 90.0);
+
+    @Test
+    public void columnsShouldBeUnavailableUntilBuilt() throws Exception {
+
+        assertThrows(ProjectionNotWarmException.class, table::columns);
+    }
+
+    @Test
+    public void columnsShouldHoldTeamIdsPackedWeeksAndNaNForMissingScores() throws Exception {
+
+        build(week1, unscored, unscheduled);
+
+        GameTable.Columns columns = table.columns();
+        int slot = columns.gamesOf(columns.teamOf("team1")).get(1);
+        assertThat(columns.game(slot), is(unscored));
+        assertThat(columns.teamName(columns.homeTeam(slot)), is("team1"));
+        assertThat(columns.teamName(columns.awayTeam(slot)), is("team2"));
+        assertThat(columns.seasonWeek(slot), is(201804));
+        assertThat(Double.isNaN(columns.homePoints(slot)), is(true));
+        assertThat(columns.teamCount(), is(2));
+        assertThat(columns.teamOf("team4"), is(-1));
+    }
+
+    @Test
+    public void teamGamesShouldBeInScheduleOrder() throws Exception {
+
+        build(week10, unscheduled, otherSeason, unscored, week2, week1);
+
+        assertThat(ids(table.columns(), table.columns().gamesOf(table.columns().teamOf("team1"))),
+                contains("5", "1", "2", "6", "7"));
+        assertThat(ids(table.columns(), table.columns().gamesOf(table.columns().teamOf("team3"))),
+                contains("2", "4"));
+        assertThat(table.columns().gamesOf(-1).size(), is(0));
+    }
+
+    @Test
+    public void seasonGamesShouldBeInWeekOrderAndLeaveOutUnscheduledGames() throws Exception {
+
+        build(week10, unscheduled, otherSeason, unscored, week2, week1);
+
+        assertThat(ids(table.columns(), table.columns().seasonOf(2018)), contains("1", "2", "6", "4"));
+        assertThat(ids(table.columns(), table.columns().seasonOf(2017)), contains("5"));
+        assertThat(ids(table.columns(), table.columns().seasonOf(1999)), is(empty()));
+    }
+
+    @Test
+    public void movesShouldReuseSlotsAndKeepTheListsInOrder() throws Exception {
+
+        build(week1, week2, week10);
+
+        Game moved = week1.copy().withWeek("11").withAwayTeam("team3");
+        table.apply(week1, moved);
+        table.apply(week2, null);
+        table.apply(null, otherSeason);
+
+        GameTable.Columns columns = table.columns();
+        assertThat(ids(columns, columns.gamesOf(columns.teamOf("team1"))), contains("5", "1"));
+        assertThat(ids(columns, columns.gamesOf(columns.teamOf("team2"))), contains("5", "4"));
+        assertThat(ids(columns, columns.gamesOf(columns.teamOf("team3"))), contains("4", "1"));
+        assertThat(ids(columns, columns.seasonOf(2018)), contains("4", "1"));
+        assertThat(columns.seasonWeek(columns.gamesOf(columns.teamOf("team1")).get(1)), is(201811));
+    }
+
+    private void build(Game... games) {
+        table.beginRebuild();
+        table.completeRebuild(asList(games));
+    }
+
+    private static List<String> ids(GameTable.Columns columns, GameTable.Slots slots) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < slots.size(); i++) {
+            ids.add(columns.game(slots.get(i)).getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,139 @@
+package com.dmv.footballheadz.game.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+
+@ExtendWith(SpringExtension.class)
+class HeadToHeadMatrixTest {
+
+    private final GameTable table = new GameTable();
+
+    private final HeadToHeadMatrix matrix = new HeadToHeadMatrix();
+
+    private final Game game1 = new Game().withId("1d1").withHomeTeam("team1").withAwayTeam("team2")
+            .withHomeTeamPts(100.19).withAwayTeamPts(101.20);
+    private final Game game2 = new Game().withId("1d2").withHomeTeam("team2").withAwayTeam("team1")
+            .withHomeTeamPts(105.19).withAwayTeamPts(101.20);
+    private final Game game3 = new Game().withId("1d3").withHomeTeam("team2").withAwayTeam("team1")
+            .withHomeTeamPts(100.19).withAwayTeamPts(101.20);
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(matrix, "gameTable", table);
+    }
+
+    @Test
+    public void summaryShouldTotalEveryGameOfThePair() throws Exception {
+
+        warm(asList(game1, game2, game3));
+        assertThat(matrix.summary("team1", "team2").get().getRecord(), is("team1 : 1 - team2 : 2"));
+        assertThat(matrix.summary("team2", "team1").get().getRecord(), is("team2 : 2 - team1 : 1"));
+        HeadToHeadStats team2 = matrix.summary("team2", "team1").get().getTeam1Stats();
+        assertThat(team2.getPointsFor(), is(closeTo(306.58, 1e-9)));
+        assertThat(team2.getPointsAgainst(), is(closeTo(302.59, 1e-9)));
+    }
+
+    @Test
+    public void summaryShouldBeEmptyForTeamsThatNeverPlayed() throws Exception {
+
+        warm(asList(game1));
+        assertThat(matrix.summary("team1", "team3"), is(Optional.empty()));
+    }
+
+    @Test
+    public void applyShouldMoveResultsIncrementally() throws Exception {
+
+        warm(emptyList());
+
+        table.apply(null, game1);
+        table.apply(null, game2);
+        assertThat(matrix.summary("team1", "team2").get().getRecord(), is("team1 : 0 - team2 : 2"));
+
+        table.apply(game2, game2.copy().withHomeTeamPts(90.0));
+        assertThat(matrix.summary("team1", "team2").get().getRecord(), is("team1 : 1 - team2 : 1"));
+
+        table.apply(game1, null);
+        assertThat(matrix.summary("team1", "team2").get().getRecord(), is("team1 : 1 - team2 : 0"));
+    }
+
+    @Test
+    public void summaryShouldCountTiesAsNeitherTeamsWin() throws Exception {
+
+        Game tie = new Game().withId("1d4").withHomeTeam("team1").withAwayTeam("team2")
+                .withHomeTeamPts(100.0).withAwayTeamPts(100.0);
+        warm(asList(game1, tie));
+        HeadToHead summary = matrix.summary("team2", "team1").get();
+
+        assertThat(summary.getRecord(), is("team2 : 1 - team1 : 0"));
+        assertThat(summary.getTeam1Stats().getTies(), is(1));
+        assertThat(summary.getTeam2Stats().getLosses(), is(1));
+        assertThat(summary.getTeam2Stats().getTies(), is(1));
+    }
+
+    @Test
+    public void gamesWithoutScoresShouldGiveAZeroRecordSummary() throws Exception {
+
+        warm(emptyList());
+
+        Game unscored = new Game().withId("1d4").withHomeTeam("team1").withAwayTeam("team2");
+        table.apply(null, unscored);
+        HeadToHead summary = matrix.summary("team2", "team1").get();
+        assertThat(summary.getRecord(), is("team2 : 0 - team1 : 0"));
+        assertThat(summary.getTeam1Stats().getTies(), is(0));
+        assertThat(summary.getTeam1Stats().getPointsFor(), is(0.0));
+
+        table.apply(unscored, unscored.copy().withHomeTeamPts(90.0).withAwayTeamPts(80.0));
+        assertThat(matrix.summary("team1", "team2").get().getRecord(), is("team1 : 1 - team2 : 0"));
+
+        table.apply(unscored.copy().withHomeTeamPts(90.0).withAwayTeamPts(80.0), null);
+        assertThat(matrix.summary("team1", "team2"), is(Optional.empty()));
+    }
+
+    @Test
+    public void applyShouldKeepTheLaterOfTwoWritesAppliedInReverseOrder() throws Exception {
+
+        warm(asList(game1.copy().withVersion(1L)));
+
+        table.apply(game1, game1.copy().withHomeTeamPts(110.0).withVersion(3L));
+        table.apply(game1, game1.copy().withHomeTeamPts(90.0).withVersion(2L));
+        assertThat(matrix.summary("team1", "team2").get().getRecord(), is("team1 : 1 - team2 : 0"));
+    }
+
+    @Test
+    public void applyShouldNotCountAWriteTheScanAlreadySaw() throws Exception {
+
+        Game stored = game1.copy().withVersion(2L);
+        warm(asList(stored));
+
+        table.apply(game1.copy().withVersion(1L), stored);
+        assertThat(matrix.summary("team1", "team2").get().getRecord(), is("team1 : 0 - team2 : 1"));
+    }
+
+    @Test
+    public void rebuildShouldReplayWritesAppliedDuringItsScan() throws Exception {
+
+        table.beginRebuild();
+        table.apply(null, game2);
+        table.apply(game1, null);
+        table.completeRebuild(asList(game1, game3));
+
+        assertThat(matrix.summary("team1", "team2").get().getRecord(), is("team1 : 1 - team2 : 1"));
+    }
+
+    private void warm(List<Game> games) {
+        table.beginRebuild();
+        table.completeRebuild(games);
+    }
+}
@@ -0,0 +1,74 @@
+package com.dmv.footballheadz.game.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+
+class HeadToHeadTest {
+
+    private final Game team1Win = new Game().withId("1d1").withHomeTeam("team1").withAwayTeam("team2")
+            .withHomeTeamPts(110.0).withAwayTeamPts(100.0);
+    private final Game team2Win = new Game().withId("1d2").withHomeTeam("team2").withAwayTeam("team1")
+            .withHomeTeamPts(120.0).withAwayTeamPts(95.0);
+    private final Game tie = new Game().withId("1d3").withHomeTeam("team2").withAwayTeam("team1")
+            .withHomeTeamPts(90.0).withAwayTeamPts(90.0);
+    private final Game unscored = new Game().withId("1d4").withHomeTeam("team1").withAwayTeam("team2")
+            .withHomeTeamPts(80.0);
+    private final Game otherMatchup = new Game().withId("1d5").withHomeTeam("team1").withAwayTeam("team3")
+            .withHomeTeamPts(130.0).withAwayTeamPts(70.0);
+
+    @Test
+    public void gamesShouldBeTalliedForBothTeams() throws Exception {
+
+        HeadToHead headToHead = new HeadToHead("team1", "team2",
+                asList(team1Win, team2Win, tie, unscored, otherMatchup));
+
+        assertThat(headToHead.getRecord(), is("team1 : 1 - team2 : 1"));
+        assertThat(headToHead.getGames().size(), is(5));
+
+        HeadToHeadStats team1 = headToHead.getTeam1Stats();
+        assertThat(team1.getTeam(), is("team1"));
+        assertThat(team1.getWins(), is(1));
+        assertThat(team1.getLosses(), is(1));
+        assertThat(team1.getTies(), is(1));
+        assertThat(team1.getPointsFor(), is(295.0));
+        assertThat(team1.getPointsAgainst(), is(310.0));
+        assertThat(team1.getAverageMargin(), is(closeTo(-5.0, 1e-9)));
+
+        HeadToHeadStats team2 = headToHead.getTeam2Stats();
+        assertThat(team2.getTeam(), is("team2"));
+        assertThat(team2.getWins(), is(1));
+        assertThat(team2.getLosses(), is(1));
+        assertThat(team2.getTies(), is(1));
+        assertThat(team2.getPointsFor(), is(310.0));
+        assertThat(team2.getAverageMargin(), is(closeTo(5.0, 1e-9)));
+    }
+
+    @Test
+    public void averageMarginShouldBeZeroWithoutScoredGames() throws Exception {
+
+        HeadToHead headToHead = new HeadToHead("team1", "team2", asList(unscored));
+
+        assertThat(headToHead.getRecord(), is("team1 : 0 - team2 : 0"));
+        assertThat(headToHead.getTeam1Stats().getAverageMargin(), is(0.0));
+        assertThat(new HeadToHead("team1", "team2", emptyList()).getTeam2Stats().getWins(), is(0));
+    }
+
+    @Test
+    public void summaryShouldMirrorTheFirstTeamsStats() throws Exception {
+
+        HeadToHead summary = new HeadToHead("team1", "team2", 3, 1, 2, 600.0, 560.0);
+
+        assertThat(summary.getRecord(), is("team1 : 3 - team2 : 1"));
+        assertThat(summary.getGames() == null, is(true));
+        assertThat(summary.getTeam2Stats().getWins(), is(1));
+        assertThat(summary.getTeam2Stats().getLosses(), is(3));
+        assertThat(summary.getTeam2Stats().getTies(), is(2));
+        assertThat(summary.getTeam2Stats().getPointsFor(), is(560.0));
+        assertThat(summary.getTeam2Stats().getAverageMargin(), is(closeTo(-40.0 / 6, 1e-9)));
+    }
+}
@@ -0,0 +1,225 @@
+package com.dmv.footballheadz.game.impl;
+
+import com.dmv.footballheadz.game.Page;
+import com.dmv.footballheadz.game.StaleVersionException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InMemoryGameRepositoryTest {
+
+    private final InMemoryGameRepository repository = new InMemoryGameRepository();
+
+    @Test
+    public void saveShouldStoreACopyAndStartTheVersionAtOne() throws Exception {
+        Game game = game("1", "Home", "Away", "2018", "3");
+        repository.save(game);
+        game.setHomeTeamPts(0d);
+
+        Game stored = repository.read("1").get();
+        assertThat(stored.getVersion(), is(1L));
+        assertThat(stored.getHomeTeamPts(), is(100d));
+        assertThat(game.getVersion(), is(1L));
+    }
+
+    @Test
+    public void saveShouldGenerateAnIdWhenThereIsNone() throws Exception {
+        Game game = game(null, "Home", "Away", "2018", "3");
+        repository.save(game);
+        assertThat(game.getId(), is(notNullValue()));
+        assertThat(repository.read(game.getId()).isPresent(), is(true));
+    }
+
+    @Test
+    public void saveShouldNotOverwriteAnExistingGameAsNew() throws Exception {
+        repository.save(game("1", "Home", "Away", "2018", "3"));
+        assertThrows(StaleVersionException.class, () -> repository.save(game("1", "Other", "Away", "2018", "3")));
+        assertThat(repository.read("1").get().getHomeTeam(), is("Home"));
+    }
+
+    @Test
+    public void deleteShouldKeepTheGameWhenTheVersionIsStale() throws Exception {
+        repository.save(game("1", "Home", "Away", "2018", "3"));
+        assertThrows(StaleVersionException.class, () -> repository.delete("1", 7L));
+        assertThat(repository.read("1").isPresent(), is(true));
+        assertThat(repository.delete("1", 1L).isPresent(), is(true));
+    }
+
+    @Test
+    public void indexesShouldFollowWrites() throws Exception {
+        repository.save(game("1", "Home", "Away", "2018", "3"));
+        repository.save(game("2", "Away", "Home", "2017", "12"));
+        repository.save(game("3", "Home", "Other", "2018", "4"));
+
+        assertThat(ids(repository.readIndex(Game.HOME_TEAM_INDEX, "Home")), containsInAnyOrder("1", "3"));
+        assertThat(ids(repository.readIndex(Game.AWAY_TEAM_INDEX, "Home")), contains("2"));
+        assertThat(ids(repository.readMatchup("Home", "Away")), contains("2", "1"));
+
+        repository.update(new Game().withId("3").withHomeTeam("Moved"));
+        repository.delete("1", null);
+
+        assertThat(repository.readIndex(Game.HOME_TEAM_INDEX, "Home"), is(empty()));
+        assertThat(ids(repository.readIndex(Game.HOME_TEAM_INDEX, "Moved")), contains("3"));
+        assertThat(ids(repository.readMatchup("Home", "Away")), contains("2"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void indexesShouldHoldOnlyTheStoredGameAfterConcurrentWritesToIt() throws Exception {
+        repository.save(game("1", "Home", "Away", "2018", "3"));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int writer = 0; writer < 8; writer++) {
+                String team = "Team" + writer;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        repository.update(new Game().withId("1").withHomeTeam(team));
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        String homeTeam = repository.read("1").get().getHomeTeam();
+        assertThat(repository.read("1").get().getVersion(), is(4001L));
+        for (int writer = 0; writer < 8; writer++) {
+            String team = "Team" + writer;
+            assertThat(ids(repository.readIndex(Game.HOME_TEAM_INDEX, team)),
+                    team.equals(homeTeam) ? contains("1") : is(empty()));
+        }
+        Map<String, Set<String>> homeIndex =
+                ((Map<String, Map<String, Set<String>>>) ReflectionTestUtils.getField(repository, "indexes"))
+                        .get(Game.HOME_TEAM_INDEX);
+        assertThat(homeIndex.entrySet().stream().filter(key -> !key.getValue().isEmpty())
+                .map(Map.Entry::getKey).collect(Collectors.toList()), contains(homeTeam));
+    }
+
+    @Test
+    public void readIndexShouldRejectUnknownIndexes() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> repository.readIndex("Year-index", "2018"));
+    }
+
+    @Test
+    public void replaceShouldReturnThePreviousGameAndAdvanceTheVersion() throws Exception {
+        repository.save(game("1", "Home", "Away", "2018", "3"));
+        Game replacement = game("1", "Home", "Away", "2018", "3").withHomeTeamPts(7d);
+
+        Optional<Game> previous = repository.replace(replacement);
+
+        assertThat(previous.get().getHomeTeamPts(), is(100d));
+        assertThat(replacement.getVersion(), is(2L));
+        assertThat(repository.read("1").get().getHomeTeamPts(), is(7d));
+    }
+
+    @Test
+    public void replaceAndUpdateShouldBeEmptyForMissingGames() throws Exception {
+        assertThat(repository.replace(game("1", "Home", "Away", "2018", "3")).isPresent(), is(false));
+        assertThat(repository.update(new Game().withId("1").withWeek("4")).isPresent(), is(false));
+        assertThat(repository.read("1").isPresent(), is(false));
+    }
+
+    @Test
+    public void updateShouldRejectAStaleVersion() throws Exception {
+        repository.save(game("1", "Home", "Away", "2018", "3"));
+        repository.update(new Game().withId("1").withWeek("4"));
+
+        assertThrows(StaleVersionException.class,
+                () -> repository.update(new Game().withId("1").withWeek("5").withVersion(1L)));
+        Game patch = new Game().withId("1").withWeek("5").withVersion(2L);
+        repository.update(patch);
+        assertThat(patch.getVersion(), is(3L));
+        assertThat(repository.read("1").get().getWeek(), is("5"));
+        assertThat(repository.read("1").get().getHomeTeam(), is("Home"));
+    }
+
+    @Test
+    public void readPageShouldWalkTheGamesInIdOrder() throws Exception {
+        repository.writeMany(asList(game("c", "A", "B", "2018", "1"), game("a", "A", "B", "2018", "2"),
+                game("b", "A", "B", "2018", "3")), Collections.emptyList());
+
+        Page<Game> first = repository.readPage(2, null);
+        assertThat(ids(first.getItems()), contains("a", "b"));
+        Page<Game> second = repository.readPage(2, first.getCursor());
+        assertThat(ids(second.getItems()), contains("c"));
+        assertThat(second.getCursor(), is(nullValue()));
+    }
+
+    @Test
+    public void readManyShouldKeepTheOrderOfTheKeys() throws Exception {
+        repository.writeMany(asList(game("1", "A", "B", "2018", "1"), game("2", "A", "B", "2018", "2")),
+                Collections.emptyList());
+        assertThat(ids(repository.readMany(asList("2", "missing", "1"))), contains("2", "1"));
+    }
+
+    @Test
+    public void writeManyShouldDeleteAndNeverFail() throws Exception {
+        repository.save(game("1", "A", "B", "2018", "1"));
+        assertThat(repository.writeMany(asList(game("2", "A", "B", "2018", "2")), asList("1")), is(empty()));
+        assertThat(ids(repository.readAll()), contains("2"));
+    }
+
+    @Test
+    public void snapshotShouldBeReloadedWithItsIndexes(@TempDir Path directory) throws Exception {
+        Path snapshot = directory.resolve("games.json");
+        ReflectionTestUtils.setField(repository, "snapshotFile", snapshot.toString());
+        repository.save(game("1", "Home", "Away", "2018", "3"));
+        repository.save(game("2", "Away", "Home", "2017", "12"));
+        repository.snapshotIfChanged();
+        assertThat(Files.readAllLines(snapshot).size(), is(2));
+
+        InMemoryGameRepository reloaded = new InMemoryGameRepository();
+        ReflectionTestUtils.setField(reloaded, "snapshotFile", snapshot.toString());
+        ReflectionTestUtils.setField(reloaded, "snapshotIntervalSeconds", 60L);
+        reloaded.start();
+        try {
+            assertThat(reloaded.read("1").get(), is(repository.read("1").get()));
+            assertThat(reloaded.read("1").get().getVersion(), is(1L));
+            assertThat(ids(reloaded.readMatchup("Away", "Home")), contains("2", "1"));
+        } finally {
+            reloaded.stop();
+        }
+    }
+
+    private static Game game(String id, String homeTeam, String awayTeam, String year, String week) {
+        return new Game()
+                .withId(id)
+                .withHomeTeam(homeTeam)
+                .withAwayTeam(awayTeam)
+                .withYear(year)
+                .withWeek(week)
+                .withHomeTeamPts(100d)
+                .withAwayTeamPts(90d);
+    }
+
+    private static List<String> ids(List<Game> games) {
+        return games.stream().map(Game::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,174 @@
+package com.dmv.footballheadz.game.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.dmv.footballheadz.game.impl.TestGames.game;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(SpringExtension.class)
+class StandingsTest {
+
+    private final GameTable table = new GameTable();
+
+    private final Standings standings = new Standings();
+
+    private final Game week1 = game("1", "2018", "1", "team1", "team2", 110.0, 100.0);
+    private final Game week2 = game("2", "2018", "2", "team3", "team1", 120.0, 100.0);
+    private final Game week3 = game("3", "2018", "3", "team1", "team3", 90.0, 90.0);
+    private final Game week10 = game("4", "2018", "10", "team2", "team3", 130.0, 80.0);
+    private final Game otherSeason = game("5", "2017", "1", "team1", "team2", 10.0, 20.0);
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(standings, "gameTable", table);
+    }
+
+    @Test
+    public void tableShouldBeRanked() throws Exception {
+
+        warm(asList(week1, week2, week3, week10, otherSeason));
+        List<Standing> table = standings.table("2018", null);
+
+        assertThat(teams(table), contains("team2", "team1", "team3"));
+        Standing team1 = table.get(1);
+        assertThat(team1.getRank(), is(2));
+        assertThat(team1.getWins(), is(1));
+        assertThat(team1.getLosses(), is(1));
+        assertThat(team1.getTies(), is(1));
+        assertThat(team1.getPointsFor(), is(300.0));
+        assertThat(team1.getPointsAgainst(), is(310.0));
+        assertThat(team1.getStreak(), is("T1"));
+        assertThat(team1.getWinPercentage(), is(0.5));
+
+        standings.table("2017", null);
+    }
+
+    @Test
+    public void tableShouldStopAtTheGivenWeekInScheduleOrder() throws Exception {
+
+        warm(asList(week10, week3, week1, week2));
+        List<Standing> table = standings.table("2018", "2");
+
+        assertThat(teams(table), contains("team3", "team1", "team2"));
+        assertThat(table.get(1).getStreak(), is("L1"));
+        assertThat(standings.table("2018", "9").size(), is(3));
+        assertThat(standings.table("2018", "10").get(0).getTeam(), is("team2"));
+    }
+
+    @Test
+    public void gamesOutsideNumberedWeeksShouldNotCount() throws Exception {
+
+        warm(asList(week1, week2,
+                game("6", "2018", "100", "team2", "team3", 10.0, 20.0),
+                game("7", "2018", "Wildcard", "team2", "team3", 10.0, 20.0)));
+        List<Standing> table = standings.table("2018", null);
+
+        assertThat(teams(table), contains("team3", "team1", "team2"));
+        assertThat(table.get(0).getWins(), is(1));
+        assertThat(standings.table("2018", "100").size(), is(3));
+        assertThat(standings.table("2018", "1").size(), is(2));
+    }
+
+    @Test
+    public void tableShouldBeEmptyForWeeksOrYearsThatAreNotNumbers() throws Exception {
+
+        warm(asList(week1));
+        assertThat(standings.table("2018", "first"), is(empty()));
+        assertThat(standings.table("season", null), is(empty()));
+        assertThat(standings.table("2018", "-1"), is(empty()));
+    }
+
+    @Test
+    public void streakShouldCountTheLatestRun() throws Exception {
+
+        warm(asList(
+                game("1", "2018", "1", "team1", "team2", 80.0, 100.0),
+                game("2", "2018", "2", "team1", "team2", 110.0, 100.0),
+                game("3", "2018", "3", "team2", "team1", 90.0, 100.0)));
+        assertThat(standings.table("2018", null).get(0).getStreak(), is("W2"));
+        assertThat(standings.table("2018", null).get(1).getStreak(), is("L2"));
+    }
+
+    @Test
+    public void tableShouldBeEmptyForSeasonsWithoutGames() throws Exception {
+
+        warm(asList(week1));
+        assertThat(standings.table("1999", null), is(empty()));
+    }
+
+    @Test
+    public void applyShouldMoveResultsIncrementally() throws Exception {
+
+        warm(emptyList());
+
+        table.apply(null, week1);
+        assertThat(teams(standings.table("2018", null)), contains("team1", "team2"));
+
+        table.apply(week1, week1.copy().withHomeTeamPts(90.0));
+        assertThat(teams(standings.table("2018", null)), contains("team2", "team1"));
+
+        table.apply(week1.copy().withHomeTeamPts(90.0), week1.copy().withHomeTeamPts(90.0).withYear("2019"));
+        assertThat(standings.table("2018", null).stream().mapToInt(Standing::getWins).sum(), is(0));
+        assertThat(teams(standings.table("2019", null)), contains("team2", "team1"));
+
+        table.apply(week1.copy().withHomeTeamPts(90.0).withYear("2019"), null);
+        assertThat(standings.table("2019", null), is(empty()));
+    }
+
+    @Test
+    public void tableShouldBeUnavailableUntilWarm() throws Exception {
+
+        assertThrows(ProjectionNotWarmException.class, () -> standings.table("2018", null));
+    }
+
+    @Test
+    public void applyShouldBeIgnoredUntilWarm() throws Exception {
+
+        table.apply(null, week1);
+        warm(asList(week1, week2));
+        assertThat(standings.table("2018", null).size(), is(3));
+    }
+
+    @Test
+    public void rebuildShouldReplayWritesAppliedDuringItsScan() throws Exception {
+
+        table.beginRebuild();
+        table.apply(null, week2);
+        table.apply(week1, week1.copy().withHomeTeamPts(90.0));
+        table.completeRebuild(asList(week1));
+
+        assertThat(teams(standings.table("2018", null)), contains("team3", "team2", "team1"));
+    }
+
+    @Test
+    public void applyShouldKeepTheLaterOfTwoWritesAppliedInReverseOrder() throws Exception {
+
+        warm(asList(week1.copy().withVersion(1L)));
+
+        table.apply(week1, week1.copy().withHomeTeamPts(90.0).withVersion(3L));
+        table.apply(week1, week1.copy().withHomeTeamPts(120.0).withVersion(2L));
+        assertThat(teams(standings.table("2018", null)), contains("team2", "team1"));
+    }
+
+    private static List<String> teams(List<Standing> table) {
+        return table.stream().map(Standing::getTeam).collect(Collectors.toList());
+    }
+
+    private void warm(List<Game> games) {
+        table.beginRebuild();
+        table.completeRebuild(games);
+    }
+}
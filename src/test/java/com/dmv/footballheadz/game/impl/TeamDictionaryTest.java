@@ -0,0 +1,37 @@
+package com.dmv.footballheadz.game.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class TeamDictionaryTest {
+
+    private final TeamDictionary dictionary = new TeamDictionary();
+
+    @Test
+    public void idsShouldBeDenseAndStable() throws Exception {
+
+        assertThat(dictionary.idOf("team1"), is(0));
+        assertThat(dictionary.idOf("team2"), is(1));
+        assertThat(dictionary.idOf("team1"), is(0));
+        assertThat(dictionary.size(), is(2));
+        assertThat(dictionary.nameOf(1), is("team2"));
+    }
+
+    @Test
+    public void findShouldNotAssignIds() throws Exception {
+
+        assertThat(dictionary.find("team1"), is(-1));
+        assertThat(dictionary.size(), is(0));
+    }
+
+    @Test
+    public void dictionaryShouldGrowPastItsInitialCapacity() throws Exception {
+
+        for (int team = 0; team < 1000; team++) {
+            assertThat(dictionary.idOf("team" + team), is(team));
+        }
+        assertThat(dictionary.nameOf(999), is("team999"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.dmv.footballheadz.game.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+@ExtendWith(SpringExtension.class)
+class TeamIndexTest {
+
+    private final GameTable table = new GameTable();
+
+    private final TeamIndex teamIndex = new TeamIndex();
+
+    private final Game week10 = new Game().withId("1d1").withYear("2018").withWeek("10")
+            .withHomeTeam("team1").withAwayTeam("team2");
+    private final Game week2 = new Game().withId("1d2").withYear("2018").withWeek("2")
+            .withHomeTeam("team3").withAwayTeam("team1");
+    private final Game lastSeason = new Game().withId("1d3").withYear("2017").withWeek("12")
+            .withHomeTeam("team2").withAwayTeam("team1");
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(teamIndex, "gameTable", table);
+    }
+
+    @Test
+    public void gamesShouldBeEmptyUntilWarm() throws Exception {
+
+        assertThat(teamIndex.isWarm(), is(false));
+        assertThat(teamIndex.games("team1"), is(Optional.empty()));
+        table.apply(null, week2);
+        assertThat(teamIndex.games("team1"), is(Optional.empty()));
+    }
+
+    @Test
+    public void gamesShouldBeCopiesInScheduleOrder() throws Exception {
+
+        warm(week10, week2, lastSeason);
+
+        assertThat(teamIndex.isWarm(), is(true));
+        List<Game> games = teamIndex.games("team1").get();
+        assertThat(games, contains(lastSeason, week2, week10));
+        assertThat(games.get(0), is(not(sameInstance(lastSeason))));
+        assertThat(teamIndex.games("team3").get(), contains(week2));
+        assertThat(teamIndex.games("team4").get(), is(empty()));
+    }
+
+    @Test
+    public void applyShouldMoveGamesIncrementally() throws Exception {
+
+        warm(week10, week2);
+
+        Game moved = week10.copy().withAwayTeam("team3");
+        table.apply(week10, moved);
+        assertThat(teamIndex.games("team2").get(), is(empty()));
+        assertThat(teamIndex.games("team3").get(), contains(week2, moved));
+
+        table.apply(week2, null);
+        assertThat(teamIndex.games("team1").get(), contains(moved));
+        assertThat(teamIndex.games("team3").get(), contains(moved));
+    }
+
+    @Test
+    public void rebuildShouldReplayWritesMadeWhileItScanned() throws Exception {
+
+        Game created = new Game().withId("1d4").withYear("2018").withWeek("11")
+                .withHomeTeam("team1").withAwayTeam("team4");
+        table.beginRebuild();
+        table.apply(null, created);
+        table.apply(week2, null);
+        table.completeRebuild(asList(week10, week2));
+
+        assertThat(teamIndex.games("team1").get(), contains(week10, created));
+        assertThat(teamIndex.games("team3").get(), is(empty()));
+    }
+
+    private void warm(Game... games) {
+        table.beginRebuild();
+        table.completeRebuild(asList(games));
+    }
+}
@@ -0,0 +1,16 @@
+package com.dmv.footballheadz.game.impl;
+
+/**
+ * Scored games for the tests of what is derived from every game.
+ */
+final class TestGames {
+
+    private TestGames() {
+    }
+
+    static Game game(String id, String year, String week, String home, String away,
+                     double homePts, double awayPts) {
+        return new Game().withId(id).withYear(year).withWeek(week).withHomeTeam(home).withAwayTeam(away)
+                .withHomeTeamPts(homePts).withAwayTeamPts(awayPts);
+    }
+}
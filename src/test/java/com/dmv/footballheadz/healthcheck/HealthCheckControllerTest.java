@@ -1,8 +1,14 @@
 package com.dmv.footballheadz.healthcheck;
 
+import com.dmv.footballheadz.game.impl.GameProjections;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class HealthCheckControllerTest {
 
@@ -11,8 +17,22 @@ class HealthCheckControllerTest {
     @Test
     public void healthCheckShouldReturnUp() throws Exception {
 
-        String result = healthCheckController.healthCheck();
-        assertEquals(result, "up");
+        ResponseEntity<String> result = healthCheckController.healthCheck();
+        assertEquals(result.getBody(), "up");
+        assertEquals(result.getStatusCode(), HttpStatus.OK);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void healthCheckShouldBeUnavailableUntilTheGameProjectionsAreWarm() throws Exception {
+
+        GameProjections gameProjections = mock(GameProjections.class);
+        ReflectionTestUtils.setField(healthCheckController, "gameProjections", gameProjections);
+
+        ResponseEntity<String> result = healthCheckController.healthCheck();
+        assertEquals(result.getStatusCode(), HttpStatus.SERVICE_UNAVAILABLE);
+
+        when(gameProjections.isWarm()).thenReturn(true);
+        assertEquals(healthCheckController.healthCheck().getBody(), "up");
+    }
+
+}
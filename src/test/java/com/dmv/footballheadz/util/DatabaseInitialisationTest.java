@@ -13,7 +13,11 @@ import org.mockito.Mock;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import static com.amazonaws.services.dynamodbv2.model.TableStatus.*;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(SpringExtension.class)
@@ -83,6 +87,41 @@ class DatabaseInitialisationTest {
         verify(dynamoDB).createTable(createTableRequest);
     }
 
+    @Test
+    public void shouldCreateIndexesWithFullProjectionWhenCreatingTable() throws Exception {
+
+        createTableRequest.withGlobalSecondaryIndexes(new GlobalSecondaryIndex().withIndexName("HomeTeam-index"));
+        when(dynamoDB.describeTable(tableName)).thenThrow(new ResourceNotFoundException("Simulated failure"));
+        databaseInitialisation.onApplicationEvent(null);
+        GlobalSecondaryIndex index = createTableRequest.getGlobalSecondaryIndexes().get(0);
+        assertThat(index.getProjection().getProjectionType(), is(ProjectionType.ALL.toString()));
+        assertThat(index.getProvisionedThroughput(), is(notNullValue()));
+    }
+
+    @Test
+    public void shouldCreateMissingIndexOnExistingTable() throws Exception {
+
+        createTableRequest.withGlobalSecondaryIndexes(
+                new GlobalSecondaryIndex().withIndexName("HomeTeam-index"),
+                new GlobalSecondaryIndex().withIndexName("AwayTeam-index"));
+        when(dynamoDB.describeTable(tableName)).thenReturn(new DescribeTableResult().withTable(
+                tableDescriptionWithStatus(ACTIVE).withGlobalSecondaryIndexes(
+                        new GlobalSecondaryIndexDescription().withIndexName("HomeTeam-index"))));
+        databaseInitialisation.onApplicationEvent(null);
+        verify(dynamoDB, times(1)).updateTable(argThat((UpdateTableRequest update) -> "AwayTeam-index".equals(
+                update.getGlobalSecondaryIndexUpdates().get(0).getCreate().getIndexName())));
+    }
+
+    @Test
+    public void shouldNotCreateMissingIndexWhileTableIsBusy() throws Exception {
+
+        createTableRequest.withGlobalSecondaryIndexes(new GlobalSecondaryIndex().withIndexName("HomeTeam-index"));
+        when(dynamoDB.describeTable(tableName))
+                .thenReturn(new DescribeTableResult().withTable(tableDescriptionWithStatus(UPDATING)));
+        databaseInitialisation.onApplicationEvent(null);
+        verify(dynamoDB, never()).updateTable(any(UpdateTableRequest.class));
+    }
+
     private TableDescription tableDescriptionWithStatus(TableStatus status) {
 
         return new TableDescription().withTableStatus(status).withTableName(tableName);
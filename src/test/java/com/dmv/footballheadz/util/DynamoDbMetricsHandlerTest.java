@@ -0,0 +1,86 @@
+package com.dmv.footballheadz.util;
+
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.Response;
+import com.amazonaws.http.HttpResponse;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+class DynamoDbMetricsHandlerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final DynamoDbMetricsHandler handler = new DynamoDbMetricsHandler(registry);
+
+    @Test
+    public void beforeExecutionShouldAskForConsumedCapacityUnlessSet() throws Exception {
+        ScanRequest scan = new ScanRequest("Game");
+        handler.beforeExecution(scan);
+        assertThat(scan.getReturnConsumedCapacity(), is(ReturnConsumedCapacity.TOTAL.toString()));
+
+        GetItemRequest get = new GetItemRequest().withReturnConsumedCapacity(ReturnConsumedCapacity.NONE);
+        handler.beforeExecution(get);
+        assertThat(get.getReturnConsumedCapacity(), is(ReturnConsumedCapacity.NONE.toString()));
+    }
+
+    @Test
+    public void afterResponseShouldRecordScannedReturnedAndCapacity() throws Exception {
+        ScanRequest scan = new ScanRequest("Game").withIndexName("HomeTeam-index");
+        ScanResult result = new ScanResult().withScannedCount(100).withCount(4)
+                .withConsumedCapacity(new ConsumedCapacity().withTableName("Game").withCapacityUnits(12.5));
+        handler.afterResponse(new DefaultRequest<>(scan, "DynamoDB"), new Response<>(result, mock(HttpResponse.class)));
+
+        assertThat(registry.get(DynamoDbMetricsHandler.SCANNED)
+                .tag("operation", "Scan").tag("index", "HomeTeam-index").summary().totalAmount(), is(100.0));
+        assertThat(registry.get(DynamoDbMetricsHandler.RETURNED)
+                .tag("operation", "Scan").summary().totalAmount(), is(4.0));
+        assertThat(registry.get(DynamoDbMetricsHandler.CAPACITY)
+                .tag("operation", "Scan").tag("table", "Game").counter().count(), is(12.5));
+    }
+
+    @Test
+    public void afterResponseShouldRecordCapacityOfPointReads() throws Exception {
+        GetItemResult result = new GetItemResult()
+                .withConsumedCapacity(new ConsumedCapacity().withTableName("Game").withCapacityUnits(0.5));
+        handler.afterResponse(new DefaultRequest<>(new GetItemRequest(), "DynamoDB"),
+                new Response<>(result, mock(HttpResponse.class)));
+        assertThat(registry.get(DynamoDbMetricsHandler.CAPACITY)
+                .tag("operation", "GetItem").counter().count(), is(0.5));
+    }
+
+    @Test
+    public void afterResponseShouldAddToTheUsageOfTheCurrentRequest() throws Exception {
+        DynamoDbUsage usage = DynamoDbUsage.begin();
+        try {
+            handler.afterResponse(new DefaultRequest<>(new QueryRequest("Game"), "DynamoDB"),
+                    new Response<>(new QueryResult().withScannedCount(8).withCount(8)
+                            .withConsumedCapacity(new ConsumedCapacity().withCapacityUnits(1.5)),
+                            mock(HttpResponse.class)));
+            handler.afterResponse(new DefaultRequest<>(new PutItemRequest(), "DynamoDB"),
+                    new Response<>(new PutItemResult()
+                            .withConsumedCapacity(new ConsumedCapacity().withCapacityUnits(1.0)),
+                            mock(HttpResponse.class)));
+        } finally {
+            DynamoDbUsage.end();
+        }
+        assertThat(usage.getCalls(), is(2L));
+        assertThat(usage.getReadCapacity(), is(1.5));
+        assertThat(usage.getWriteCapacity(), is(1.0));
+        assertThat(usage.getScannedCount(), is(8L));
+        assertThat(usage.getReturnedCount(), is(8L));
+    }
+}
@@ -0,0 +1,50 @@
+package com.dmv.footballheadz.util;
+
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.Response;
+import com.amazonaws.http.HttpResponse;
+import com.amazonaws.util.AWSRequestMetrics;
+import com.amazonaws.util.AWSRequestMetricsFullSupport;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+class DynamoDbRequestMetricCollectorTest {
+
+    private final DynamoDbRequestMetricCollector collector = new DynamoDbRequestMetricCollector();
+
+    @Test
+    public void shouldCountAttemptsThrottlingAndPoolUsage() throws Exception {
+        DefaultRequest<Object> request = new DefaultRequest<>("DynamoDB");
+        AWSRequestMetrics metrics = new AWSRequestMetricsFullSupport();
+        metrics.startEvent(AWSRequestMetrics.Field.ClientExecuteTime);
+        metrics.incrementCounter(AWSRequestMetrics.Field.RequestCount);
+        metrics.incrementCounter(AWSRequestMetrics.Field.RequestCount);
+        metrics.incrementCounter(AWSRequestMetrics.Field.RequestCount);
+        metrics.incrementCounter(AWSRequestMetrics.Field.ThrottleException);
+        metrics.setCounter(AWSRequestMetrics.Field.HttpClientPoolLeasedCount, 12);
+        metrics.setCounter(AWSRequestMetrics.Field.HttpClientPoolPendingCount, 3);
+        metrics.endEvent(AWSRequestMetrics.Field.ClientExecuteTime);
+        request.setAWSRequestMetrics(metrics);
+
+        collector.collectMetrics(request, new Response<>(null, mock(HttpResponse.class)));
+
+        assertThat(collector.getRequestCount(), is(1L));
+        assertThat(collector.getRetryCount(), is(2L));
+        assertThat(collector.getThrottleCount(), is(1L));
+        assertThat(collector.getErrorCount(), is(0L));
+        assertThat(collector.getPoolLeased(), is(12));
+        assertThat(collector.getPoolPending(), is(3));
+    }
+
+    @Test
+    public void shouldCountCallsWithoutResponseAsErrors() throws Exception {
+        DefaultRequest<Object> request = new DefaultRequest<>("DynamoDB");
+        request.setAWSRequestMetrics(new AWSRequestMetricsFullSupport());
+        collector.collectMetrics(request, null);
+        assertThat(collector.getRequestCount(), is(1L));
+        assertThat(collector.getErrorCount(), is(1L));
+    }
+}
@@ -0,0 +1,93 @@
+package com.dmv.footballheadz.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class DynamoDbUsageFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final DynamoDbUsageFilter filter = new DynamoDbUsageFilter();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        ReflectionTestUtils.setField(filter, "registry", registry);
+        ReflectionTestUtils.setField(filter, "warnCapacity", 100.0);
+    }
+
+    @Test
+    public void usageShouldBeRecordedPerEndpoint() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/game/");
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/v1/game/");
+                DynamoDbUsage.current().recordCall();
+                DynamoDbUsage.current().recordRead(4.5);
+                DynamoDbUsage.current().recordItems(120, 6);
+            }
+        }));
+
+        assertThat(DynamoDbUsage.current(), is(nullValue()));
+        assertThat(registry.get(DynamoDbUsageFilter.READ_CAPACITY)
+                .tag("method", "GET").tag("uri", "/v1/game/").summary().totalAmount(), is(4.5));
+        assertThat(registry.get(DynamoDbUsageFilter.SCANNED).tag("uri", "/v1/game/").summary().totalAmount(), is(120.0));
+        assertThat(registry.get(DynamoDbUsageFilter.RETURNED).tag("uri", "/v1/game/").summary().totalAmount(), is(6.0));
+    }
+
+    @Test
+    public void requestsNotCallingDynamoDbShouldNotBeRecorded() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/health"), new MockHttpServletResponse(), new MockFilterChain());
+        assertThat(registry.find(DynamoDbUsageFilter.READ_CAPACITY).summary(), is(nullValue()));
+    }
+
+    @Test
+    public void asyncRequestsShouldBeRecordedWithTheirAsyncWorkOnceTheyComplete() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/game/export");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/v1/game/export");
+                WebAsyncManager manager = WebAsyncUtils.getAsyncManager(req);
+                manager.setAsyncWebRequest(new StandardServletAsyncWebRequest(req, resp));
+                manager.setTaskExecutor(new ConcurrentTaskExecutor(Runnable::run));
+                try {
+                    manager.startCallableProcessing(() -> {
+                        DynamoDbUsage.current().recordCall();
+                        DynamoDbUsage.current().recordRead(2.5);
+                        return null;
+                    });
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }));
+
+        assertThat(DynamoDbUsage.current(), is(nullValue()));
+        assertThat(registry.find(DynamoDbUsageFilter.READ_CAPACITY).summary(), is(nullValue()));
+
+        request.getAsyncContext().complete();
+        assertThat(registry.get(DynamoDbUsageFilter.READ_CAPACITY)
+                .tag("uri", "/v1/game/export").summary().totalAmount(), is(2.5));
+    }
+}
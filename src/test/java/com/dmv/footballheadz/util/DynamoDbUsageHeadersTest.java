@@ -0,0 +1,48 @@
+package com.dmv.footballheadz.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class DynamoDbUsageHeadersTest {
+
+    private final DynamoDbUsageHeaders advice = new DynamoDbUsageHeaders();
+
+    @AfterEach
+    public void tearDown() {
+        DynamoDbUsage.end();
+    }
+
+    @Test
+    public void usageShouldBeAddedToTheResponseHeaders() throws Exception {
+        DynamoDbUsage usage = DynamoDbUsage.begin();
+        usage.recordRead(12.5);
+        usage.recordWrite(1);
+        usage.recordItems(250, 4);
+        ServletServerHttpResponse response = new ServletServerHttpResponse(new MockHttpServletResponse());
+
+        Object body = advice.beforeBodyWrite("body", null, null, null,
+                new ServletServerHttpRequest(new MockHttpServletRequest()), response);
+
+        assertThat(body, is("body"));
+        assertThat(response.getHeaders().getFirst(DynamoDbUsageHeaders.READ_CAPACITY), is("12.5"));
+        assertThat(response.getHeaders().getFirst(DynamoDbUsageHeaders.WRITE_CAPACITY), is("1.0"));
+        assertThat(response.getHeaders().getFirst(DynamoDbUsageHeaders.SCANNED_COUNT), is("250"));
+        assertThat(response.getHeaders().getFirst(DynamoDbUsageHeaders.RETURNED_COUNT), is("4"));
+    }
+
+    @Test
+    public void noHeadersShouldBeAddedOutsideOfARequest() throws Exception {
+        ServletServerHttpResponse response = new ServletServerHttpResponse(new MockHttpServletResponse());
+        advice.beforeBodyWrite("body", null, null, null,
+                new ServletServerHttpRequest(new MockHttpServletRequest()), response);
+        assertThat(response.getHeaders().getFirst(DynamoDbUsageHeaders.READ_CAPACITY), is(nullValue()));
+    }
+}
@@ -0,0 +1,48 @@
+package com.dmv.footballheadz.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class DynamoDbUsageTest {
+
+    @AfterEach
+    public void tearDown() {
+        DynamoDbUsage.end();
+    }
+
+    @Test
+    public void usageShouldBeBoundToTheThreadUntilEnded() throws Exception {
+        assertThat(DynamoDbUsage.current(), is(nullValue()));
+        DynamoDbUsage usage = DynamoDbUsage.begin();
+        assertThat(DynamoDbUsage.current(), is(sameInstance(usage)));
+        DynamoDbUsage.end();
+        assertThat(DynamoDbUsage.current(), is(nullValue()));
+    }
+
+    @Test
+    public void propagatedTasksShouldCountAgainstTheCallersUsage() throws Exception {
+        DynamoDbUsage usage = DynamoDbUsage.begin();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(DynamoDbUsage.propagate(() -> {
+                DynamoDbUsage.current().recordRead(2.5);
+                DynamoDbUsage.current().recordItems(10, 3);
+                return null;
+            })).get();
+            assertThat(executor.submit(DynamoDbUsage::current).get(), is(nullValue()));
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(usage.getReadCapacity(), is(2.5));
+        assertThat(usage.getScannedCount(), is(10L));
+        assertThat(usage.getReturnedCount(), is(3L));
+    }
+}
@@ -0,0 +1,80 @@
+package com.dmv.footballheadz.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class ExpiringCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final ExpiringCache<String, String> cache = new ExpiringCache<>(2, 10, TimeUnit.NANOSECONDS, now::get);
+
+    @Test
+    public void getShouldCountHitsAndMisses() throws Exception {
+
+        cache.put("1d", "GimmyDaLoot");
+        assertThat(cache.get("1d"), is(Optional.of("GimmyDaLoot")));
+        assertThat(cache.get("2d"), is(Optional.empty()));
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(cache.getMissCount(), is(1L));
+    }
+
+    @Test
+    public void putShouldEvictLeastRecentlyUsedEntryWhenFull() throws Exception {
+
+        cache.put("1d", "GimmyDaLoot");
+        cache.put("2d", "HogPit");
+        cache.get("1d");
+        cache.put("3d", "Hammers");
+        assertThat(cache.get("2d"), is(Optional.empty()));
+        assertThat(cache.get("1d"), is(Optional.of("GimmyDaLoot")));
+        assertThat(cache.getEvictionCount(), is(1L));
+        assertThat(cache.size(), is(2));
+    }
+
+    @Test
+    public void getShouldEvictExpiredEntries() throws Exception {
+
+        cache.put("1d", "GimmyDaLoot");
+        now.addAndGet(11);
+        assertThat(cache.get("1d"), is(Optional.empty()));
+        assertThat(cache.getEvictionCount(), is(1L));
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void putIfUnchangedShouldNotOverwriteAnEntryPutSinceTheMark() throws Exception {
+
+        long mark = cache.mark();
+        cache.put("1d", "HogPit");
+        assertThat(cache.putIfUnchanged("1d", "GimmyDaLoot", mark), is(false));
+        assertThat(cache.get("1d"), is(Optional.of("HogPit")));
+
+        assertThat(cache.putIfUnchanged("2d", "Hammers", mark), is(true));
+        assertThat(cache.get("2d"), is(Optional.of("Hammers")));
+    }
+
+    @Test
+    public void putIfUnchangedShouldNotRestoreAnEntryInvalidatedSinceTheMark() throws Exception {
+
+        cache.put("1d", "GimmyDaLoot");
+        long mark = cache.mark();
+        cache.invalidate("1d");
+        assertThat(cache.putIfUnchanged("1d", "GimmyDaLoot", mark), is(false));
+        assertThat(cache.get("1d"), is(Optional.empty()));
+    }
+
+    @Test
+    public void invalidateShouldRemoveEntry() throws Exception {
+
+        cache.put("1d", "GimmyDaLoot");
+        cache.invalidate("1d");
+        assertThat(cache.get("1d"), is(Optional.empty()));
+    }
+}
@@ -0,0 +1,71 @@
+package com.dmv.footballheadz.util;
+
+import com.dmv.footballheadz.game.IAsyncRepository;
+import com.dmv.footballheadz.game.IService;
+import com.dmv.footballheadz.game.impl.Game;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GameMetricsAspectTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final GameMetricsAspect aspect = new GameMetricsAspect();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        ReflectionTestUtils.setField(aspect, "registry", registry);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void serviceCallsShouldBeTimedByMethodAndOutcome() throws Exception {
+        IService<Game> target = mock(IService.class);
+        when(target.read("1d")).thenReturn(Optional.empty());
+        when(target.delete("1d", null)).thenThrow(new IllegalStateException("Simulated failure"));
+        IService<Game> service = proxy(target);
+
+        service.read("1d");
+        service.read("1d");
+        assertThrows(IllegalStateException.class, () -> service.delete("1d", null));
+
+        assertThat(registry.get(GameMetricsAspect.SERVICE_TIMER)
+                .tag("method", "read").tag("exception", "none").timer().count(), is(2L));
+        assertThat(registry.get(GameMetricsAspect.SERVICE_TIMER)
+                .tag("method", "delete").tag("exception", "IllegalStateException").timer().count(), is(1L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void asyncRepositoryCallsShouldBeTimedUntilTheyComplete() throws Exception {
+        IAsyncRepository<Game> target = mock(IAsyncRepository.class);
+        CompletableFuture<Optional<Game>> pending = new CompletableFuture<>();
+        when(target.read("1d")).thenReturn(pending);
+        IAsyncRepository<Game> repository = proxy(target);
+
+        repository.read("1d");
+        assertThat(registry.find(GameMetricsAspect.REPOSITORY_TIMER).timer(), is(nullValue()));
+        pending.complete(Optional.empty());
+        assertThat(registry.get(GameMetricsAspect.REPOSITORY_TIMER)
+                .tag("method", "read").timer().count(), is(1L));
+    }
+
+    private <T> T proxy(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+}
@@ -0,0 +1,60 @@
+package com.dmv.footballheadz.util;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.model.ResourceNotFoundException;
+import com.dmv.footballheadz.game.impl.Game;
+import com.dmv.footballheadz.game.impl.GameRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+class MatchupBackfillTest {
+
+    @Mock
+    private GameRepository repository;
+
+    @InjectMocks
+    private MatchupBackfill matchupBackfill;
+
+    @Test
+    public void shouldDoNothingWhenDisabled() throws Exception {
+
+        matchupBackfill.onApplicationEvent(null);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void shouldResaveGamesMissingTheMatchup() throws Exception {
+
+        ReflectionTestUtils.setField(matchupBackfill, "enabled", true);
+        Game game1 = new Game().withId("1d").withHomeTeam("GimmyDaLoot").withAwayTeam("HogPit").withYear("2012").withWeek("3");
+        Game game2 = new Game().withId("2d").withHomeTeam("HogPit").withAwayTeam("GimmyDaLoot");
+        when(repository.readExpression(any(DynamoDBScanExpression.class))).thenReturn(asList(game1, game2));
+        matchupBackfill.onApplicationEvent(null);
+        verify(repository).save(game1);
+        verify(repository).save(game2);
+        assertThat(game1.getMatchup(), is("GimmyDaLoot#HogPit"));
+        assertThat(game2.getMatchup(), is("GimmyDaLoot#HogPit"));
+        assertThat(game1.getSeasonWeek(), is("2012#03"));
+    }
+
+    @Test
+    public void shouldSkipWhenTableDoesNotExist() throws Exception {
+
+        ReflectionTestUtils.setField(matchupBackfill, "enabled", true);
+        when(repository.readExpression(any(DynamoDBScanExpression.class)))
+                .thenThrow(new ResourceNotFoundException("Simulated failure"));
+        matchupBackfill.onApplicationEvent(null);
+        verify(repository, never()).save(any(Game.class));
+    }
+}
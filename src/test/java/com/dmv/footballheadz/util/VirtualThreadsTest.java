@@ -0,0 +1,77 @@
+package com.dmv.footballheadz.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VirtualThreadsTest {
+
+    @Test
+    public void executorShouldExistExactlyWhenTheJdkHasVirtualThreads() throws Exception {
+        boolean supported;
+        try {
+            Thread.class.getMethod("isVirtual");
+            supported = true;
+        } catch (NoSuchMethodException e) {
+            supported = false;
+        }
+        Optional<ExecutorService> executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+        assertThat(executor.isPresent(), is(supported));
+        if (supported) {
+            Object isVirtual = executor.get()
+                    .submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()))
+                    .get();
+            executor.get().shutdown();
+            assertThat((Boolean) isVirtual, is(true));
+        }
+    }
+
+    @Test
+    public void boundedShouldHoldCallsInFlightToThePermits() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        Callable<Integer> target = () -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return 1;
+        };
+        @SuppressWarnings("unchecked")
+        Callable<Integer> bounded = VirtualThreads.bounded(Callable.class, target, 2);
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<Integer>> calls = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                calls.add(executor.submit(bounded));
+            }
+            for (Future<Integer> call : calls) {
+                assertThat(call.get(), is(1));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(maxInFlight.get(), is(2));
+    }
+
+    @Test
+    public void boundedShouldRethrowWhatTheTargetThrows() throws Exception {
+        @SuppressWarnings("unchecked")
+        Callable<Integer> bounded = VirtualThreads.bounded(Callable.class, () -> {
+            throw new IOException("down");
+        }, 1);
+        assertThrows(IOException.class, bounded::call);
+        assertThrows(IOException.class, bounded::call);
+    }
+}